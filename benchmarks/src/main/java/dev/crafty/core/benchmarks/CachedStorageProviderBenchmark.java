@@ -0,0 +1,96 @@
+package dev.crafty.core.benchmarks;
+
+import dev.crafty.core.storage.AbstractStorageProvider;
+import dev.crafty.core.storage.CachedStorageProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hit and miss paths of {@link CachedStorageProvider} over an in-memory backend, so the numbers
+ * measure the cache itself rather than any I/O.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CachedStorageProviderBenchmark {
+    private static final int KEYS = 10_000;
+
+    private CachedStorageProvider<SamplePlayerData, String> cached;
+    private String[] keys;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        InMemoryProvider backend = new InMemoryProvider();
+        keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "key" + i;
+            backend.values.put(keys[i], SamplePlayerData.create(i, 10));
+        }
+
+        cached = new CachedStorageProvider<>(backend);
+        for (String key : keys) {
+            cached.get(key).join();
+        }
+    }
+
+    @Benchmark
+    public Optional<SamplePlayerData> hit() {
+        return cached.get(nextKey()).join();
+    }
+
+    @Benchmark
+    public Optional<SamplePlayerData> miss() {
+        String key = nextKey();
+        cached.clear();
+        return cached.get(key).join();
+    }
+
+    @Benchmark
+    public Boolean existsHit() {
+        return cached.exists(nextKey()).join();
+    }
+
+    private String nextKey() {
+        next = (next + 1) % KEYS;
+        return keys[next];
+    }
+
+    private static class InMemoryProvider extends AbstractStorageProvider<SamplePlayerData, String> {
+        private final ConcurrentHashMap<String, SamplePlayerData> values = new ConcurrentHashMap<>();
+
+        private InMemoryProvider() {
+            super(SamplePlayerData.class);
+        }
+
+        @Override
+        public CompletableFuture<Void> save(String key, SamplePlayerData value) {
+            values.put(key, value);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Optional<SamplePlayerData>> get(String key) {
+            return CompletableFuture.completedFuture(Optional.ofNullable(values.get(key)));
+        }
+
+        @Override
+        public CompletableFuture<Collection<SamplePlayerData>> getAll() {
+            return CompletableFuture.completedFuture(values.values());
+        }
+
+        @Override
+        public CompletableFuture<Void> delete(String key) {
+            values.remove(key);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
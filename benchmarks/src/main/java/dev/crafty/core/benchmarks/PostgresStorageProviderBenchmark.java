@@ -0,0 +1,86 @@
+package dev.crafty.core.benchmarks;
+
+import dev.crafty.core.storage.providers.PostgresStorageProvider;
+import dev.crafty.core.storage.serialization.Compression;
+import dev.crafty.core.storage.serialization.StorageSerializer;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PostgresStorageProvider} against an embedded PostgreSQL server started for the trial,
+ * with and without compression of large values.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PostgresStorageProviderBenchmark {
+    private static final int ROWS = 1000;
+
+    @Param({"10", "1000"})
+    public int inventorySize;
+
+    @Param({"NONE", "DEFLATE"})
+    public Compression compression;
+
+    private EmbeddedPostgres postgres;
+    private PostgresStorageProvider<SamplePlayerData> provider;
+    private SamplePlayerData value;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        StorageSerializer.setCompression(SamplePlayerData.class, compression, 1024);
+
+        postgres = EmbeddedPostgres.start();
+        provider = new PostgresStorageProvider<>(
+                SamplePlayerData.class,
+                "bench_" + compression.getId() + "_" + inventorySize,
+                postgres.getJdbcUrl("postgres", "postgres"),
+                "postgres",
+                "postgres"
+        );
+        provider.initialize().join();
+        value = SamplePlayerData.create(7, inventorySize);
+
+        CompletableFuture<?>[] writes = new CompletableFuture[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            writes[i] = provider.save("key" + i, SamplePlayerData.create(i, inventorySize));
+        }
+        CompletableFuture.allOf(writes).join();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        provider.close().join();
+        postgres.close();
+        StorageSerializer.clearCompression(SamplePlayerData.class);
+    }
+
+    @Benchmark
+    public void save() {
+        provider.save("key" + ThreadLocalRandom.current().nextInt(ROWS), value).join();
+    }
+
+    @Benchmark
+    public Optional<SamplePlayerData> get() {
+        return provider.get("key" + ThreadLocalRandom.current().nextInt(ROWS)).join();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public Collection<SamplePlayerData> getAll() {
+        return provider.getAll().join();
+    }
+}
@@ -0,0 +1,44 @@
+package dev.crafty.core.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A representative stored value: a few scalars plus an inventory list and a stats map.
+ */
+public class SamplePlayerData {
+    public String playerId;
+    public String name;
+    public long coins;
+    public double playtimeHours;
+    public List<String> inventory = new ArrayList<>();
+    public Map<String, Integer> stats = new LinkedHashMap<>();
+
+    public SamplePlayerData() {
+    }
+
+    /**
+     * Creates a sample value whose JSON size grows with the number of inventory entries.
+     *
+     * @param seed Distinguishes values from each other
+     * @param inventorySize The number of inventory entries
+     * @return The sample value
+     */
+    public static SamplePlayerData create(int seed, int inventorySize) {
+        SamplePlayerData data = new SamplePlayerData();
+        data.playerId = new UUID(seed, seed * 31L).toString();
+        data.name = "player" + seed;
+        data.coins = seed * 100L;
+        data.playtimeHours = seed / 7.0;
+        for (int i = 0; i < inventorySize; i++) {
+            data.inventory.add("minecraft:diamond_sword{damage:" + (i % 32) + ",slot:" + i + "}");
+        }
+        data.stats.put("kills", seed % 500);
+        data.stats.put("deaths", seed % 120);
+        data.stats.put("blocks_broken", seed * 13);
+        return data;
+    }
+}
@@ -0,0 +1,79 @@
+package dev.crafty.core.benchmarks;
+
+import dev.crafty.core.storage.serialization.Compression;
+import dev.crafty.core.storage.serialization.StorageSerializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON and YAML round trips through {@link StorageSerializer}, including the compressed storage
+ * format used by the SQL backends.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StorageSerializerBenchmark {
+
+    /**
+     * Inventory entries per value; 10 is a small record, 1000 serializes to roughly 50 KB.
+     */
+    @Param({"10", "1000"})
+    public int inventorySize;
+
+    @Param({"NONE", "DEFLATE", "GZIP"})
+    public Compression compression;
+
+    private SamplePlayerData value;
+    private String json;
+    private String yaml;
+    private String storageJson;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        StorageSerializer.setCompression(SamplePlayerData.class, compression, 0);
+        value = SamplePlayerData.create(42, inventorySize);
+        json = StorageSerializer.toJson(value);
+        yaml = StorageSerializer.toYaml(value);
+        storageJson = StorageSerializer.toStorageJson(value);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        StorageSerializer.clearCompression(SamplePlayerData.class);
+    }
+
+    @Benchmark
+    public String toJson() throws IOException {
+        return StorageSerializer.toJson(value);
+    }
+
+    @Benchmark
+    public SamplePlayerData fromJson() throws IOException {
+        return StorageSerializer.fromJson(json, SamplePlayerData.class);
+    }
+
+    @Benchmark
+    public String toYaml() throws IOException {
+        return StorageSerializer.toYaml(value);
+    }
+
+    @Benchmark
+    public SamplePlayerData fromYaml() throws IOException {
+        return StorageSerializer.fromYaml(yaml, SamplePlayerData.class);
+    }
+
+    @Benchmark
+    public String toStorageJson() throws IOException {
+        return StorageSerializer.toStorageJson(value);
+    }
+
+    @Benchmark
+    public SamplePlayerData fromStorageJson() throws IOException {
+        return StorageSerializer.fromStorageJson(storageJson, SamplePlayerData.class);
+    }
+}
@@ -0,0 +1,134 @@
+package dev.crafty.core.benchmarks;
+
+import dev.crafty.core.config.FastYamlLoader;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * {@link FastYamlLoader} against {@link YamlConfiguration#loadConfiguration(File)} on a directory
+ * of menu files, each with {@code itemsPerFile} item entries (about 12 lines per entry).
+ * <p>
+ * The {@code ...Few} benchmarks read the handful of keys a menu needs to open, the {@code ...All}
+ * benchmarks walk every value. {@code fastCold} clears the loader's node cache first, so it measures
+ * parsing; {@code fast} measures reopening files that have not changed.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class YamlLoaderBenchmark {
+
+    @Param({"200"})
+    public int fileCount;
+
+    @Param({"10", "100"})
+    public int itemsPerFile;
+
+    private Path directory;
+    private File[] files;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("craftycore-yaml-loader-bench");
+        files = new File[fileCount];
+        for (int i = 0; i < fileCount; i++) {
+            Path file = directory.resolve("menu" + i + ".yml");
+            Files.writeString(file, menu(i, itemsPerFile));
+            files[i] = file.toFile();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void bukkitFew(Blackhole blackhole) {
+        for (File file : files) {
+            readFew(YamlConfiguration.loadConfiguration(file), blackhole);
+        }
+    }
+
+    @Benchmark
+    public void fastColdFew(Blackhole blackhole) {
+        FastYamlLoader.clearCache();
+        for (File file : files) {
+            readFew(FastYamlLoader.load(file), blackhole);
+        }
+    }
+
+    @Benchmark
+    public void fastFew(Blackhole blackhole) {
+        for (File file : files) {
+            readFew(FastYamlLoader.load(file), blackhole);
+        }
+    }
+
+    @Benchmark
+    public void bukkitAll(Blackhole blackhole) {
+        for (File file : files) {
+            blackhole.consume(YamlConfiguration.loadConfiguration(file).getValues(true));
+        }
+    }
+
+    @Benchmark
+    public void fastColdAll(Blackhole blackhole) {
+        FastYamlLoader.clearCache();
+        for (File file : files) {
+            blackhole.consume(FastYamlLoader.load(file).getValues(true));
+        }
+    }
+
+    private static void readFew(YamlConfiguration config, Blackhole blackhole) {
+        blackhole.consume(config.getString("title"));
+        blackhole.consume(config.getStringList("layout"));
+        ConfigurationSection fill = config.getConfigurationSection("fill");
+        blackhole.consume(fill != null ? fill.getString("material") : null);
+    }
+
+    private static String menu(int index, int items) {
+        StringBuilder yaml = new StringBuilder()
+                .append("title: '&8Menu ").append(index).append("'\n")
+                .append("layout:\n");
+        for (int row = 0; row < 6; row++) {
+            yaml.append("  - 'ABCDEFGHI'\n");
+        }
+        yaml.append("fill:\n")
+                .append("  enabled: yes\n")
+                .append("  material: GRAY_STAINED_GLASS_PANE\n")
+                .append("items:\n");
+
+        for (int i = 0; i < items; i++) {
+            yaml.append("  item").append(i).append(":\n")
+                    .append("    slot: ").append(i % 54).append('\n')
+                    .append("    material: DIAMOND_SWORD\n")
+                    .append("    amount: ").append(1 + i % 64).append('\n')
+                    .append("    name: '&bItem ").append(i).append("'\n")
+                    .append("    glow: ").append(i % 2 == 0).append('\n')
+                    .append("    lore:\n")
+                    .append("      - '&7First line of lore'\n")
+                    .append("      - '&7Second line with a price of ").append(i * 10).append("'\n")
+                    .append("    actions:\n")
+                    .append("      left: 'buy ").append(i).append("'\n")
+                    .append("      right: 'sell ").append(i).append("'\n")
+                    .append("    cost: ").append(i * 2.5).append('\n');
+        }
+        return yaml.toString();
+    }
+}
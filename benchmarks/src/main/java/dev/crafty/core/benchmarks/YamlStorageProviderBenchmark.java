@@ -0,0 +1,84 @@
+package dev.crafty.core.benchmarks;
+
+import dev.crafty.core.storage.providers.YamlStorageProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * {@link YamlStorageProvider} against a temporary directory holding 1k or 100k files.
+ * The directory is populated once per trial, which takes a while for 100k files.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class YamlStorageProviderBenchmark {
+
+    @Param({"1000", "100000"})
+    public int fileCount;
+
+    private Path directory;
+    private YamlStorageProvider<SamplePlayerData> provider;
+    private SamplePlayerData value;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("craftycore-yaml-bench");
+        provider = new YamlStorageProvider<>(SamplePlayerData.class, directory);
+        provider.initialize().join();
+        value = SamplePlayerData.create(7, 10);
+
+        CompletableFuture<?>[] writes = new CompletableFuture[fileCount];
+        for (int i = 0; i < fileCount; i++) {
+            writes[i] = provider.save("key" + i, SamplePlayerData.create(i, 10));
+        }
+        CompletableFuture.allOf(writes).join();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void save() {
+        provider.save("key" + ThreadLocalRandom.current().nextInt(fileCount), value).join();
+    }
+
+    @Benchmark
+    public Optional<SamplePlayerData> get() {
+        return provider.get("key" + ThreadLocalRandom.current().nextInt(fileCount)).join();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public Collection<SamplePlayerData> getAll() {
+        return provider.getAll().join();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public Collection<String> getKeys() {
+        return provider.getKeys().join();
+    }
+}
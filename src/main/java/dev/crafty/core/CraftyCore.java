@@ -1,16 +1,24 @@
 package dev.crafty.core;
 
+import co.aikar.commands.PaperCommandManager;
 import dev.crafty.core.bridge.BridgeManager;
 import dev.crafty.core.bridge.economy.EconomyBridge;
 import dev.crafty.core.bridge.economy.vault.VaultEconomyBridge;
 import dev.crafty.core.bridge.placeholders.PlaceholderBridge;
 import dev.crafty.core.bridge.placeholders.placeholderapi.PlaceholderApiBridge;
 import dev.crafty.core.bukkit.CraftyLogger;
+import dev.crafty.core.config.CompiledConfigCache;
+import dev.crafty.core.config.ConfigWriteScheduler;
 import dev.crafty.core.config.ConfigurationUtils;
 import dev.crafty.core.config.ConfigWatcher;
 import dev.crafty.core.config.SectionWrapper;
 import dev.crafty.core.storage.ProviderManager;
 import dev.crafty.core.storage.StorageProviderFactory;
+import dev.crafty.core.storage.migration.StorageMigrationCommand;
+import dev.crafty.core.storage.serialization.Compression;
+import dev.crafty.core.storage.serialization.StorageSerializer;
+import dev.crafty.core.task.providers.MainThreadExecutor;
+import dev.crafty.core.task.providers.TaskRuntime;
 import lombok.Getter;
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.Plugin;
@@ -36,16 +44,25 @@ public final class CraftyCore extends JavaPlugin {
 
     private boolean configInitialized = false;
 
+    /**
+     * The threads shared by the task providers of all plugins.
+     */
+    @Getter
+    private TaskRuntime taskRuntime;
+
     public CraftyLogger logger;
 
     @Override
     public void onEnable() {
         logger = new CraftyLogger(this);
         INSTANCE = this;
+        CompiledConfigCache.register(this);
 
         // Save default config
         saveDefaultConfig();
 
+        taskRuntime = new TaskRuntime(this, getMainThreadBudget());
+
         setDefaultStorageProvider(new SectionWrapper(getConfig().getConfigurationSection("storage")));
 
         if (!configInitialized) {
@@ -57,6 +74,8 @@ public final class CraftyCore extends JavaPlugin {
             setupConfigWatcher();
         }
 
+        registerCommands();
+
         // blocking
         Bukkit.getScheduler().runTask(this, this::registerAllBridges);
 
@@ -67,6 +86,10 @@ public final class CraftyCore extends JavaPlugin {
     public void reloadConfig() {
         super.reloadConfig();
 
+        if (taskRuntime != null) {
+            taskRuntime.getMainThread().setBudget(getMainThreadBudget());
+        }
+
         // issue where reloadConfig is potentially called before onEnable()...
         if (!configInitialized) {
             ConfigurationUtils.initialize(this, () -> configInitialized = true);
@@ -115,9 +138,21 @@ public final class CraftyCore extends JavaPlugin {
             configWatcher.stop();
         }
 
+        // Write any pending config changes before the server stops
+        ConfigWriteScheduler.flushAll();
+        ConfigurationUtils.shutdown();
+
+        if (taskRuntime != null) {
+            taskRuntime.shutdown();
+        }
+
         logger.info("CraftyCore has been disabled!");
     }
 
+    private double getMainThreadBudget() {
+        return getConfig().getDouble("tasks.main-thread-budget-ms", MainThreadExecutor.DEFAULT_BUDGET_MILLIS);
+    }
+
     /**
      * Enable or disable the automatic configuration watcher.
      * The configuration watcher monitors changes to the config.yml file
@@ -252,38 +287,50 @@ public final class CraftyCore extends JavaPlugin {
         Optional<String> type = storageSection.getString("type");
         StorageProviderFactory.StorageType storageType = StorageProviderFactory.StorageType.valueOf(type.orElse("YAML"));
 
-        switch (storageType) {
-            case YAML -> {
-                String dataFolder = storageSection.getString("yaml.data-folder").orElse("data");
-                ProviderManager.getInstance().setDefaultStorageType(StorageProviderFactory.StorageType.YAML);
-                ProviderManager.getInstance().setDefaultYamlConfig(dataFolder);
-            }
-            case MYSQL -> {
-                ProviderManager.getInstance().setDefaultStorageType(StorageProviderFactory.StorageType.MYSQL);
-                String host = storageSection.getString("mysql.host").orElse("localhost");
-                String port = storageSection.getString("mysql.port").orElse("3306");
-                String database = storageSection.getString("mysql.database").orElse("database");
-                String username = storageSection.getString("mysql.username").orElse("username");
-                String password = storageSection.getString("mysql.password").orElse("password");
-                String connectionUrl = "jdbc:mysql://" + host + ":" + port + "/" + database;
-                ProviderManager.getInstance().setDefaultMySqlConfig("main", connectionUrl, username, password);
-            }
-            case POSTGRES -> {
-                ProviderManager.getInstance().setDefaultStorageType(StorageProviderFactory.StorageType.POSTGRES);
-                String host = storageSection.getString("postgres.host").orElse("localhost");
-                String port = storageSection.getString("postgres.port").orElse("5432");
-                String database = storageSection.getString("postgres.database").orElse("database");
-                String username = storageSection.getString("postgres.username").orElse("username");
-                String password = storageSection.getString("postgres.password").orElse("password");
-                String connectionUrl = "jdbc:postgresql://" + host + ":" + port + "/" + database;
-                ProviderManager.getInstance().setDefaultPostgresConfig("main", connectionUrl, username, password);
-            }
-            case MONGODB -> {
-                ProviderManager.getInstance().setDefaultStorageType(StorageProviderFactory.StorageType.MONGODB);
-                String connectionString = storageSection.getString("mongodb.connection-string").orElse("localhost");
-                ProviderManager.getInstance().setDefaultMongoDbConfig("main", connectionString);
-            }
+        int offHeapMegabytes = storageSection.getInt("cache.off-heap-mb").orElse(0);
+        ProviderManager.getInstance().setOffHeapCacheSize(offHeapMegabytes * 1024L * 1024L);
+        ProviderManager.getInstance().setOnHeapCacheSize(storageSection.getInt("cache.on-heap-entries").orElse(0));
+
+        String algorithm = storageSection.getString("compression.algorithm").orElse("NONE");
+        Compression compression = Compression.fromId(algorithm.toLowerCase(Locale.ROOT));
+        if (compression == null) {
+            logger.warn("Unknown storage compression algorithm " + algorithm + ", storing values uncompressed");
+            compression = Compression.NONE;
         }
+        int compressionThreshold = storageSection.getInt("compression.threshold-bytes").orElse(4096);
+        StorageSerializer.setDefaultCompression(compression, compressionThreshold);
+
+        ProviderManager.getInstance().setManifestFile(getDataPath().resolve("storage-manifest.yml"), getLogger());
+
+        // Every backend is configured, not just the active one, so data can be migrated between them
+        String dataFolder = storageSection.getString("yaml.data-folder").orElse("data");
+        ProviderManager.getInstance().setDefaultYamlConfig(dataFolder);
+
+        String mySqlHost = storageSection.getString("mysql.host").orElse("localhost");
+        String mySqlPort = storageSection.getString("mysql.port").orElse("3306");
+        String mySqlDatabase = storageSection.getString("mysql.database").orElse("database");
+        String mySqlUsername = storageSection.getString("mysql.username").orElse("username");
+        String mySqlPassword = storageSection.getString("mysql.password").orElse("password");
+        String mySqlConnectionUrl = "jdbc:mysql://" + mySqlHost + ":" + mySqlPort + "/" + mySqlDatabase;
+        ProviderManager.getInstance().setDefaultMySqlConfig("main", mySqlConnectionUrl, mySqlUsername, mySqlPassword);
+
+        String postgresHost = storageSection.getString("postgres.host").orElse("localhost");
+        String postgresPort = storageSection.getString("postgres.port").orElse("5432");
+        String postgresDatabase = storageSection.getString("postgres.database").orElse("database");
+        String postgresUsername = storageSection.getString("postgres.username").orElse("username");
+        String postgresPassword = storageSection.getString("postgres.password").orElse("password");
+        String postgresConnectionUrl = "jdbc:postgresql://" + postgresHost + ":" + postgresPort + "/" + postgresDatabase;
+        ProviderManager.getInstance().setDefaultPostgresConfig("main", postgresConnectionUrl, postgresUsername, postgresPassword);
+
+        String connectionString = storageSection.getString("mongodb.connection-string").orElse("localhost");
+        ProviderManager.getInstance().setDefaultMongoDbConfig("main", connectionString);
+
+        ProviderManager.getInstance().setDefaultStorageType(storageType);
+    }
+
+    private void registerCommands() {
+        PaperCommandManager commandManager = new PaperCommandManager(this);
+        commandManager.registerCommand(new StorageMigrationCommand(this));
     }
 
     private void registerAllBridges() {
@@ -23,6 +23,12 @@ import java.util.function.Function;
  * must provide the config file, serializer, and config section.
  * </p>
  *
+ * <p>
+ * The file is parsed once and kept in memory. Cache misses are served from the parsed
+ * document, and writes are applied to it and persisted through the {@link ConfigWriteScheduler},
+ * so bursts of {@link #set} or {@link #remove} calls cost one write.
+ * </p>
+ *
  * @param <K> the type of the key used to identify objects
  * @param <V> the type of the value to be cached and serialized
  *
@@ -31,6 +37,11 @@ import java.util.function.Function;
 public abstract class CachedConfigObject<K, V> {
     private final Cache<K, V> cache = Caffeine.newBuilder().build();
 
+    // Guards the in-memory document; Bukkit configuration sections are not thread-safe
+    private final Object configFileLock = new Object();
+
+    private YamlConfiguration document;
+
     /**
      * Returns the configuration file backing this cache.
      *
@@ -82,25 +93,24 @@ public abstract class CachedConfigObject<K, V> {
 
     /**
      * Loads all values from the config section into the cache, replacing any existing cache entries.
+     * The file is re-read from disk once, after any pending changes have been written.
      */
     public void loadAll() {
+        flush();
         cache.invalidateAll();
-        Optional<File> fileOpt = ensureFileExists();
-        if (fileOpt.isEmpty()) {
-            return;
-        }
-
-        YamlConfiguration config = YamlConfiguration.loadConfiguration(fileOpt.get());
-        ConfigurationSection section = config.getConfigurationSection(getConfigSection());
 
-        if (section == null) {
-            return;
-        }
+        synchronized (configFileLock) {
+            document = null;
+            Optional<ConfigurationSection> section = section();
+            if (section.isEmpty()) {
+                return;
+            }
 
-        for (String key : section.getKeys(false)) {
-            K typedKey = keyFromString(key);
-            Optional<V> value = getFromConfig(typedKey);
-            value.ifPresent(v -> cache.put(typedKey, v));
+            for (String key : section.get().getKeys(false)) {
+                K typedKey = keyFromString(key);
+                Optional<V> value = deserialize(section.get(), key);
+                value.ifPresent(v -> cache.put(typedKey, v));
+            }
         }
     }
 
@@ -120,24 +130,15 @@ public abstract class CachedConfigObject<K, V> {
      */
     public void remove(K key) {
         cache.invalidate(key);
-        Optional<File> fileOpt = ensureFileExists();
-        if (fileOpt.isEmpty()) {
-            return;
-        }
-
-        YamlConfiguration config = YamlConfiguration.loadConfiguration(fileOpt.get());
-        ConfigurationSection section = config.getConfigurationSection(getConfigSection());
 
-        if (section == null) {
-            return;
-        }
-
-        section.set(keyToString(key), null);
+        synchronized (configFileLock) {
+            Optional<ConfigurationSection> section = section();
+            if (section.isEmpty()) {
+                return;
+            }
 
-        try {
-            config.save(fileOpt.get());
-        } catch (IOException e) {
-            CraftyCore.INSTANCE.logger.error("Failed to save config file", e);
+            section.get().set(keyToString(key), null);
+            scheduleSave();
         }
     }
 
@@ -152,7 +153,13 @@ public abstract class CachedConfigObject<K, V> {
         saveToConfig(key, value);
     }
 
-    private final Object configFileLock = new Object();
+    /**
+     * Writes pending changes to the config file immediately instead of waiting for the
+     * debounced save.
+     */
+    public void flush() {
+        ConfigWriteScheduler.flush(getConfigFile());
+    }
 
     /**
      * Saves a value to the config file.
@@ -162,38 +169,77 @@ public abstract class CachedConfigObject<K, V> {
      */
     private void saveToConfig(K key, V value) {
         synchronized (configFileLock) {
-            Optional<File> fileOpt = ensureFileExists();
-            if (fileOpt.isEmpty()) {
+            YamlConfiguration config = document();
+            if (config == null) {
                 return;
             }
 
-            YamlConfiguration config = YamlConfiguration.loadConfiguration(fileOpt.get());
             ConfigurationSection section = config.getConfigurationSection(getConfigSection());
 
             if (section == null) {
-                config.createSection(getConfigSection());
-                section = config.getConfigurationSection(getConfigSection());
+                section = config.createSection(getConfigSection());
             }
 
             if (getSerializer().isPresent()) {
+                // The serializer only mutates the document; persisting it is debounced below
                 ConfigSerializer.SerializationArgs<V> args = new ConfigSerializer.SerializationArgs<>(
                         value,
                         new SectionWrapper(section),
                         new YamlConfigurationWrapper(config),
                         keyToString(key),
-                        fileOpt.get(),
-                        true
+                        getConfigFile(),
+                        false
                 );
 
                 getSerializer().get().serialize(args);
             }
 
-            try {
-                config.save(fileOpt.get());
-            } catch (IOException e) {
-                CraftyCore.INSTANCE.logger.error("Failed to save config file", e);
+            scheduleSave();
+        }
+    }
+
+    /**
+     * Schedules a write of the document. Must be called while holding {@code configFileLock}.
+     */
+    private void scheduleSave() {
+        ConfigWriteScheduler.markDirty(getConfigFile(), document, configFileLock);
+    }
+
+    /**
+     * Gets the parsed document, reading it from disk on first use.
+     * Must be called while holding {@code configFileLock}.
+     *
+     * @return the document, or null if the config file could not be created
+     */
+    private YamlConfiguration document() {
+        if (document == null) {
+            Optional<File> fileOpt = ensureFileExists();
+            if (fileOpt.isEmpty()) {
+                return null;
             }
+            document = YamlConfiguration.loadConfiguration(fileOpt.get());
+        }
+        return document;
+    }
+
+    /**
+     * Gets the config section holding the objects, creating it if it is missing.
+     * Must be called while holding {@code configFileLock}.
+     *
+     * @return an optional containing the section, empty if the config file is unavailable
+     */
+    private Optional<ConfigurationSection> section() {
+        YamlConfiguration config = document();
+        if (config == null) {
+            return Optional.empty();
+        }
+
+        ConfigurationSection section = config.getConfigurationSection(getConfigSection());
+        if (section == null) {
+            section = config.createSection(getConfigSection());
+            scheduleSave();
         }
+        return Optional.of(section);
     }
 
     /**
@@ -214,45 +260,28 @@ public abstract class CachedConfigObject<K, V> {
     }
 
     /**
-     * Loads a value from the config file.
+     * Loads a value from the in-memory document.
      *
      * @param id the key to load
      * @return an optional containing the value if present
      */
     private Optional<V> getFromConfig(K id) {
-        Optional<File> fileOpt = ensureFileExists();
-        if (fileOpt.isEmpty()) {
-            return Optional.empty();
-        }
-
-        YamlConfiguration config = YamlConfiguration.loadConfiguration(
-                fileOpt.get()
-        );
-
-        ConfigurationSection configSection = config.getConfigurationSection(getConfigSection());
-
-        if (configSection == null) {
-            config.createSection(getConfigSection());
-            try {
-                config.save(fileOpt.get());
-            } catch (IOException e) {
-                CraftyCore.INSTANCE.logger.error("Failed to save config file", e);
+        synchronized (configFileLock) {
+            Optional<ConfigurationSection> section = section();
+            if (section.isEmpty()) {
                 return Optional.empty();
             }
-            return Optional.empty();
-        }
 
-        SectionWrapper section = new SectionWrapper(configSection);
-
-        if (!configSection.contains(keyToString(id))) {
-            return Optional.empty();
+            return deserialize(section.get(), keyToString(id));
         }
+    }
 
-        if (getSerializer().isPresent()) {
-            return getSerializer().get().deserialize(section, keyToString(id));
+    private Optional<V> deserialize(ConfigurationSection configSection, String key) {
+        if (!configSection.contains(key) || getSerializer().isEmpty()) {
+            return Optional.empty();
         }
 
-        return Optional.empty();
+        return getSerializer().get().deserialize(new SectionWrapper(configSection), key);
     }
 
     /**
@@ -0,0 +1,370 @@
+package dev.crafty.core.config;
+
+import dev.crafty.core.CraftyCore;
+import org.bukkit.plugin.Plugin;
+import org.snakeyaml.engine.v2.common.FlowStyle;
+import org.snakeyaml.engine.v2.common.ScalarStyle;
+import org.snakeyaml.engine.v2.nodes.MappingNode;
+import org.snakeyaml.engine.v2.nodes.Node;
+import org.snakeyaml.engine.v2.nodes.NodeTuple;
+import org.snakeyaml.engine.v2.nodes.ScalarNode;
+import org.snakeyaml.engine.v2.nodes.SequenceNode;
+import org.snakeyaml.engine.v2.nodes.Tag;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.zip.CRC32C;
+
+/**
+ * Compiled snapshots of parsed YAML files, so unchanged files are not parsed again after a restart.
+ * <p>
+ * After a file under a registered plugin's data folder is parsed, its node tree is written in a
+ * compact binary form to {@code <data folder>/.cache/<path>.bin}, together with the modification
+ * time, size and CRC32C of the source and a CRC32C of the snapshot's own body. On the next load the snapshot is memory-mapped and decoded
+ * instead of parsing the YAML if the modification time and size still match, or if the contents
+ * hash to the same value. Any other change, a corrupt snapshot or a snapshot from another format
+ * version falls back to parsing and replaces the snapshot.
+ * </p>
+ * Used by {@link FastYamlLoader}, so menus, items, lang files and {@code @ConfigurationFile}
+ * classes all benefit without changes.
+ *
+ * @since 1.0.0
+ */
+public final class CompiledConfigCache {
+    /**
+     * The folder inside a plugin's data folder holding the snapshots.
+     */
+    public static final String CACHE_FOLDER = ".cache";
+
+    private static final String SUFFIX = ".bin";
+    private static final int MAGIC = 0x4359434D; // "CYCM"
+    private static final int FORMAT_VERSION = 3;
+    // magic, version, modification time, size, hash of the source, hash of the body
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4 + 4;
+    private static final int MODIFIED_OFFSET = 8;
+    private static final int LENGTH_OFFSET = 16;
+    private static final int HASH_OFFSET = 24;
+    private static final int BODY_HASH_OFFSET = 28;
+    // Aliases are written out in full, so a document built to explode through them is not cached
+    private static final int MAX_NODES = 1_000_000;
+
+    private static final byte KIND_EMPTY = 0;
+    private static final byte KIND_SCALAR = 1;
+    private static final byte KIND_SEQUENCE = 2;
+    private static final byte KIND_MAPPING = 3;
+
+    private static final Tag[] KNOWN_TAGS = {Tag.STR, Tag.INT, Tag.FLOAT, Tag.BOOL, Tag.NULL, Tag.SEQ, Tag.MAP};
+    private static final byte CUSTOM_TAG = -1;
+
+    // Decoded from a snapshot of an empty document, to tell it apart from a snapshot that could not be read
+    private static final Node EMPTY = new ScalarNode(Tag.NULL, "", ScalarStyle.PLAIN);
+
+    // Data folder -> cache folder
+    private static final Map<Path, Path> ROOTS = new ConcurrentHashMap<>();
+
+    private CompiledConfigCache() {
+    }
+
+    /**
+     * Cache the files in a plugin's data folder from now on.
+     *
+     * @param plugin The plugin
+     */
+    public static void register(Plugin plugin) {
+        Path dataFolder = plugin.getDataFolder().toPath().toAbsolutePath().normalize();
+        ROOTS.put(dataFolder, dataFolder.resolve(CACHE_FOLDER));
+    }
+
+    /**
+     * Stop caching the files in a plugin's data folder. Existing snapshots are kept.
+     *
+     * @param plugin The plugin
+     */
+    public static void unregister(Plugin plugin) {
+        ROOTS.remove(plugin.getDataFolder().toPath().toAbsolutePath().normalize());
+    }
+
+    /**
+     * Get the node tree of a file, from its snapshot if the file is unchanged, otherwise by parsing
+     * it and writing a new snapshot.
+     *
+     * @param source The YAML file
+     * @param lastModified The modification time of the file
+     * @param length The size of the file
+     * @param parser Parses the contents of the file
+     * @return The root node, or null if the document is empty
+     * @throws IOException If the file cannot be read
+     */
+    static Node load(Path source, long lastModified, long length, Function<byte[], Node> parser) throws IOException {
+        Path snapshot = snapshotFor(source);
+        if (snapshot == null) {
+            return parser.apply(Files.readAllBytes(source));
+        }
+
+        ByteBuffer header = readHeader(snapshot);
+        if (header != null && header.getLong(MODIFIED_OFFSET) == lastModified && header.getLong(LENGTH_OFFSET) == length) {
+            Node root = decode(snapshot);
+            if (root != null) {
+                return root == EMPTY ? null : root;
+            }
+        }
+
+        byte[] contents = Files.readAllBytes(source);
+        int hash = hash(contents);
+
+        if (header != null && header.getLong(LENGTH_OFFSET) == contents.length && header.getInt(HASH_OFFSET) == hash) {
+            // Touched but not changed; remember the new time so the next load skips hashing
+            Node root = decode(snapshot);
+            if (root != null) {
+                updateModified(snapshot, lastModified);
+                return root == EMPTY ? null : root;
+            }
+        }
+
+        Node root = parser.apply(contents);
+        write(snapshot, lastModified, contents.length, hash, root);
+        return root;
+    }
+
+    private static Path snapshotFor(Path source) {
+        Path normalized = source.toAbsolutePath().normalize();
+        for (Map.Entry<Path, Path> root : ROOTS.entrySet()) {
+            if (normalized.startsWith(root.getKey()) && !normalized.startsWith(root.getValue())) {
+                Path relative = root.getKey().relativize(normalized);
+                return root.getValue().resolve(relative + SUFFIX);
+            }
+        }
+        return null;
+    }
+
+    private static int hash(byte[] contents) {
+        CRC32C crc = new CRC32C();
+        crc.update(contents);
+        return (int) crc.getValue();
+    }
+
+    private static ByteBuffer readHeader(Path snapshot) {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    return null;
+                }
+            }
+            header.flip();
+            if (header.getInt(0) != MAGIC || header.getInt(4) != FORMAT_VERSION) {
+                return null;
+            }
+            return header;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Decode a snapshot, returning {@link #EMPTY} for an empty document and null if the snapshot cannot be read.
+     * The body is checked against its hash and every length against the bytes left, so a corrupt
+     * snapshot is a cache miss rather than wrong values or a huge allocation.
+     */
+    private static Node decode(Path snapshot) {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(HEADER_SIZE, buffer.limit() - HEADER_SIZE));
+            if ((int) crc.getValue() != buffer.getInt(BODY_HASH_OFFSET)) {
+                return null;
+            }
+
+            buffer.position(HEADER_SIZE);
+            if (buffer.get() == KIND_EMPTY) {
+                return EMPTY;
+            }
+            buffer.position(HEADER_SIZE);
+            Node root = readNode(buffer);
+            return buffer.hasRemaining() ? null : root;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Node readNode(ByteBuffer buffer) {
+        byte kind = buffer.get();
+        Tag tag = readTag(buffer);
+        switch (kind) {
+            case KIND_SCALAR -> {
+                ScalarStyle style = buffer.get() == 0 ? ScalarStyle.PLAIN : ScalarStyle.DOUBLE_QUOTED;
+                return new ScalarNode(tag, readString(buffer), style);
+            }
+            case KIND_SEQUENCE -> {
+                int size = readLength(buffer, 2);
+                List<Node> items = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    items.add(readNode(buffer));
+                }
+                return new SequenceNode(tag, items, FlowStyle.AUTO);
+            }
+            case KIND_MAPPING -> {
+                int size = readLength(buffer, 4);
+                List<NodeTuple> tuples = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    Node key = readNode(buffer);
+                    tuples.add(new NodeTuple(key, readNode(buffer)));
+                }
+                return new MappingNode(tag, tuples, FlowStyle.AUTO);
+            }
+            default -> throw new IllegalArgumentException("Unknown node kind " + kind);
+        }
+    }
+
+    private static Tag readTag(ByteBuffer buffer) {
+        byte index = buffer.get();
+        return index == CUSTOM_TAG ? new Tag(readString(buffer)) : KNOWN_TAGS[index];
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[readLength(buffer, 1)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read a count of items that each take at least {@code itemSize} bytes.
+     */
+    private static int readLength(ByteBuffer buffer, int itemSize) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining() / itemSize) {
+            throw new IllegalArgumentException("Corrupt length " + length);
+        }
+        return length;
+    }
+
+    private static void updateModified(Path snapshot, long lastModified) {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(8).putLong(0, lastModified), MODIFIED_OFFSET);
+        } catch (IOException e) {
+            // The snapshot is still valid by hash
+        }
+    }
+
+    private static void write(Path snapshot, long lastModified, long length, int hash, Node root) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(lastModified);
+            out.writeLong(length);
+            out.writeInt(hash);
+            // Filled in once the body is written
+            out.writeInt(0);
+            if (root == null) {
+                out.writeByte(KIND_EMPTY);
+            } else {
+                new Encoder(out).writeNode(root);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Recursive or oversized documents are simply parsed every time
+            return;
+        }
+
+        byte[] contents = bytes.toByteArray();
+        CRC32C crc = new CRC32C();
+        crc.update(contents, HEADER_SIZE, contents.length - HEADER_SIZE);
+        ByteBuffer.wrap(contents).putInt(BODY_HASH_OFFSET, (int) crc.getValue());
+
+        try {
+            Files.createDirectories(snapshot.getParent());
+            Path temp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+            Files.write(temp, contents);
+            try {
+                Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            CraftyCore.INSTANCE.logger.error("Failed to write config snapshot " + snapshot + ": " + e.getMessage());
+        }
+    }
+
+    private static final class Encoder {
+        private final DataOutputStream out;
+        private final Set<Node> path = Collections.newSetFromMap(new IdentityHashMap<>());
+        private int nodes;
+
+        private Encoder(DataOutputStream out) {
+            this.out = out;
+        }
+
+        private void writeNode(Node node) throws IOException {
+            if (++nodes > MAX_NODES) {
+                throw new IllegalStateException("Too many nodes");
+            }
+            if (!path.add(node)) {
+                throw new IllegalStateException("Recursive node");
+            }
+
+            switch (node) {
+                case ScalarNode scalar -> {
+                    out.writeByte(KIND_SCALAR);
+                    writeTag(scalar.getTag());
+                    out.writeByte(scalar.isPlain() ? 0 : 1);
+                    writeString(scalar.getValue());
+                }
+                case SequenceNode sequence -> {
+                    out.writeByte(KIND_SEQUENCE);
+                    writeTag(sequence.getTag());
+                    out.writeInt(sequence.getValue().size());
+                    for (Node item : sequence.getValue()) {
+                        writeNode(item);
+                    }
+                }
+                case MappingNode mapping -> {
+                    out.writeByte(KIND_MAPPING);
+                    writeTag(mapping.getTag());
+                    out.writeInt(mapping.getValue().size());
+                    for (NodeTuple tuple : mapping.getValue()) {
+                        writeNode(tuple.getKeyNode());
+                        writeNode(tuple.getValueNode());
+                    }
+                }
+                default -> throw new IllegalStateException("Unknown node " + node.getNodeType());
+            }
+
+            path.remove(node);
+        }
+
+        private void writeTag(Tag tag) throws IOException {
+            for (byte i = 0; i < KNOWN_TAGS.length; i++) {
+                if (KNOWN_TAGS[i].equals(tag)) {
+                    out.writeByte(i);
+                    return;
+                }
+            }
+            out.writeByte(CUSTOM_TAG);
+            writeString(tag.getValue());
+        }
+
+        private void writeString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+}
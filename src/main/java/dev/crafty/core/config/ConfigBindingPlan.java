@@ -0,0 +1,461 @@
+package dev.crafty.core.config;
+
+import dev.crafty.core.config.annotation.ConfigValue;
+import dev.crafty.core.config.serializer.ConfigSerializer;
+import dev.crafty.core.config.serializer.SerializerRegistry;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The fields of a configuration class that carry {@link ConfigValue}, resolved once per class.
+ * <p>
+ * If the annotation processor generated a {@link ConfigLoader} for the class, the bindings read and
+ * assign through it, and the class's fields are never inspected. Otherwise each binding holds the
+ * annotation values, a {@link MethodHandle} setter and the serializer for the field type, so
+ * populating an object does no reflection or registry lookups. Both kinds convert and check values
+ * with {@link ConfigValues}. Plans are cached per class and rebuilt when the {@link SerializerRegistry}
+ * changes.
+ * </p>
+ *
+ * @since 1.0.0
+ */
+final class ConfigBindingPlan {
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<ConfigBindingPlan> PLANS = new ClassValue<>() {
+        @Override
+        protected ConfigBindingPlan computeValue(Class<?> type) {
+            return new ConfigBindingPlan(type);
+        }
+    };
+
+    // Generated loaders resolve serializers as they read, so they outlive serializer changes
+    private static final ClassValue<ConfigLoader<Object>> LOADERS = new ClassValue<>() {
+        @Override
+        protected ConfigLoader<Object> computeValue(Class<?> type) {
+            return type.isRecord() ? null : findGeneratedLoader(type);
+        }
+    };
+
+    private final int serializerVersion;
+    private final List<Binding> bindings;
+
+    // Records only: the binding of each component in order (null if not annotated) and the canonical constructor
+    private final Binding[] components;
+    private final MethodHandle recordConstructor;
+
+    private ConfigBindingPlan(Class<?> clazz) {
+        this.serializerVersion = SerializerRegistry.getVersion();
+
+        ConfigLoader<Object> loader = LOADERS.get(clazz);
+        if (loader != null) {
+            List<Binding> bindings = new ArrayList<>(loader.size());
+            for (int i = 0; i < loader.size(); i++) {
+                bindings.add(new GeneratedBinding(loader, i));
+            }
+            this.bindings = List.copyOf(bindings);
+            this.components = null;
+            this.recordConstructor = null;
+            return;
+        }
+
+        List<Binding> bindings = new ArrayList<>();
+        for (Field field : clazz.getDeclaredFields()) {
+            ConfigValue annotation = field.getAnnotation(ConfigValue.class);
+            if (annotation != null) {
+                try {
+                    bindings.add(FieldBinding.of(field, annotation));
+                } catch (RuntimeException e) {
+                    // One unusable field is reported on every load, but does not stop the others from loading
+                    bindings.add(new FailedBinding(field.getName(), annotation.key(), e));
+                }
+            }
+        }
+        this.bindings = List.copyOf(bindings);
+
+        if (clazz.isRecord()) {
+            RecordComponent[] recordComponents = clazz.getRecordComponents();
+            Class<?>[] types = new Class<?>[recordComponents.length];
+            this.components = new Binding[recordComponents.length];
+            for (int i = 0; i < recordComponents.length; i++) {
+                types[i] = recordComponents[i].getType();
+                for (Binding binding : bindings) {
+                    if (binding.name().equals(recordComponents[i].getName())) {
+                        components[i] = binding;
+                    }
+                }
+            }
+
+            try {
+                Constructor<?> constructor = clazz.getDeclaredConstructor(types);
+                constructor.setAccessible(true);
+                this.recordConstructor = MethodHandles.lookup().unreflectConstructor(constructor)
+                        .asType(MethodType.genericMethodType(types.length))
+                        .asSpreader(Object[].class, types.length);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                throw new IllegalStateException("Cannot bind configuration record " + clazz.getName(), e);
+            }
+        } else {
+            this.components = null;
+            this.recordConstructor = null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ConfigLoader<Object> findGeneratedLoader(Class<?> clazz) {
+        try {
+            Class<?> loaderClass = Class.forName(clazz.getName() + ConfigLoader.SUFFIX, true, clazz.getClassLoader());
+            return (ConfigLoader<Object>) loaderClass.getConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+            throw new IllegalStateException("Cannot create generated config loader for " + clazz.getName(), e);
+        }
+    }
+
+    /**
+     * Get the binding plan for a class, building it on first use or after serializers changed.
+     *
+     * @param clazz The configuration class
+     * @return The binding plan
+     */
+    static ConfigBindingPlan forClass(Class<?> clazz) {
+        ConfigBindingPlan plan = PLANS.get(clazz);
+        if (plan.serializerVersion != SerializerRegistry.getVersion()) {
+            PLANS.remove(clazz);
+            plan = PLANS.get(clazz);
+        }
+        return plan;
+    }
+
+    /**
+     * Get the bindings of this plan, in declaration order.
+     *
+     * @return The field bindings
+     */
+    List<Binding> bindings() {
+        return bindings;
+    }
+
+    /**
+     * Get the binding of each record component, in component order.
+     *
+     * @return The component bindings, with null for components without {@link ConfigValue},
+     *         or null if the class is not a record
+     */
+    Binding[] components() {
+        return components;
+    }
+
+    /**
+     * Create a record from its component values.
+     *
+     * @param values The component values, in component order
+     * @return The new record
+     */
+    Object newRecord(Object[] values) {
+        try {
+            return recordConstructor.invokeExact(values);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static boolean isMeasurable(Class<?> type) {
+        return Number.class.isAssignableFrom(type) || CharSequence.class.isAssignableFrom(type)
+                || Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type);
+    }
+
+    /**
+     * A {@link ConfigValue} field that can be read from a configuration and assigned to an object.
+     */
+    sealed interface Binding permits FieldBinding, GeneratedBinding, FailedBinding {
+        /**
+         * Get the name of the field.
+         *
+         * @return The field name
+         */
+        String name();
+
+        /**
+         * Get the configuration key of the field.
+         *
+         * @return The key
+         */
+        String key();
+
+        /**
+         * Whether the field can be read off the main thread, which is the case unless one of its
+         * serializers is not {@link ConfigSerializer#isThreadSafe() thread-safe}.
+         *
+         * @return True if {@link #read(SectionWrapper)} is safe on any thread
+         */
+        boolean threadSafe();
+
+        /**
+         * Read the value of the field from the configuration and check it.
+         *
+         * @param config The configuration to get the value from
+         * @return The value, or {@link ConfigLoader#UNSET} if the field should keep its current value
+         * @throws IllegalArgumentException If the value is missing or does not fit the field
+         */
+        Object read(SectionWrapper config);
+
+        /**
+         * Set the field on an object.
+         *
+         * @param object The object to set the field on
+         * @param value The value to set
+         */
+        void set(Object object, Object value);
+    }
+
+    /**
+     * A field read and assigned by a generated {@link ConfigLoader}.
+     *
+     * @param loader The loader of the field's class
+     * @param index The index of the field in the loader
+     */
+    record GeneratedBinding(ConfigLoader<Object> loader, int index) implements Binding {
+        @Override
+        public String name() {
+            return loader.name(index);
+        }
+
+        @Override
+        public String key() {
+            return loader.key(index);
+        }
+
+        @Override
+        public boolean threadSafe() {
+            return loader.threadSafe(index);
+        }
+
+        @Override
+        public Object read(SectionWrapper config) {
+            return loader.read(index, config);
+        }
+
+        @Override
+        public void set(Object object, Object value) {
+            loader.set(object, index, value);
+        }
+    }
+
+    /**
+     * A {@link ConfigValue} field that cannot be bound, such as a {@code static final} field or one
+     * whose bounds do not fit its type. Reading it always fails with the error, so it is reported
+     * through the usual validation errors while the other fields still load.
+     *
+     * @param name The field name
+     * @param key The configuration key
+     * @param error Why the field cannot be bound
+     */
+    record FailedBinding(String name, String key, RuntimeException error) implements Binding {
+        @Override
+        public boolean threadSafe() {
+            return true;
+        }
+
+        @Override
+        public Object read(SectionWrapper config) {
+            throw error;
+        }
+
+        @Override
+        public void set(Object object, Object value) {
+            throw error;
+        }
+    }
+
+    /**
+     * How a field's value is read from the configuration.
+     */
+    enum Source {
+        /** Deserialized with the serializer registered for the field type. */
+        SERIALIZER,
+        /** Read as a plain list. */
+        LIST,
+        /** Read as the raw configuration value. */
+        RAW,
+        /** A list without usable type arguments; left untouched. */
+        NONE
+    }
+
+    /**
+     * A single {@link ConfigValue} field.
+     *
+     * @param field The field, used for its type and name
+     * @param key The configuration key
+     * @param required Whether the key is required
+     * @param defaultValue The default value, or an empty string
+     * @param setter The setter, typed {@code (Object, Object)void}, or null for record components
+     * @param source How the value is read
+     * @param serializer The serializer for the field type, or null
+     * @param itemType The item type of a list field, or null
+     * @param itemSerializer The serializer for the list item type, or null
+     * @param min The lower bound of the value, length or size
+     * @param max The upper bound of the value, length or size
+     */
+    record FieldBinding(
+            Field field,
+            String key,
+            boolean required,
+            String defaultValue,
+            MethodHandle setter,
+            Source source,
+            ConfigSerializer<Object> serializer,
+            Class<?> itemType,
+            ConfigSerializer<Object> itemSerializer,
+            double min,
+            double max
+    ) implements Binding {
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static FieldBinding of(Field field, ConfigValue annotation) {
+            // Record fields cannot be written; records are built through their constructor instead
+            MethodHandle setter = null;
+            if (!field.getDeclaringClass().isRecord()) {
+                try {
+                    field.setAccessible(true);
+                    setter = MethodHandles.lookup().unreflectSetter(field);
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        // Static fields ignore the target object
+                        setter = MethodHandles.dropArguments(setter, 0, Object.class);
+                    }
+                    setter = setter.asType(SETTER_TYPE);
+                } catch (IllegalAccessException | RuntimeException e) {
+                    throw new IllegalStateException("Cannot bind configuration field " + field.getName()
+                            + " in class " + field.getDeclaringClass().getName(), e);
+                }
+            }
+
+            Class<?> fieldType = field.getType();
+            // Resolved by generic type, so List<String> finds the serializer for lists of strings
+            ConfigSerializer<Object> serializer = SerializerRegistry.getSerializer(field.getGenericType()).orElse(null);
+
+            Class<?> itemType = null;
+            ConfigSerializer<Object> itemSerializer = null;
+            // Only List itself; lists are read as ArrayList, which a concrete list field type may not accept
+            if (fieldType == List.class
+                    && field.getGenericType() instanceof ParameterizedType paramType) {
+                Type[] typeArgs = paramType.getActualTypeArguments();
+                if (typeArgs.length > 0 && typeArgs[0] instanceof Class<?> type) {
+                    itemType = type;
+                    itemSerializer = (ConfigSerializer<Object>) SerializerRegistry.getSerializer((Class) type).orElse(null);
+                }
+            }
+
+            Source source;
+            if (serializer != null) {
+                source = Source.SERIALIZER;
+            } else if (fieldType == List.class) {
+                source = itemType != null ? Source.LIST : Source.NONE;
+            } else {
+                source = Source.RAW;
+            }
+
+            if (annotation.min() > annotation.max()) {
+                throw new IllegalStateException("Configuration field " + field.getName() + " in class "
+                        + field.getDeclaringClass().getName() + " has a min greater than its max");
+            }
+            if ((annotation.min() != Double.NEGATIVE_INFINITY || annotation.max() != Double.POSITIVE_INFINITY)
+                    && !isMeasurable(ConfigValues.wrap(fieldType))) {
+                throw new IllegalStateException("Configuration field " + field.getName() + " in class "
+                        + field.getDeclaringClass().getName() + " has a min or max, but is not a number, string, list or map");
+            }
+
+            return new FieldBinding(field, annotation.key(), annotation.required(), annotation.defaultValue(),
+                    setter, source, serializer, itemType, itemSerializer, annotation.min(), annotation.max());
+        }
+
+        @Override
+        public String name() {
+            return field.getName();
+        }
+
+        /**
+         * Whether the field has a min or max.
+         *
+         * @return True if the field is bounded
+         */
+        boolean bounded() {
+            return min != Double.NEGATIVE_INFINITY || max != Double.POSITIVE_INFINITY;
+        }
+
+        @Override
+        public boolean threadSafe() {
+            return ConfigValues.isThreadSafe(serializer) && ConfigValues.isThreadSafe(itemSerializer);
+        }
+
+        /**
+         * Check a value read from the configuration against the field type and bounds.
+         * Numbers of another type are converted to the field type when no precision is lost,
+         * so {@code 5} is accepted for a {@code double} field.
+         *
+         * @param value The value
+         * @return The value to assign, possibly converted
+         * @throws IllegalArgumentException If the value does not fit the field
+         */
+        Object check(Object value) {
+            if (value == null) {
+                if (field.getType().isPrimitive()) {
+                    throw ConfigValues.noValue(key);
+                }
+                return null;
+            }
+
+            if (source == Source.RAW) {
+                value = ConfigValues.convert(key, value, field.getType());
+            }
+            return bounded() ? ConfigValues.checkBounds(key, value, min, max) : value;
+        }
+
+        @Override
+        public Object read(SectionWrapper config) {
+            if (!config.contains(key)) {
+                if (required) {
+                    throw ConfigValues.missing(key);
+                } else if (!defaultValue.isEmpty()) {
+                    // Use the default value
+                    return check(ConfigValues.parseDefault(field.getName(), defaultValue, field.getType(),
+                            serializer, itemType, itemSerializer));
+                }
+                return ConfigLoader.UNSET;
+            }
+
+            return switch (source) {
+                case SERIALIZER -> check(serializer.deserialize(config, key).orElse(null));
+                case LIST -> check(config.getList(key).orElse(new ArrayList<>()));
+                case RAW -> check(config.get(key).orElse(null));
+                case NONE -> ConfigLoader.UNSET;
+            };
+        }
+
+        @Override
+        public void set(Object object, Object value) {
+            try {
+                setter.invokeExact(object, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
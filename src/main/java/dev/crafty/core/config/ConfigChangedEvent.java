@@ -0,0 +1,76 @@
+package dev.crafty.core.config;
+
+import lombok.Getter;
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Set;
+
+/**
+ * Called after a configuration object has been reloaded and some of its keys changed.
+ * Only the {@code @ConfigValue} fields bound to the changed keys have been repopulated,
+ * so listeners can react to just the parts of the configuration they care about.
+ *
+ * @since 1.0.0
+ */
+@Getter
+public class ConfigChangedEvent extends Event {
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    /**
+     * The plugin that owns the configuration.
+     */
+    private final Plugin plugin;
+
+    /**
+     * The configuration object that was reloaded.
+     */
+    private final Object configObject;
+
+    /**
+     * The keys whose values were added, changed or removed, as full paths.
+     */
+    private final Set<String> changedKeys;
+
+    public ConfigChangedEvent(Plugin plugin, Object configObject, Set<String> changedKeys) {
+        super(!Bukkit.isPrimaryThread());
+        this.plugin = plugin;
+        this.configObject = configObject;
+        this.changedKeys = Set.copyOf(changedKeys);
+    }
+
+    /**
+     * Check whether a key, or any key below it, changed.
+     *
+     * @param key The key to check, for example {@code "database"} or {@code "database.host"}
+     * @return True if the key or one of its children changed
+     */
+    public boolean hasChanged(String key) {
+        return isAffected(key, changedKeys);
+    }
+
+    static boolean isAffected(String key, Set<String> changedKeys) {
+        if (changedKeys.contains(key)) {
+            return true;
+        }
+
+        String prefix = key + ".";
+        for (String changedKey : changedKeys) {
+            if (changedKey.startsWith(prefix) || key.startsWith(changedKey + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,106 @@
+package dev.crafty.core.config;
+
+import dev.crafty.core.config.serializer.ConfigSerializer;
+import dev.crafty.core.config.serializer.SerializerRegistry;
+import lombok.Getter;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A configuration value read once and kept until its file is reloaded.
+ * <p>
+ * Keys are created through {@link ConfigKeys}, which resolves them when they are created and
+ * again whenever the file is reloaded. {@link #get()} only returns the resolved value, so it can
+ * be called in event handlers that run many times per tick:
+ * </p>
+ * <pre>{@code
+ * ConfigKeys keys = ConfigKeys.forConfig(plugin);
+ * ConfigKey<Integer> cooldown = keys.key("click.cooldown-ticks", 20);
+ * ConfigKey<String> prefix = keys.key("messages.prefix", "&8[&bShop&8] ");
+ *
+ * int ticks = cooldown.get();
+ * }</pre>
+ * Values that are not set, or that cannot be read as the type of the key, resolve to the default.
+ *
+ * @param <T> The type of the value
+ * @since 1.0.0
+ */
+public final class ConfigKey<T> {
+    @Getter
+    private final ConfigPath path;
+    @Getter
+    private final Class<T> type;
+    @Getter
+    private final T defaultValue;
+
+    private volatile T value;
+
+    ConfigKey(ConfigPath path, Class<T> type, T defaultValue) {
+        this.path = path;
+        this.type = type;
+        this.defaultValue = defaultValue;
+        this.value = defaultValue;
+    }
+
+    /**
+     * Get the value the key resolved to when its file was last loaded. Safe to call from any thread.
+     *
+     * @return The value, or the default if it is not set
+     */
+    public T get() {
+        return value;
+    }
+
+    /**
+     * Resolve the key against a freshly loaded document.
+     *
+     * @param root The root section of the document
+     * @return False if the key is set to a value that cannot be read as its type
+     */
+    boolean resolve(ConfigurationSection root) {
+        Object raw = path.get(root);
+        if (raw == null) {
+            value = defaultValue;
+            return true;
+        }
+
+        T resolved = convert(root, raw);
+        value = resolved != null ? resolved : defaultValue;
+        return resolved != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T convert(ConfigurationSection root, Object raw) {
+        if (raw instanceof Number && Number.class.isAssignableFrom(type)) {
+            try {
+                return (T) ConfigValues.convert(path.toString(), raw, type);
+            } catch (IllegalArgumentException e) {
+                // Lossy, like 1.5 or a value out of range for an Integer key, so the default is used
+                return null;
+            }
+        }
+
+        if (type == String.class) {
+            return raw instanceof ConfigurationSection || raw instanceof List<?> ? null : (T) raw.toString();
+        }
+        if (type == List.class) {
+            return raw instanceof List<?> list ? (T) Collections.unmodifiableList(new ArrayList<>(list)) : null;
+        }
+
+        Optional<ConfigSerializer<T>> serializer = SerializerRegistry.getSerializer(type);
+        if (serializer.isPresent()) {
+            ConfigurationSection parent = path.parent(root);
+            return parent != null ? serializer.get().deserialize(new SectionWrapper(parent), path.key()).orElse(null) : null;
+        }
+        return type.isInstance(raw) ? (T) raw : null;
+    }
+
+    @Override
+    public String toString() {
+        return path + "=" + value;
+    }
+}
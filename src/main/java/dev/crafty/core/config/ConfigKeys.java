@@ -0,0 +1,172 @@
+package dev.crafty.core.config;
+
+import lombok.Getter;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.plugin.Plugin;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The {@link ConfigKey}s of one configuration file, resolved together.
+ * <p>
+ * A group is bound to a file in the plugin's data folder, such as its {@code config.yml}, and
+ * reads it from disk through {@link ConfigLayers} with its profile overlays and environment
+ * overrides. Groups are refreshed when {@link ConfigurationUtils} reloads the plugin's
+ * configurations, including reloads triggered by the config watcher, and can be refreshed by
+ * hand with {@link #refresh()}.
+ * </p>
+ *
+ * @since 1.0.0
+ */
+public final class ConfigKeys {
+    private static final Map<Plugin, List<ConfigKeys>> GROUPS = new ConcurrentHashMap<>();
+
+    @Getter
+    private final Plugin plugin;
+    @Getter
+    private final File file;
+    private final List<ConfigKey<?>> keys = new CopyOnWriteArrayList<>();
+
+    private ConfigurationSection root;
+
+    private ConfigKeys(Plugin plugin, File file) {
+        this.plugin = plugin;
+        this.file = file.getAbsoluteFile();
+        this.root = ConfigLayers.load(plugin, this.file);
+    }
+
+    /**
+     * Get the key group of a plugin's {@code config.yml}. Like other files, it is read from disk,
+     * so the group does not depend on {@link Plugin#reloadConfig()} having been called.
+     *
+     * @param plugin The plugin
+     * @return The key group, shared by all callers
+     */
+    public static ConfigKeys forConfig(Plugin plugin) {
+        return forFile(plugin, "config.yml");
+    }
+
+    /**
+     * Get the key group of a file in a plugin's data folder.
+     *
+     * @param plugin The plugin
+     * @param file The path of the file, relative to the data folder
+     * @return The key group, shared by all callers
+     */
+    public static ConfigKeys forFile(Plugin plugin, String file) {
+        List<ConfigKeys> groups = GROUPS.computeIfAbsent(plugin, p -> new CopyOnWriteArrayList<>());
+        synchronized (groups) {
+            File absolute = new File(plugin.getDataFolder(), file).getAbsoluteFile();
+            for (ConfigKeys group : groups) {
+                if (group.file.equals(absolute)) {
+                    return group;
+                }
+            }
+
+            ConfigKeys group = new ConfigKeys(plugin, absolute);
+            groups.add(group);
+            return group;
+        }
+    }
+
+    /**
+     * Create a key whose type is that of its default value.
+     *
+     * @param path The configuration path
+     * @param defaultValue The value used when the path is not set, not null
+     * @param <T> The type of the value
+     * @return The key, already resolved
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ConfigKey<T> key(String path, T defaultValue) {
+        if (defaultValue == null) {
+            throw new IllegalArgumentException("defaultValue cannot be null; use key(path, type, null) instead");
+        }
+        Class<?> type = defaultValue instanceof List<?> ? List.class : defaultValue.getClass();
+        return key(path, (Class<T>) type, defaultValue);
+    }
+
+    /**
+     * Create a key.
+     *
+     * @param path The configuration path
+     * @param type The type of the value. Numbers, strings, booleans and lists are read directly,
+     *             other types through the serializer registered for them
+     * @param defaultValue The value used when the path is not set, or null
+     * @param <T> The type of the value
+     * @return The key, already resolved
+     */
+    public <T> ConfigKey<T> key(String path, Class<T> type, T defaultValue) {
+        ConfigKey<T> key = new ConfigKey<>(ConfigPath.of(path), type, defaultValue);
+        synchronized (this) {
+            resolve(key, root);
+            keys.add(key);
+        }
+        return key;
+    }
+
+    /**
+     * Read the file again and resolve every key of this group.
+     */
+    public synchronized void refresh() {
+        root = ConfigLayers.load(plugin, file);
+        for (ConfigKey<?> key : keys) {
+            resolve(key, root);
+        }
+    }
+
+    private void resolve(ConfigKey<?> key, ConfigurationSection root) {
+        if (!key.resolve(root)) {
+            plugin.getLogger().warning("Configuration key " + key.getPath() + " in " + file.getName()
+                    + " cannot be read as " + key.getType().getSimpleName() + ", using the default value");
+        }
+    }
+
+    /**
+     * Refresh every key group of a plugin.
+     *
+     * @param plugin The plugin
+     */
+    static void refreshAll(Plugin plugin) {
+        List<ConfigKeys> groups = GROUPS.get(plugin);
+        if (groups != null) {
+            groups.forEach(ConfigKeys::refresh);
+        }
+    }
+
+    /**
+     * Refresh the key groups of a plugin bound to a file.
+     *
+     * @param plugin The plugin
+     * @param file The file that changed
+     * @return The number of groups refreshed
+     */
+    static int refresh(Plugin plugin, File file) {
+        List<ConfigKeys> groups = GROUPS.get(plugin);
+        if (groups == null) {
+            return 0;
+        }
+
+        int count = 0;
+        for (ConfigKeys group : groups) {
+            if (ConfigLayers.isLayerOf(group.file, file)) {
+                group.refresh();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Forget the key groups of a plugin. Its keys keep their last values.
+     *
+     * @param plugin The plugin
+     */
+    static void unregister(Plugin plugin) {
+        GROUPS.remove(plugin);
+    }
+}
@@ -0,0 +1,316 @@
+package dev.crafty.core.config;
+
+import dev.crafty.core.CraftyCore;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.Plugin;
+import org.snakeyaml.engine.v2.common.FlowStyle;
+import org.snakeyaml.engine.v2.common.ScalarStyle;
+import org.snakeyaml.engine.v2.exceptions.YamlEngineException;
+import org.snakeyaml.engine.v2.nodes.MappingNode;
+import org.snakeyaml.engine.v2.nodes.Node;
+import org.snakeyaml.engine.v2.nodes.NodeTuple;
+import org.snakeyaml.engine.v2.nodes.ScalarNode;
+import org.snakeyaml.engine.v2.nodes.SequenceNode;
+import org.snakeyaml.engine.v2.nodes.Tag;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves a configuration file from layered sources, so the same plugin jar and base files can
+ * run on differently configured servers.
+ * <p>
+ * Three layers are merged, each overriding the one before:
+ * </p>
+ * <ol>
+ *     <li>The base file, such as {@code config.yml}.</li>
+ *     <li>One overlay per active profile, next to the base file and named after it, such as
+ *     {@code config.staging.yml}. Overlays only need the keys they change; sections are merged
+ *     key by key. Profiles are set with the {@code crafty.profile} system property or the
+ *     {@code CRAFTY_PROFILE} environment variable, comma separated and applied in order.</li>
+ *     <li>Environment variables named {@code CRAFTY_<PLUGIN>_<KEY>} for {@code config.yml} and
+ *     {@code CRAFTY_<PLUGIN>_<FILE>_<KEY>} for other files, upper case with every character other
+ *     than letters and digits replaced by {@code _}. For example, {@code storage.pool-size} in the
+ *     {@code Shop} plugin's {@code config.yml} is set by {@code CRAFTY_SHOP_STORAGE_POOL_SIZE}.
+ *     Values are read like YAML scalars, lists are comma separated, and only keys that exist in
+ *     the file or an overlay can be set.</li>
+ * </ol>
+ * The merged tree is cached and only merged again when one of the files changes, so reading a
+ * layered configuration costs the same as reading a single file.
+ *
+ * @since 1.0.0
+ */
+public final class ConfigLayers {
+    private static final String PROFILE_PROPERTY = "crafty.profile";
+    private static final String PROFILE_VARIABLE = "CRAFTY_PROFILE";
+    private static final String VARIABLE_PREFIX = "CRAFTY_";
+
+    private static final Map<Path, Merged> MERGED = new ConcurrentHashMap<>();
+
+    private static volatile List<String> profiles;
+
+    private record Merged(Node base, Node[] overlays, Map<String, String> variables, Node root) {
+    }
+
+    private ConfigLayers() {
+    }
+
+    /**
+     * Get the active profiles.
+     *
+     * @return The profiles, in the order their overlays are applied
+     */
+    public static List<String> getProfiles() {
+        List<String> active = profiles;
+        if (active == null) {
+            String value = System.getProperty(PROFILE_PROPERTY, System.getenv(PROFILE_VARIABLE));
+            List<String> parsed = new ArrayList<>();
+            if (value != null) {
+                for (String profile : value.split(",")) {
+                    if (!profile.isBlank()) {
+                        parsed.add(profile.trim());
+                    }
+                }
+            }
+            active = profiles = List.copyOf(parsed);
+        }
+        return active;
+    }
+
+    /**
+     * Load a configuration file with its profile overlays and environment overrides applied.
+     * Like {@link FastYamlLoader#load(File)}, errors are logged and an empty configuration is returned.
+     *
+     * @param plugin The plugin whose data folder holds the file
+     * @param file The base file
+     * @return The merged configuration
+     */
+    public static YamlConfiguration load(Plugin plugin, File file) {
+        try {
+            return FastYamlLoader.load(resolve(plugin, file), file);
+        } catch (IOException | YamlEngineException e) {
+            CraftyCore.INSTANCE.logger.error("Cannot load " + file, e);
+            return new YamlConfiguration();
+        }
+    }
+
+    /**
+     * Get the overlay files of a base file for the active profiles, whether they exist or not.
+     *
+     * @param file The base file
+     * @return The overlay files, in the order they are applied
+     */
+    public static List<File> getOverlays(File file) {
+        List<String> active = getProfiles();
+        if (active.isEmpty()) {
+            return List.of();
+        }
+
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        String stem = dot > 0 ? name.substring(0, dot) : name;
+        String extension = dot > 0 ? name.substring(dot) : "";
+
+        List<File> overlays = new ArrayList<>(active.size());
+        for (String profile : active) {
+            overlays.add(new File(file.getParentFile(), stem + "." + profile + extension));
+        }
+        return overlays;
+    }
+
+    /**
+     * Check whether a file is a base file or one of its overlays.
+     *
+     * @param base The base file
+     * @param file The file to check
+     * @return True if a change to the file changes the merged configuration of the base file
+     */
+    public static boolean isLayerOf(File base, File file) {
+        File changed = file.getAbsoluteFile();
+        if (base.getAbsoluteFile().equals(changed)) {
+            return true;
+        }
+        for (File overlay : getOverlays(base)) {
+            if (overlay.getAbsoluteFile().equals(changed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Forget all merged trees and read the active profiles again on the next load.
+     */
+    public static void clearCache() {
+        MERGED.clear();
+        profiles = null;
+    }
+
+    private static Node resolve(Plugin plugin, File file) throws IOException {
+        Node base = FastYamlLoader.parse(file);
+
+        List<File> overlayFiles = getOverlays(file);
+        Node[] overlays = new Node[overlayFiles.size()];
+        for (int i = 0; i < overlays.length; i++) {
+            File overlay = overlayFiles.get(i);
+            overlays[i] = overlay.isFile() ? FastYamlLoader.parse(overlay) : null;
+        }
+
+        Map<String, String> variables = variables(plugin, file);
+        if (overlays.length == 0 && variables.isEmpty()) {
+            return base;
+        }
+
+        Path path = file.toPath().toAbsolutePath();
+        Merged cached = MERGED.get(path);
+        // Parsed trees are cached per file, so unchanged files give back the same nodes
+        if (cached != null && cached.base() == base && sameNodes(cached.overlays(), overlays)
+                && cached.variables().equals(variables)) {
+            return cached.root();
+        }
+
+        Node root = base;
+        for (Node overlay : overlays) {
+            root = merge(root, overlay);
+        }
+        if (!variables.isEmpty() && root instanceof MappingNode mapping) {
+            root = override(mapping, "", variables);
+        }
+
+        MERGED.put(path, new Merged(base, overlays, variables, root));
+        return root;
+    }
+
+    private static boolean sameNodes(Node[] cached, Node[] current) {
+        if (cached.length != current.length) {
+            return false;
+        }
+        for (int i = 0; i < cached.length; i++) {
+            if (cached[i] != current[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the environment variables that apply to a file, keyed by the normalized key they set.
+     */
+    private static Map<String, String> variables(Plugin plugin, File file) {
+        String prefix = VARIABLE_PREFIX + normalize(plugin.getName()) + "_";
+        Path folder = plugin.getDataFolder().getAbsoluteFile().toPath();
+        Path absolute = file.getAbsoluteFile().toPath();
+        String name = absolute.startsWith(folder) ? folder.relativize(absolute).toString() : file.getName();
+        int dot = name.lastIndexOf('.');
+        String stem = dot > 0 ? name.substring(0, dot) : name;
+        if (!stem.equals("config")) {
+            prefix += normalize(stem) + "_";
+        }
+
+        Map<String, String> variables = new HashMap<>();
+        for (Map.Entry<String, String> entry : System.getenv().entrySet()) {
+            if (entry.getKey().startsWith(prefix) && entry.getKey().length() > prefix.length()) {
+                variables.put(entry.getKey().substring(prefix.length()), entry.getValue());
+            }
+        }
+        return variables;
+    }
+
+    private static String normalize(String name) {
+        StringBuilder normalized = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = Character.toUpperCase(name.charAt(i));
+            normalized.append((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') ? c : '_');
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Merge an overlay into a tree without changing either; shared nodes are reused.
+     */
+    private static Node merge(Node base, Node overlay) {
+        if (overlay == null) {
+            return base;
+        }
+        if (!(base instanceof MappingNode baseMapping) || !(overlay instanceof MappingNode overlayMapping)) {
+            return overlay;
+        }
+
+        List<NodeTuple> tuples = new ArrayList<>(baseMapping.getValue());
+        for (NodeTuple entry : overlayMapping.getValue()) {
+            int index = indexOf(tuples, entry.getKeyNode());
+            if (index < 0) {
+                tuples.add(entry);
+            } else {
+                NodeTuple existing = tuples.get(index);
+                tuples.set(index, new NodeTuple(existing.getKeyNode(), merge(existing.getValueNode(), entry.getValueNode())));
+            }
+        }
+        return new MappingNode(baseMapping.getTag(), tuples, baseMapping.getFlowStyle());
+    }
+
+    private static int indexOf(List<NodeTuple> tuples, Node key) {
+        if (!(key instanceof ScalarNode scalar)) {
+            return -1;
+        }
+        // The last duplicate wins, as when the document is loaded
+        for (int i = tuples.size() - 1; i >= 0; i--) {
+            if (tuples.get(i).getKeyNode() instanceof ScalarNode other && other.getValue().equals(scalar.getValue())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Replace the values of the keys set by environment variables.
+     */
+    private static MappingNode override(MappingNode mapping, String path, Map<String, String> variables) {
+        List<NodeTuple> tuples = null;
+        List<NodeTuple> value = mapping.getValue();
+        for (int i = 0; i < value.size(); i++) {
+            NodeTuple entry = value.get(i);
+            if (!(entry.getKeyNode() instanceof ScalarNode key)) {
+                continue;
+            }
+
+            String childPath = path + key.getValue();
+            Node replacement = entry.getValueNode();
+            if (replacement instanceof MappingNode child) {
+                replacement = override(child, childPath + ".", variables);
+            } else {
+                String variable = variables.get(normalize(childPath));
+                if (variable != null) {
+                    replacement = replacement instanceof SequenceNode ? sequence(variable) : scalar(variable);
+                }
+            }
+
+            if (replacement != entry.getValueNode()) {
+                if (tuples == null) {
+                    tuples = new ArrayList<>(value);
+                }
+                tuples.set(i, new NodeTuple(key, replacement));
+            }
+        }
+        return tuples == null ? mapping : new MappingNode(mapping.getTag(), tuples, mapping.getFlowStyle());
+    }
+
+    private static Node scalar(String value) {
+        return new ScalarNode(FastYamlLoader.resolveTag(value), value, ScalarStyle.PLAIN);
+    }
+
+    private static Node sequence(String value) {
+        List<Node> items = new ArrayList<>();
+        if (!value.isBlank()) {
+            Arrays.stream(value.split(",")).map(String::trim).map(ConfigLayers::scalar).forEach(items::add);
+        }
+        return new SequenceNode(Tag.SEQ, items, FlowStyle.FLOW);
+    }
+}
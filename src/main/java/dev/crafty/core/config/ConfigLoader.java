@@ -0,0 +1,81 @@
+package dev.crafty.core.config;
+
+/**
+ * Reads the {@code @ConfigValue} fields of a configuration class from a {@link SectionWrapper}
+ * and assigns them directly, without reflection.
+ * <p>
+ * Implementations are generated at compile time by the
+ * {@link dev.crafty.core.config.processor.ConfigurationProcessor} as
+ * {@code <ClassName>_CraftyConfigLoader}, next to the configuration class. The
+ * {@link ConfigurationManager} uses the generated loader when one exists, for the first load as
+ * well as reloads, and falls back to reflection otherwise. Fields are addressed by their index,
+ * in declaration order. Values are converted and checked with {@link ConfigValues}, so both paths
+ * accept and reject the same values.
+ * </p>
+ *
+ * @param <T> The configuration class
+ * @since 1.0.0
+ */
+public interface ConfigLoader<T> {
+
+    /**
+     * The suffix appended to the binary name of a configuration class to name its generated loader.
+     */
+    String SUFFIX = "_CraftyConfigLoader";
+
+    /**
+     * Returned by {@link #read(int, SectionWrapper)} when a field should keep its current value.
+     */
+    Object UNSET = new Object();
+
+    /**
+     * Get the number of {@code @ConfigValue} fields.
+     *
+     * @return The number of fields
+     */
+    int size();
+
+    /**
+     * Get the name of a field.
+     *
+     * @param field The index of the field
+     * @return The field name
+     */
+    String name(int field);
+
+    /**
+     * Get the configuration key of a field.
+     *
+     * @param field The index of the field
+     * @return The key
+     */
+    String key(int field);
+
+    /**
+     * Whether a field can be read off the main thread, which is the case unless its type is read
+     * by a serializer that is not {@link dev.crafty.core.config.serializer.ConfigSerializer#isThreadSafe() thread-safe}.
+     *
+     * @param field The index of the field
+     * @return True if {@link #read(int, SectionWrapper)} is safe on any thread for the field
+     */
+    boolean threadSafe(int field);
+
+    /**
+     * Read the value of a field and check it against the field type and bounds.
+     *
+     * @param field The index of the field
+     * @param config The configuration to read from
+     * @return The value, or {@link #UNSET} if the field should keep its current value
+     * @throws IllegalArgumentException If the value is missing or does not fit the field
+     */
+    Object read(int field, SectionWrapper config);
+
+    /**
+     * Assign a value read by {@link #read(int, SectionWrapper)} to a field.
+     *
+     * @param target The object to assign the field of
+     * @param field The index of the field
+     * @param value The value
+     */
+    void set(T target, int field, Object value);
+}
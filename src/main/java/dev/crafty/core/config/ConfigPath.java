@@ -0,0 +1,114 @@
+package dev.crafty.core.config;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.Arrays;
+
+/**
+ * A configuration path split into its segments once, for lookups that run often.
+ * <p>
+ * Looking up {@code "a.b.c"} as a string scans and splits it on every call. A {@code ConfigPath}
+ * is split when it is created, so keep it in a constant and pass it to the {@link SectionWrapper}
+ * accessors instead:
+ * </p>
+ * <pre>{@code
+ * private static final ConfigPath COOLDOWN = ConfigPath.of("click.cooldown-ticks");
+ *
+ * int cooldown = section.getInt(COOLDOWN, 20);
+ * }</pre>
+ * Paths use {@code .} as the separator.
+ *
+ * @since 1.0.0
+ */
+public final class ConfigPath {
+    private final String path;
+    private final String[] segments;
+
+    private ConfigPath(String path, String[] segments) {
+        this.path = path;
+        this.segments = segments;
+    }
+
+    /**
+     * Create a path from its dotted form.
+     *
+     * @param path The path, such as {@code "storage.cache.size"}
+     * @return The path
+     * @throws IllegalArgumentException If the path is empty or has an empty segment
+     */
+    public static ConfigPath of(String path) {
+        if (path == null || path.isEmpty()) {
+            throw new IllegalArgumentException("path cannot be empty");
+        }
+
+        String[] segments = path.split("\\.", -1);
+        for (String segment : segments) {
+            if (segment.isEmpty()) {
+                throw new IllegalArgumentException("path cannot have empty segments: " + path);
+            }
+        }
+        return new ConfigPath(path, segments);
+    }
+
+    /**
+     * Create the path of a key below this path.
+     *
+     * @param key The key, which may itself be dotted
+     * @return The child path
+     */
+    public ConfigPath child(String key) {
+        ConfigPath child = of(key);
+        String[] segments = Arrays.copyOf(this.segments, this.segments.length + child.segments.length);
+        System.arraycopy(child.segments, 0, segments, this.segments.length, child.segments.length);
+        return new ConfigPath(path + "." + key, segments);
+    }
+
+    /**
+     * Get the value at this path.
+     *
+     * @param root The section the path is relative to
+     * @return The value, or null if it is not set
+     */
+    public Object get(ConfigurationSection root) {
+        ConfigurationSection section = parent(root);
+        return section == null ? null : section.get(segments[segments.length - 1]);
+    }
+
+    /**
+     * Get the section holding the last segment of this path.
+     *
+     * @param root The section the path is relative to
+     * @return The section, or null if one of the intermediate sections does not exist
+     */
+    public ConfigurationSection parent(ConfigurationSection root) {
+        ConfigurationSection section = root;
+        for (int i = 0; i < segments.length - 1 && section != null; i++) {
+            section = section.getConfigurationSection(segments[i]);
+        }
+        return section;
+    }
+
+    /**
+     * Get the last segment of this path.
+     *
+     * @return The key
+     */
+    public String key() {
+        return segments[segments.length - 1];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ConfigPath other && path.equals(other.path);
+    }
+
+    @Override
+    public int hashCode() {
+        return path.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+}
@@ -0,0 +1,109 @@
+package dev.crafty.core.config;
+
+import dev.crafty.core.config.ConfigBindingPlan.Binding;
+import lombok.Getter;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An immutable, atomically swapped view of a record configuration class.
+ * <p>
+ * The record is annotated with {@code @ConfigurationFile} and its components with
+ * {@code @ConfigValue}. Each load builds a complete new record and publishes it through a
+ * volatile reference, so readers on any thread always see either the old or the new
+ * configuration, never a mix of both, without locking.
+ * </p>
+ * <pre>{@code
+ * @ConfigurationFile(file = "settings.yml")
+ * public record Settings(
+ *         @ConfigValue(key = "max-homes") int maxHomes,
+ *         @ConfigValue(key = "welcome") String welcome
+ * ) {}
+ *
+ * ConfigSnapshot<Settings> settings = ConfigurationUtils.loadSnapshot(Settings.class, plugin);
+ * int maxHomes = settings.get().maxHomes();
+ * }</pre>
+ * Snapshots are registered like other configuration objects and are reloaded together with them.
+ *
+ * @param <T> The record type
+ * @since 1.0.0
+ */
+public final class ConfigSnapshot<T extends Record> {
+    @Getter
+    private final Class<T> type;
+    private final Plugin plugin;
+    private final ConfigurationManager manager;
+
+    private volatile T current;
+
+    ConfigSnapshot(Class<T> type, Plugin plugin, ConfigurationManager manager) {
+        this.type = type;
+        this.plugin = plugin;
+        this.manager = manager;
+        this.current = manager.loadRecord(type, plugin, false);
+    }
+
+    /**
+     * Get the current configuration. Safe to call from any thread.
+     *
+     * @return The current record
+     */
+    public T get() {
+        return current;
+    }
+
+    /**
+     * Read the configuration file again and publish a new record. If any value changed,
+     * a {@link ConfigChangedEvent} carrying the new record is called.
+     *
+     * @return The new record
+     * @throws ConfigValidationException If the file has invalid values; the current record is kept
+     */
+    public synchronized T reload() {
+        T previous = current;
+        T next = manager.loadRecord(type, plugin, true);
+        current = next;
+
+        Set<String> changedKeys = changedKeys(previous, next);
+        if (!changedKeys.isEmpty()) {
+            plugin.getLogger().info("Reloaded " + changedKeys.size() + " changed keys in configuration for " + type.getSimpleName());
+            Bukkit.getPluginManager().callEvent(new ConfigChangedEvent(plugin, next, changedKeys));
+        }
+        return next;
+    }
+
+    private Set<String> changedKeys(T previous, T next) {
+        Set<String> changedKeys = new HashSet<>();
+        if (previous.equals(next)) {
+            return changedKeys;
+        }
+
+        Binding[] components = ConfigBindingPlan.forClass(type).components();
+        RecordComponent[] recordComponents = type.getRecordComponents();
+
+        for (int i = 0; i < components.length; i++) {
+            if (components[i] == null) {
+                continue;
+            }
+
+            try {
+                Method accessor = recordComponents[i].getAccessor();
+                accessor.setAccessible(true);
+                Object before = accessor.invoke(previous);
+                Object after = accessor.invoke(next);
+                if (!Objects.equals(before, after)) {
+                    changedKeys.add(components[i].key());
+                }
+            } catch (ReflectiveOperationException e) {
+                changedKeys.add(components[i].key());
+            }
+        }
+        return changedKeys;
+    }
+}
@@ -0,0 +1,56 @@
+package dev.crafty.core.config;
+
+import lombok.Getter;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Thrown when a configuration file does not match the {@code @ConfigValue} fields of its class.
+ * <p>
+ * The whole file is checked before any field is assigned, so the exception lists every problem
+ * found, one per field. The exception of each field is attached as a suppressed exception.
+ * </p>
+ *
+ * @since 1.0.0
+ */
+@Getter
+public class ConfigValidationException extends RuntimeException {
+    private final Class<?> configClass;
+    private final File file;
+    private final List<String> errors;
+
+    /**
+     * Create a new validation exception.
+     *
+     * @param configClass The configuration class
+     * @param file The configuration file, or null if it is not known
+     * @param errors The exception of each invalid field, by field name
+     */
+    public ConfigValidationException(Class<?> configClass, File file, Map<String, Exception> errors) {
+        super(message(configClass, file, errors));
+        this.configClass = configClass;
+        this.file = file;
+
+        List<String> messages = new ArrayList<>(errors.size());
+        errors.forEach((field, e) -> {
+            messages.add(field + ": " + e.getMessage());
+            addSuppressed(e);
+        });
+        this.errors = Collections.unmodifiableList(messages);
+    }
+
+    private static String message(Class<?> configClass, File file, Map<String, Exception> errors) {
+        StringBuilder message = new StringBuilder()
+                .append(errors.size()).append(errors.size() == 1 ? " invalid value" : " invalid values")
+                .append(" in configuration for ").append(configClass.getName());
+        if (file != null) {
+            message.append(" (").append(file.getName()).append(')');
+        }
+        errors.forEach((field, e) -> message.append("\n - ").append(field).append(": ").append(e.getMessage()));
+        return message.toString();
+    }
+}
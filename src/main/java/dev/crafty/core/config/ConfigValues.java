@@ -0,0 +1,258 @@
+package dev.crafty.core.config;
+
+import dev.crafty.core.config.serializer.ConfigSerializer;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.MemoryConfiguration;
+
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The conversions and checks applied to {@code @ConfigValue} fields, shared by the reflective
+ * bindings and the loaders generated by the
+ * {@link dev.crafty.core.config.processor.ConfigurationProcessor}, so both accept and reject the
+ * same values with the same messages. Generated code calls these directly; plugins normally
+ * have no reason to.
+ *
+ * @since 1.0.0
+ */
+public final class ConfigValues {
+
+    private ConfigValues() {
+    }
+
+    /**
+     * Create the error for a required key that is not set.
+     *
+     * @param key The configuration key
+     * @return The exception to throw
+     */
+    public static IllegalArgumentException missing(String key) {
+        return new IllegalArgumentException("Required configuration key " + key + " not found");
+    }
+
+    /**
+     * Create the error for a primitive field whose key has no usable value.
+     *
+     * @param key The configuration key
+     * @return The exception to throw
+     */
+    public static IllegalArgumentException noValue(String key) {
+        return new IllegalArgumentException("Key " + key + " has no value");
+    }
+
+    /**
+     * Check that a primitive field has a value.
+     *
+     * @param key The configuration key, for error messages
+     * @param value The value
+     * @return The value
+     * @throws IllegalArgumentException If the value is null
+     */
+    public static Object require(String key, Object value) {
+        if (value == null) {
+            throw noValue(key);
+        }
+        return value;
+    }
+
+    /**
+     * Check that a raw configuration value has a type. Numbers of another type are converted
+     * when no precision is lost, so {@code 5} is accepted for a {@code double}.
+     *
+     * @param key The configuration key, for error messages
+     * @param value The value, or null
+     * @param type The expected type; primitive types are treated as their wrappers
+     * @return The value, possibly converted, or null if it was null
+     * @throws IllegalArgumentException If the value does not fit the type
+     */
+    public static Object convert(String key, Object value, Class<?> type) {
+        if (value == null) {
+            return null;
+        }
+
+        Class<?> wrapped = wrap(type);
+        if (value instanceof Number number && Number.class.isAssignableFrom(wrapped) && !wrapped.isInstance(value)) {
+            value = convertNumber(key, number, wrapped);
+        }
+        if (!wrapped.isInstance(value)) {
+            throw new IllegalArgumentException("Key " + key + " should be " + describe(wrapped)
+                    + " but is " + describe(value.getClass()) + " (" + value + ")");
+        }
+        return value;
+    }
+
+    /**
+     * Check a value against the bounds of its field: numbers by value, strings by length and
+     * collections and maps by size.
+     *
+     * @param key The configuration key, for error messages
+     * @param value The value, or null
+     * @param min The lower bound
+     * @param max The upper bound
+     * @return The value
+     * @throws IllegalArgumentException If the value is out of bounds
+     */
+    public static Object checkBounds(String key, Object value, double min, double max) {
+        if (value == null) {
+            return null;
+        }
+
+        double measure = switch (value) {
+            case Number number -> number.doubleValue();
+            case CharSequence string -> string.length();
+            case Collection<?> collection -> collection.size();
+            case Map<?, ?> map -> map.size();
+            default -> Double.NaN;
+        };
+        String unit = value instanceof Number ? "" : value instanceof CharSequence ? " characters" : " entries";
+        if (measure < min) {
+            throw new IllegalArgumentException("Key " + key + " should be at least " + format(min) + unit
+                    + " but is " + format(measure) + unit);
+        }
+        if (measure > max) {
+            throw new IllegalArgumentException("Key " + key + " should be at most " + format(max) + unit
+                    + " but is " + format(measure) + unit);
+        }
+        return value;
+    }
+
+    /**
+     * Whether a field read through a serializer can be read off the main thread.
+     *
+     * @param serializer The serializer, or null if the field has none
+     * @return True if there is no serializer or it is {@link ConfigSerializer#isThreadSafe() thread-safe}
+     */
+    public static boolean isThreadSafe(ConfigSerializer<?> serializer) {
+        return serializer == null || serializer.isThreadSafe();
+    }
+
+    /**
+     * Parse the {@code defaultValue} of a field.
+     *
+     * @param name The field name, for error messages
+     * @param value The default value
+     * @param fieldType The field type
+     * @param serializer The serializer for the field type, or null
+     * @param itemType The item type of a list field, or null
+     * @param itemSerializer The serializer for the list item type, or null
+     * @return The parsed value
+     * @throws IllegalArgumentException If the value cannot be parsed for the field type
+     */
+    public static Object parseDefault(String name, String value, Class<?> fieldType, ConfigSerializer<Object> serializer,
+                                      Class<?> itemType, ConfigSerializer<Object> itemSerializer) {
+        if (fieldType == String.class) {
+            return value;
+        } else if (fieldType == int.class || fieldType == Integer.class) {
+            return Integer.parseInt(value);
+        } else if (fieldType == boolean.class || fieldType == Boolean.class) {
+            return Boolean.parseBoolean(value);
+        } else if (fieldType == double.class || fieldType == Double.class) {
+            return Double.parseDouble(value);
+        } else if (fieldType == float.class || fieldType == Float.class) {
+            return Float.parseFloat(value);
+        } else if (fieldType == long.class || fieldType == Long.class) {
+            return Long.parseLong(value);
+        } else if (serializer != null) {
+            return deserializeString(serializer, value);
+        } else if (List.class.isAssignableFrom(fieldType)) {
+            if (itemType == null) {
+                throw new IllegalArgumentException("Cannot determine generic type for list field " + name);
+            }
+
+            List<Object> list = new ArrayList<>();
+            for (String item : value.split(",")) {
+                String trimmedItem = item.trim();
+
+                if (itemType == String.class) {
+                    list.add(trimmedItem);
+                } else if (itemType == Integer.class) {
+                    list.add(Integer.parseInt(trimmedItem));
+                } else if (itemType == Boolean.class) {
+                    list.add(Boolean.parseBoolean(trimmedItem));
+                } else if (itemType == Double.class) {
+                    list.add(Double.parseDouble(trimmedItem));
+                } else if (itemType == Float.class) {
+                    list.add(Float.parseFloat(trimmedItem));
+                } else if (itemType == Long.class) {
+                    list.add(Long.parseLong(trimmedItem));
+                } else if (itemSerializer != null) {
+                    list.add(deserializeString(itemSerializer, trimmedItem));
+                } else {
+                    throw new IllegalArgumentException("Cannot convert string to list item of type " + itemType.getName());
+                }
+            }
+            return list;
+        } else if (fieldType.isInstance(value)) {
+            return value;
+        } else {
+            throw new IllegalArgumentException("Cannot set field of type " + fieldType.getName() + " from string value");
+        }
+    }
+
+    private static Object deserializeString(ConfigSerializer<Object> serializer, String value) {
+        // A scratch document, so parsing a default never touches the configuration being read
+        SectionWrapper scratch = new SectionWrapper(new MemoryConfiguration());
+        scratch.set("value", value);
+        return serializer.deserialize(scratch, "value").orElse(null);
+    }
+
+    private static Object convertNumber(String key, Number number, Class<?> type) {
+        if (type == Double.class) {
+            return number.doubleValue();
+        }
+        if (type == Float.class) {
+            return number.floatValue();
+        }
+
+        double whole = number.doubleValue();
+        if ((number instanceof Double || number instanceof Float) && whole != Math.rint(whole)) {
+            throw new IllegalArgumentException("Key " + key + " should be a whole number but is " + number);
+        }
+
+        long value = number instanceof Double || number instanceof Float ? (long) whole : number.longValue();
+        if (type == Long.class) {
+            return value;
+        }
+        if (type == Integer.class && value == (int) value) {
+            return (int) value;
+        }
+        if (type == Short.class && value == (short) value) {
+            return (short) value;
+        }
+        if (type == Byte.class && value == (byte) value) {
+            return (byte) value;
+        }
+        throw new IllegalArgumentException("Key " + key + " is out of range for " + describe(type) + ": " + number);
+    }
+
+    static Class<?> wrap(Class<?> type) {
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+
+    private static String describe(Class<?> type) {
+        if (Number.class.isAssignableFrom(type)) {
+            return type == Double.class || type == Float.class ? "a number" : "a whole number";
+        }
+        if (type == String.class) {
+            return "text";
+        }
+        if (type == Boolean.class) {
+            return "true or false";
+        }
+        if (List.class.isAssignableFrom(type)) {
+            return "a list";
+        }
+        if (Map.class.isAssignableFrom(type) || ConfigurationSection.class.isAssignableFrom(type)) {
+            return "a section";
+        }
+        return "a " + type.getSimpleName();
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) && !Double.isInfinite(value) ? Long.toString((long) value) : Double.toString(value);
+    }
+}
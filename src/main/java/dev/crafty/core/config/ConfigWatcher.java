@@ -1,31 +1,52 @@
 package dev.crafty.core.config;
 
+import org.bukkit.Bukkit;
 import org.bukkit.plugin.Plugin;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.*;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 
 /**
  * Utility class for watching configuration files for changes.
  * This class provides methods for setting up and managing file watchers
  * that automatically detect changes to configuration files.
+ * <p>
+ * All watchers on the server share one {@link WatchService} and one background thread, which
+ * blocks until the file system reports a change. A watcher covers either a single file or a
+ * whole directory tree, including directories created later. Changes are debounced, so the
+ * burst of events an editor produces for one save results in a single callback, and writes made
+ * by the {@link ConfigWriteScheduler} are ignored. Callbacks run on the main server thread.
+ * </p>
  *
  * @since 1.0.0
  */
 public class ConfigWatcher {
+    private static final long DEBOUNCE_MILLIS = 250;
+
+    private static final List<ConfigWatcher> WATCHERS = new CopyOnWriteArrayList<>();
+    private static final Map<WatchKey, Path> DIRECTORIES = new ConcurrentHashMap<>();
+
+    // Guarded by ConfigWatcher.class
+    private static WatchService watchService;
+
     private final Plugin plugin;
-    private final File configFile;
-    private final Runnable onChangeCallback;
-    
-    private ScheduledExecutorService watcherExecutor;
-    private WatchService watchService;
-    private boolean enabled = false;
-    
+    private final Path root;
+    private final boolean recursive;
+    private final Consumer<File> onChangeCallback;
+
+    private volatile boolean enabled = false;
+
     /**
      * Create a new config watcher.
      *
@@ -34,11 +55,24 @@ public class ConfigWatcher {
      * @param onChangeCallback The callback to run when the file changes
      */
     public ConfigWatcher(Plugin plugin, File configFile, Runnable onChangeCallback) {
+        this(plugin, configFile, false, file -> onChangeCallback.run());
+    }
+
+    /**
+     * Create a new config watcher.
+     *
+     * @param plugin The plugin that owns the files
+     * @param root The file to watch, or the directory to watch if {@code recursive} is set
+     * @param recursive Whether to watch every file below the root directory
+     * @param onChangeCallback The callback to run with each changed file
+     */
+    public ConfigWatcher(Plugin plugin, File root, boolean recursive, Consumer<File> onChangeCallback) {
         this.plugin = plugin;
-        this.configFile = configFile;
+        this.root = root.toPath().toAbsolutePath().normalize();
+        this.recursive = recursive;
         this.onChangeCallback = onChangeCallback;
     }
-    
+
     /**
      * Create a new config watcher for the plugin's config.yml file.
      *
@@ -49,10 +83,21 @@ public class ConfigWatcher {
     public static ConfigWatcher forPluginConfig(Plugin plugin, Runnable onChangeCallback) {
         return new ConfigWatcher(plugin, new File(plugin.getDataFolder(), "config.yml"), onChangeCallback);
     }
-    
+
+    /**
+     * Create a new config watcher for every file in the plugin's data folder and its subfolders.
+     *
+     * @param plugin The plugin that owns the data folder
+     * @param onChangeCallback The callback to run with each changed file
+     * @return A new config watcher
+     */
+    public static ConfigWatcher forDataFolder(Plugin plugin, Consumer<File> onChangeCallback) {
+        return new ConfigWatcher(plugin, plugin.getDataFolder(), true, onChangeCallback);
+    }
+
     /**
      * Start watching the configuration file for changes.
-     * This method sets up a file watcher that monitors the file for changes
+     * This method registers the watched directories with the shared watch service
      * and calls the callback when changes are detected.
      *
      * @return True if the watcher was started successfully, false otherwise
@@ -61,85 +106,56 @@ public class ConfigWatcher {
         if (enabled) {
             return true; // Already started
         }
-        
+
         try {
-            // Get the directory containing the config file
-            Path directory = configFile.getParentFile().toPath();
-            
-            // Create a watch service
-            watchService = FileSystems.getDefault().newWatchService();
-            directory.register(watchService, StandardWatchEventKinds.ENTRY_MODIFY);
-            
-            // Start a background thread to watch for changes
-            watcherExecutor = Executors.newSingleThreadScheduledExecutor();
-            watcherExecutor.scheduleAtFixedRate(() -> {
-                WatchKey key;
-                try {
-                    key = watchService.poll();
-                    if (key == null) {
-                        return;
-                    }
-                    
-                    for (WatchEvent<?> event : key.pollEvents()) {
-                        @SuppressWarnings("unchecked")
-                        WatchEvent<Path> pathEvent = (WatchEvent<Path>) event;
-                        Path changed = pathEvent.context();
-                        
-                        // If the target file was modified, call the callback
-                        if (changed.toString().equals(configFile.getName())) {
-                            // Run the callback on the main server thread
-                            new BukkitRunnable() {
-                                @Override
-                                public void run() {
-                                    plugin.getLogger().info("Detected changes to " + configFile.getName() + ", reloading configuration...");
-                                    onChangeCallback.run();
-                                }
-                            }.runTask(plugin);
-                        }
-                    }
-                    
-                    key.reset();
-                } catch (Exception e) {
-                    plugin.getLogger().log(Level.WARNING, "Error watching for config changes", e);
+            synchronized (ConfigWatcher.class) {
+                WatchService service = getWatchService();
+                if (recursive) {
+                    Files.createDirectories(root);
+                    registerTree(service, root);
+                } else {
+                    register(service, root.getParent());
                 }
-            }, 2, 2, TimeUnit.SECONDS);
-            
+
+                WATCHERS.add(this);
+            }
             enabled = true;
-            plugin.getLogger().info("Config watcher set up successfully for " + configFile.getName());
+            plugin.getLogger().info("Config watcher set up successfully for " + root.getFileName());
             return true;
         } catch (Exception e) {
             plugin.getLogger().log(Level.SEVERE, "Error setting up config watcher", e);
             return false;
         }
     }
-    
+
     /**
      * Stop watching the configuration file for changes.
-     * This method cleans up resources used by the file watcher.
+     * Directories no other watcher needs are unregistered, and the shared watch service is
+     * closed once no watcher is left.
      */
     public void stop() {
         if (!enabled) {
             return; // Already stopped
         }
-        
-        // Clean up resources
-        if (watcherExecutor != null) {
-            watcherExecutor.shutdown();
-            watcherExecutor = null;
-        }
-        
-        if (watchService != null) {
-            try {
-                watchService.close();
+
+        enabled = false;
+        WATCHERS.remove(this);
+
+        synchronized (ConfigWatcher.class) {
+            if (WATCHERS.isEmpty() && watchService != null) {
+                try {
+                    watchService.close();
+                } catch (IOException e) {
+                    plugin.getLogger().log(Level.WARNING, "Error closing watch service", e);
+                }
                 watchService = null;
-            } catch (Exception e) {
-                plugin.getLogger().log(Level.WARNING, "Error closing watch service", e);
+                DIRECTORIES.clear();
+            } else {
+                unregisterUnwatched();
             }
         }
-        
-        enabled = false;
     }
-    
+
     /**
      * Check if the watcher is enabled.
      *
@@ -148,7 +164,7 @@ public class ConfigWatcher {
     public boolean isEnabled() {
         return enabled;
     }
-    
+
     /**
      * Set whether the watcher is enabled.
      * If enabled and not already started, the watcher will be started.
@@ -161,7 +177,7 @@ public class ConfigWatcher {
         if (this.enabled == enabled) {
             return true; // No change needed
         }
-        
+
         if (enabled) {
             return start();
         } else {
@@ -169,4 +185,173 @@ public class ConfigWatcher {
             return true;
         }
     }
-}
\ No newline at end of file
+
+    private boolean covers(Path path) {
+        return recursive ? path.startsWith(root) : path.equals(root);
+    }
+
+    private boolean needsDirectory(Path directory) {
+        return recursive ? directory.startsWith(root) : directory.equals(root.getParent());
+    }
+
+    private static void unregisterUnwatched() {
+        for (Iterator<Map.Entry<WatchKey, Path>> it = DIRECTORIES.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<WatchKey, Path> entry = it.next();
+            if (WATCHERS.stream().noneMatch(watcher -> watcher.needsDirectory(entry.getValue()))) {
+                entry.getKey().cancel();
+                it.remove();
+            }
+        }
+    }
+
+    private static synchronized WatchService getWatchService() throws IOException {
+        if (watchService == null) {
+            WatchService service = FileSystems.getDefault().newWatchService();
+
+            Thread thread = new Thread(() -> watch(service), "CraftyCore-ConfigWatcher");
+            thread.setDaemon(true);
+            thread.start();
+
+            watchService = service;
+        }
+        return watchService;
+    }
+
+    private static void registerTree(WatchService service, Path directory) throws IOException {
+        Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) throws IOException {
+                // Hidden folders such as the compiled config cache are not configuration
+                if (!dir.equals(directory) && isHidden(dir)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                register(service, dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Check whether a file or folder is hidden, like the compiled config cache. Hidden folders
+     * hold no configuration and are skipped when watching or preloading a data folder.
+     *
+     * @param path The file or folder
+     * @return True if its name starts with a dot
+     */
+    static boolean isHidden(Path path) {
+        Path name = path.getFileName();
+        return name != null && name.toString().startsWith(".");
+    }
+
+    private static void register(WatchService service, Path directory) throws IOException {
+        // Registering a directory twice returns the same key
+        WatchKey key = directory.register(service,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        DIRECTORIES.put(key, directory);
+    }
+
+    /**
+     * The loop of the shared watcher thread. Changed files are collected with a deadline and
+     * dispatched once no further event for them arrived within the debounce window.
+     */
+    private static void watch(WatchService service) {
+        Map<Path, Long> pending = new HashMap<>();
+
+        while (true) {
+            WatchKey key;
+            try {
+                if (pending.isEmpty()) {
+                    key = service.take();
+                } else {
+                    long wait = pending.values().stream().mapToLong(Long::longValue).min().orElse(0) - System.nanoTime();
+                    key = wait > 0 ? service.poll(wait, TimeUnit.NANOSECONDS) : service.poll();
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            if (key != null) {
+                Path directory = DIRECTORIES.get(key);
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (directory == null || event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        continue;
+                    }
+
+                    Path changed = directory.resolve((Path) event.context());
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(changed)) {
+                        if (!isHidden(changed)) {
+                            registerNewDirectory(service, changed);
+                        }
+                        continue;
+                    }
+
+                    pending.put(changed, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DEBOUNCE_MILLIS));
+                }
+
+                if (!key.reset()) {
+                    DIRECTORIES.remove(key);
+                }
+            }
+
+            long now = System.nanoTime();
+            for (Iterator<Map.Entry<Path, Long>> it = pending.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<Path, Long> entry = it.next();
+                if (entry.getValue() - now <= 0) {
+                    it.remove();
+                    dispatch(entry.getKey());
+                }
+            }
+        }
+    }
+
+    private static void registerNewDirectory(WatchService service, Path directory) {
+        for (ConfigWatcher watcher : WATCHERS) {
+            if (watcher.recursive && watcher.covers(directory)) {
+                try {
+                    registerTree(service, directory);
+                } catch (IOException e) {
+                    watcher.plugin.getLogger().log(Level.WARNING, "Error watching new directory " + directory, e);
+                }
+                return;
+            }
+        }
+    }
+
+    private static void dispatch(Path path) {
+        // Temporary files of atomic writes, and files this server wrote itself
+        if (path.getFileName().toString().endsWith(".tmp")) {
+            return;
+        }
+
+        File file = path.toFile();
+        if (ConfigWriteScheduler.isOwnWrite(file)) {
+            return;
+        }
+
+        for (ConfigWatcher watcher : WATCHERS) {
+            if (!watcher.covers(path) || !watcher.plugin.isEnabled()) {
+                continue;
+            }
+
+            try {
+                // Run the callback on the main server thread
+                Bukkit.getScheduler().runTask(watcher.plugin, () -> {
+                    if (!watcher.enabled) {
+                        return;
+                    }
+
+                    try {
+                        watcher.onChangeCallback.accept(file);
+                    } catch (Exception e) {
+                        watcher.plugin.getLogger().log(Level.WARNING, "Error handling config change for " + path.getFileName(), e);
+                    }
+                });
+            } catch (Exception e) {
+                // The plugin was disabled in the meantime; keep the shared thread alive
+                watcher.plugin.getLogger().log(Level.WARNING, "Could not schedule config reload for " + path.getFileName(), e);
+            }
+        }
+    }
+}
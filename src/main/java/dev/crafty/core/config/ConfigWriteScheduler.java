@@ -0,0 +1,205 @@
+package dev.crafty.core.config;
+
+import dev.crafty.core.CraftyCore;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes configuration files in the background.
+ * <p>
+ * Callers mark a file dirty after changing its {@link FileConfiguration}. Changes made within the
+ * write window are coalesced into a single write on a dedicated writer thread, which replaces the
+ * file through a temporary file and an atomic rename, so a crash never leaves a half-written config
+ * behind. {@link #flushAll()} writes everything still pending and is called when plugins are disabled.
+ * </p>
+ * <p>
+ * Documents are serialized once per coalesced write, on the writer thread, while holding the
+ * document's lock. {@link #markDirty(File, FileConfiguration)} uses the lock from
+ * {@link #lockFor(FileConfiguration)}, which callers must hold while changing the document;
+ * callers that already guard every change with a lock of their own can pass it to
+ * {@link #markDirty(File, FileConfiguration, Object)} instead.
+ * </p>
+ *
+ * @since 1.0.0
+ */
+public final class ConfigWriteScheduler {
+    private static final long WRITE_WINDOW_MILLIS = 500;
+
+    private static final ScheduledExecutorService WRITER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "CraftyCore-ConfigWriter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final Map<Path, PendingWrite> PENDING = new ConcurrentHashMap<>();
+    // Documents are keyed by identity, since configuration sections do not override equals
+    private static final Map<FileConfiguration, Object> LOCKS = Collections.synchronizedMap(new WeakHashMap<>());
+    // Last modified time and size of the files this scheduler wrote, so watchers can skip them
+    private static final Map<Path, FileStamp> OWN_WRITES = new ConcurrentHashMap<>();
+    // Writes are serialized so an older snapshot can never replace a newer one
+    private static final Object WRITE_LOCK = new Object();
+
+    private ConfigWriteScheduler() {
+    }
+
+    /**
+     * Gets the lock that guards changes to a document written through
+     * {@link #markDirty(File, FileConfiguration)}. Every change to the document must be made while
+     * holding it, so the writer thread never serializes a document that is half changed.
+     *
+     * @param config The document
+     * @return The lock of the document
+     */
+    public static Object lockFor(FileConfiguration config) {
+        return LOCKS.computeIfAbsent(config, k -> new Object());
+    }
+
+    /**
+     * Marks a file dirty, scheduling a write of the given document. The document is serialized
+     * when the write happens, while holding its {@link #lockFor(FileConfiguration) lock}.
+     *
+     * @param file The file to write
+     * @param config The document to write into the file
+     */
+    public static void markDirty(File file, FileConfiguration config) {
+        markDirty(file, config, lockFor(config));
+    }
+
+    /**
+     * Marks a file dirty, scheduling a write of the given document. The document is serialized
+     * when the write happens, while holding the lock; every change to the document must be made
+     * while holding the same lock. If a write of the same file is already pending, it is reused
+     * and will write this document.
+     *
+     * @param file The file to write
+     * @param config The document to write into the file
+     * @param lock The lock that guards every change to the document
+     */
+    public static void markDirty(File file, FileConfiguration config, Object lock) {
+        schedule(normalize(file), new PendingWrite(config, lock));
+    }
+
+    private static void schedule(Path path, PendingWrite pending) {
+        if (PENDING.put(path, pending) == null) {
+            WRITER.schedule(() -> write(path), WRITE_WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes a file immediately on the calling thread if a write is pending for it.
+     *
+     * @param file The file to flush
+     */
+    public static void flush(File file) {
+        write(normalize(file));
+    }
+
+    /**
+     * Writes every pending file immediately on the calling thread.
+     */
+    public static void flushAll() {
+        for (Path path : List.copyOf(PENDING.keySet())) {
+            write(path);
+        }
+    }
+
+    /**
+     * Checks whether a file is pending a write.
+     *
+     * @param file The file to check
+     * @return True if changes to the file have not been written yet
+     */
+    public static boolean isPending(File file) {
+        return PENDING.containsKey(normalize(file));
+    }
+
+    /**
+     * Checks whether the current contents of a file were written by this scheduler, so file
+     * watchers can ignore changes they did not cause.
+     *
+     * @param file The file to check
+     * @return True if the file is unchanged since this scheduler last wrote it
+     */
+    public static boolean isOwnWrite(File file) {
+        FileStamp stamp = OWN_WRITES.get(normalize(file));
+        return stamp != null && stamp.equals(FileStamp.of(file));
+    }
+
+    private static void write(Path path) {
+        synchronized (WRITE_LOCK) {
+            PendingWrite pending = PENDING.remove(path);
+            if (pending == null) {
+                return;
+            }
+
+            String contents = pending.contents();
+            try {
+                if (isUnchanged(path, contents)) {
+                    // Rewriting identical contents would only invalidate compiled snapshots of the file
+                    return;
+                }
+
+                Path parent = path.getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+
+                Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+                Files.writeString(temp, contents, StandardCharsets.UTF_8);
+                try {
+                    Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+                }
+
+                OWN_WRITES.put(path, FileStamp.of(path.toFile()));
+            } catch (IOException e) {
+                CraftyCore.INSTANCE.logger.error("Failed to write config file " + path + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static boolean isUnchanged(Path path, String contents) {
+        try {
+            return Files.isRegularFile(path) && contents.equals(Files.readString(path, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static Path normalize(File file) {
+        return file.toPath().toAbsolutePath().normalize();
+    }
+
+    /**
+     * A pending write of a document, serialized while holding its lock.
+     */
+    private record PendingWrite(FileConfiguration config, Object lock) {
+        private String contents() {
+            synchronized (lock) {
+                return config.saveToString();
+            }
+        }
+    }
+
+    private record FileStamp(long lastModified, long length) {
+        private static FileStamp of(File file) {
+            return new FileStamp(file.lastModified(), file.length());
+        }
+    }
+}
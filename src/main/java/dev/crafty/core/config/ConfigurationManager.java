@@ -1,23 +1,26 @@
 package dev.crafty.core.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.crafty.core.config.ConfigBindingPlan.Binding;
+import dev.crafty.core.config.ConfigBindingPlan.FailedBinding;
 import dev.crafty.core.config.annotation.ConfigurationFile;
-import dev.crafty.core.config.annotation.ConfigValue;
-import dev.crafty.core.config.serializer.ConfigSerializer;
-import dev.crafty.core.config.serializer.SerializerRegistry;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.plugin.Plugin;
 
 import java.io.File;
-import java.io.IOException;
-import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
+import java.lang.reflect.Array;
+import java.lang.reflect.RecordComponent;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.logging.Level;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * Manager for handling configuration files and annotations.
@@ -32,6 +35,12 @@ public class ConfigurationManager {
     private final Map<Class<?>, YamlConfiguration> configCache = new HashMap<>();
     private final Map<Class<?>, File> configFiles = new HashMap<>();
     private final Map<Class<?>, Plugin> configPlugins = new HashMap<>();
+    // Flattened leaf values each object was last populated from, used to diff reloads. Keys are
+    // compared by identity and held weakly; the map is written from loads, reloads and the watcher
+    private final Map<Object, Map<String, Object>> snapshots = Caffeine.newBuilder().weakKeys().<Object, Map<String, Object>>build().asMap();
+
+    // Returned by Binding.read when a field should keep its current value
+    private static final Object UNSET = ConfigLoader.UNSET;
 
     /**
      * Create a new configuration manager.
@@ -42,6 +51,29 @@ public class ConfigurationManager {
         this.plugin = plugin;
     }
 
+    /**
+     * Forget the configuration classes and objects of a plugin, so a disabled or reloaded plugin's
+     * classes can be unloaded.
+     *
+     * @param owner The plugin whose configurations to forget
+     */
+    public void unregister(Plugin owner) {
+        ClassLoader classLoader = owner.getClass().getClassLoader();
+        Set<Class<?>> classes = new HashSet<>();
+        configPlugins.forEach((clazz, configPlugin) -> {
+            if (configPlugin == owner || clazz.getClassLoader() == classLoader) {
+                classes.add(clazz);
+            }
+        });
+
+        classes.forEach(clazz -> {
+            configPlugins.remove(clazz);
+            configFiles.remove(clazz);
+            configCache.remove(clazz);
+        });
+        snapshots.keySet().removeIf(object -> classes.contains(object.getClass()) || object.getClass().getClassLoader() == classLoader);
+    }
+
     /**
      * Load a configuration file for a class.
      *
@@ -55,6 +87,7 @@ public class ConfigurationManager {
 
     /**
      * Load a configuration file for a class using a specific plugin's data folder.
+     * Profile overlays and environment overrides are applied, see {@link ConfigLayers}.
      *
      * @param clazz The class to load the configuration for
      * @param plugin The plugin to load the configuration from
@@ -73,19 +106,123 @@ public class ConfigurationManager {
 
         configPlugins.put(clazz, plugin);
 
-        String filePath = annotation.file();
-        File configFile = new File(plugin.getDataFolder(), filePath);
+        File configFile = createConfigFile(clazz, plugin);
         configFiles.put(clazz, configFile);
 
+        var config = ConfigLayers.load(plugin, configFile);
+        configCache.put(clazz, config);
+
+        return config;
+    }
+
+    /**
+     * Get the configuration file of a class, saving the default file from the plugin jar if it
+     * does not exist yet and the class asks for it.
+     *
+     * @param clazz The configuration class
+     * @param plugin The plugin whose data folder holds the file
+     * @return The configuration file
+     * @throws IllegalArgumentException If the class is not annotated with @ConfigurationFile
+     */
+    File createConfigFile(Class<?> clazz, Plugin plugin) {
+        ConfigurationFile annotation = clazz.getAnnotation(ConfigurationFile.class);
+        if (annotation == null) {
+            throw new IllegalArgumentException("Class " + clazz.getName() + " is not annotated with @ConfigurationFile");
+        }
+
+        String filePath = annotation.file();
+        File configFile = new File(plugin.getDataFolder(), filePath);
         if (!configFile.exists() && annotation.createIfNotExists()) {
             configFile.getParentFile().mkdirs();
             plugin.saveResource(filePath, false);
         }
+        return configFile;
+    }
 
-        var config = YamlConfiguration.loadConfiguration(configFile);
-        configCache.put(clazz, config);
+    /**
+     * Read a configuration file and the values of an object's fields without touching the object
+     * or the state of this manager, so it can run on any thread. Fields whose serializers are not
+     * thread-safe are left for {@link #apply(PreparedLoad)}, as is the whole file if it holds
+     * {@code ==} serialized objects, since Bukkit builds those on the main thread.
+     *
+     * @param object The object to prepare
+     * @param plugin The plugin the configuration belongs to
+     * @param configFile The configuration file, from {@link #createConfigFile(Class, Plugin)}
+     * @return The values read for the object
+     */
+    PreparedLoad prepare(Object object, Plugin plugin, File configFile) {
+        YamlConfiguration configDocument = ConfigLayers.load(plugin, configFile);
+        SectionWrapper config = new SectionWrapper(configDocument);
+        boolean mainThreadOnly = FastYamlLoader.hasSerializedObjects(configDocument);
+
+        List<Binding> bindings = ConfigBindingPlan.forClass(object.getClass()).bindings();
+        List<Binding> ready = new ArrayList<>(bindings.size());
+        List<Binding> deferred = new ArrayList<>(bindings.size());
+        for (Binding binding : bindings) {
+            boolean now = !mainThreadOnly && binding.threadSafe();
+            ready.add(now ? binding : null);
+            deferred.add(now ? null : binding);
+        }
 
-        return config;
+        Map<String, Exception> errors = new LinkedHashMap<>();
+        Object[] values = readValues(ready, config, errors);
+        Map<String, Object> snapshot = mainThreadOnly ? null : snapshot(configDocument);
+
+        return new PreparedLoad(object, plugin, configFile, configDocument, bindings, deferred, values, snapshot, errors);
+    }
+
+    /**
+     * Read the fields left by {@link #prepare(Object, Plugin, File)}, assign the values of a
+     * prepared load to its object and register its configuration with this manager. Must run on
+     * the main thread.
+     *
+     * @param load The prepared load
+     */
+    void apply(PreparedLoad load) {
+        Class<?> clazz = load.object().getClass();
+        configPlugins.put(clazz, load.plugin());
+        configFiles.put(clazz, load.configFile());
+        configCache.put(clazz, load.config());
+
+        Object[] values = load.values();
+        Object[] deferredValues = readValues(load.deferred(), new SectionWrapper(load.config()), load.errors());
+        for (int i = 0; i < values.length; i++) {
+            if (load.deferred().get(i) != null) {
+                values[i] = deferredValues[i];
+            }
+        }
+
+        assign(load.object(), load.bindings(), values, null);
+        report(load.plugin(), clazz, load.errors());
+
+        snapshots.put(load.object(), load.snapshot() != null ? load.snapshot() : snapshot(load.config()));
+        saveConfigFile(load.config(), clazz);
+    }
+
+    /**
+     * The values of a configuration object, read by {@link #prepare(Object, Plugin, File)}.
+     *
+     * @param object The object the values are for
+     * @param plugin The plugin the configuration belongs to
+     * @param configFile The configuration file
+     * @param config The loaded configuration
+     * @param bindings The bindings of the object's class
+     * @param deferred The bindings to read on the main thread, with null for those already read
+     * @param values The value of each binding, or {@code UNSET} to keep the field as is
+     * @param snapshot The flattened leaf values of the configuration, or null to take it on the main thread
+     * @param errors The fields that could not be read, by field name
+     */
+    record PreparedLoad(
+            Object object,
+            Plugin plugin,
+            File configFile,
+            YamlConfiguration config,
+            List<Binding> bindings,
+            List<Binding> deferred,
+            Object[] values,
+            Map<String, Object> snapshot,
+            Map<String, Exception> errors
+    ) {
     }
 
     /**
@@ -108,12 +245,22 @@ public class ConfigurationManager {
             return loadConfig(clazz, pluginForClass);
         }
 
-        var config = YamlConfiguration.loadConfiguration(configFile);
+        var config = ConfigLayers.load(pluginForClass, configFile);
         configCache.put(clazz, config);
 
         return config;
     }
 
+    /**
+     * Get the file a configuration class was loaded from.
+     *
+     * @param clazz The configuration class
+     * @return The configuration file, or null if the class has not been loaded
+     */
+    public File getConfigFile(Class<?> clazz) {
+        return configFiles.get(clazz);
+    }
+
     /**
      * Populate an object with values from its configuration file using a specific plugin's data folder.
      *
@@ -129,8 +276,13 @@ public class ConfigurationManager {
         }
 
         YamlConfiguration configFile = loadConfig(clazz, plugin);
+        SectionWrapper config = new SectionWrapper(configFile);
 
-        populateFieldsWithAnnotation(object, plugin, clazz, new SectionWrapper(configFile));
+        List<Binding> bindings = ConfigBindingPlan.forClass(clazz).bindings();
+        Map<String, Exception> errors = new LinkedHashMap<>();
+        assign(object, bindings, readValues(bindings, config, errors), null);
+        report(plugin, clazz, errors);
+        snapshots.put(object, snapshot(configFile));
 
         saveConfigFile(configFile, clazz);
     }
@@ -149,12 +301,28 @@ public class ConfigurationManager {
     /**
      * Reload an object's configuration from disk and repopulate its fields using a specific plugin's data folder.
      * This is useful for updating an object's fields when the configuration file has changed.
+     * <p>
+     * The new file is compared key by key against the values the object was last populated from.
+     * Only fields bound to changed keys are repopulated, and a {@link ConfigChangedEvent} listing
+     * the changed keys is called. If nothing changed, the object is left untouched.
+     * </p>
+     * <p>
+     * Every field is checked before any is assigned. If a value is missing, has the wrong type or
+     * is out of bounds, the reload is rejected and the object keeps its current values. Fields that
+     * cannot be bound at all, such as {@code static final} fields, are reported and skipped.
+     * </p>
      *
      * @param object The object to reload
      * @param plugin The plugin to reload the configuration from
      * @throws IllegalArgumentException If the object's class is not annotated with @ConfigurationFile
+     * @throws ConfigValidationException If the file has invalid values
      */
     public void reloadObject(Object object, Plugin plugin) {
+        if (object instanceof ConfigSnapshot<?> snapshot) {
+            snapshot.reload();
+            return;
+        }
+
         Class<?> clazz = object.getClass();
         ConfigurationFile annotation = clazz.getAnnotation(ConfigurationFile.class);
         if (annotation == null) {
@@ -165,196 +333,236 @@ public class ConfigurationManager {
             configPlugins.put(clazz, plugin);
         }
 
+        YamlConfiguration previousConfig = configCache.get(clazz);
         YamlConfiguration configFile = reloadConfig(clazz);
         var config = new SectionWrapper(configFile);
 
-        populateFieldsWithAnnotation(object, plugin, clazz, config);
+        Map<String, Object> previous = snapshots.get(object);
+        Map<String, Object> current = snapshot(configFile);
 
+        Set<String> changedKeys = previous != null ? diff(previous, current) : null;
+        if (changedKeys != null && changedKeys.isEmpty()) {
+            return;
+        }
+
+        List<Binding> bindings = ConfigBindingPlan.forClass(clazz).bindings();
+        Map<String, Exception> errors = new LinkedHashMap<>();
+        Object[] values = readValues(bindings, config, errors);
+        if (!errors.isEmpty()) {
+            if (hasInvalidValues(bindings, errors)) {
+                // Keep the last valid document, so the next reload is compared against it again
+                reject(clazz, previousConfig, errors);
+            }
+            report(plugin, clazz, errors);
+        }
+
+        snapshots.put(object, current);
+        assign(object, bindings, values, changedKeys);
         saveConfigFile(configFile, clazz);
 
-        plugin.getLogger().info("Reloaded configuration for " + clazz.getSimpleName());
+        if (changedKeys == null) {
+            plugin.getLogger().info("Reloaded configuration for " + clazz.getSimpleName());
+            return;
+        }
+
+        plugin.getLogger().info("Reloaded " + changedKeys.size() + " changed keys in configuration for " + clazz.getSimpleName());
+        Bukkit.getPluginManager().callEvent(new ConfigChangedEvent(plugin, object, changedKeys));
     }
 
-    private void populateFieldsWithAnnotation(Object object, Plugin plugin, Class<?> clazz, SectionWrapper config) {
-        for (Field field : clazz.getDeclaredFields()) {
-            ConfigValue valueAnnotation = field.getAnnotation(ConfigValue.class);
-            if (valueAnnotation == null) {
+    /**
+     * Build an immutable instance of a record configuration class from its file.
+     * Components without a value, or whose value could not be read, get {@code null},
+     * zero or {@code false}. When reading from disk, invalid values reject the file instead.
+     *
+     * @param type The record class, annotated with @ConfigurationFile
+     * @param plugin The plugin to load the configuration from
+     * @param fromDisk Whether to read the file again instead of using the cached document
+     * @param <T> The record type
+     * @return The new record
+     * @throws IllegalArgumentException If the class is not annotated with @ConfigurationFile
+     * @throws ConfigValidationException If {@code fromDisk} is set and the file has invalid values
+     */
+    public <T extends Record> T loadRecord(Class<T> type, Plugin plugin, boolean fromDisk) {
+        if (type.getAnnotation(ConfigurationFile.class) == null) {
+            throw new IllegalArgumentException("Class " + type.getName() + " is not annotated with @ConfigurationFile");
+        }
+
+        configPlugins.putIfAbsent(type, plugin);
+        YamlConfiguration previousConfig = configCache.get(type);
+        YamlConfiguration configFile = fromDisk ? reloadConfig(type) : loadConfig(type, plugin);
+        SectionWrapper config = new SectionWrapper(configFile);
+
+        ConfigBindingPlan plan = ConfigBindingPlan.forClass(type);
+        RecordComponent[] recordComponents = type.getRecordComponents();
+        Map<String, Exception> errors = new LinkedHashMap<>();
+        List<Binding> components = Arrays.asList(plan.components());
+        Object[] values = readValues(components, config, errors);
+        if (!errors.isEmpty()) {
+            if (fromDisk && hasInvalidValues(components, errors)) {
+                reject(type, previousConfig, errors);
+            }
+            report(plugin, type, errors);
+        }
+
+        for (int i = 0; i < values.length; i++) {
+            Class<?> componentType = recordComponents[i].getType();
+            if (values[i] == UNSET || (values[i] == null && componentType.isPrimitive())) {
+                values[i] = zeroValue(componentType);
+            }
+        }
+
+        return type.cast(plan.newRecord(values));
+    }
+
+    private static Object zeroValue(Class<?> type) {
+        return type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+    }
+
+    /**
+     * Flatten a configuration into its leaf values, keyed by full path.
+     *
+     * @param configFile The configuration to flatten
+     * @return The leaf values
+     */
+    private Map<String, Object> snapshot(YamlConfiguration configFile) {
+        Map<String, Object> values = new HashMap<>();
+        for (Map.Entry<String, Object> entry : configFile.getValues(true).entrySet()) {
+            if (!(entry.getValue() instanceof ConfigurationSection)) {
+                values.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Get the keys that were added, changed or removed between two snapshots.
+     *
+     * @param previous The previous snapshot
+     * @param current The current snapshot
+     * @return The changed keys
+     */
+    private Set<String> diff(Map<String, Object> previous, Map<String, Object> current) {
+        Set<String> changedKeys = new HashSet<>();
+        for (Map.Entry<String, Object> entry : current.entrySet()) {
+            if (!Objects.equals(entry.getValue(), previous.get(entry.getKey()))) {
+                changedKeys.add(entry.getKey());
+            }
+        }
+        for (String key : previous.keySet()) {
+            if (!current.containsKey(key)) {
+                changedKeys.add(key);
+            }
+        }
+        return changedKeys;
+    }
+
+    /**
+     * Read the values of several fields in one pass, collecting the errors of all of them.
+     *
+     * @param bindings The bindings of the fields, where null entries are skipped
+     * @param config The configuration to get the values from
+     * @param errors Receives the error of each field that could not be read, by field name
+     * @return The value of each binding, or {@link #UNSET} for fields that keep their current value
+     */
+    private Object[] readValues(List<? extends Binding> bindings, SectionWrapper config, Map<String, Exception> errors) {
+        Object[] values = new Object[bindings.size()];
+        for (int i = 0; i < values.length; i++) {
+            Binding binding = bindings.get(i);
+            values[i] = UNSET;
+            if (binding == null) {
                 continue;
             }
 
             try {
-                populateField(object, field, valueAnnotation, config);
+                values[i] = binding.read(config);
             } catch (Exception e) {
-                plugin.getLogger().log(Level.SEVERE, "Error populating field " + field.getName() + " in class " + clazz.getName(), e);
+                errors.put(binding.name(), e);
             }
         }
+        return values;
     }
 
     /**
-     * Populate a field with a value from the configuration.
+     * Assign values read by {@link #readValues(List, SectionWrapper, Map)} to an object.
      *
      * @param object The object to populate
-     * @param field The field to populate
-     * @param annotation The ConfigValue annotation
-     * @param config The configuration to get the value from
-     * @throws IllegalAccessException If the field cannot be accessed
+     * @param bindings The bindings the values were read for
+     * @param values The values
+     * @param changedKeys The changed keys, to only assign the fields bound to them, or null to assign all
      */
-    @SuppressWarnings("unchecked")
-    private void populateField(Object object, Field field, ConfigValue annotation, SectionWrapper config) throws IllegalAccessException {
-        String key = annotation.key();
-        boolean required = annotation.required();
-        String defaultValue = annotation.defaultValue();
-
-        field.setAccessible(true);
-
-        if (!config.contains(key)) {
-            if (required) {
-                throw new IllegalArgumentException("Required configuration key " + key + " not found");
-            } else if (!defaultValue.isEmpty()) {
-                // Use the default value
-                setFieldValue(object, field, defaultValue, config);
+    private void assign(Object object, List<Binding> bindings, Object[] values, Set<String> changedKeys) {
+        for (int i = 0; i < values.length; i++) {
+            Binding binding = bindings.get(i);
+            if (values[i] == UNSET || (changedKeys != null && !ConfigChangedEvent.isAffected(binding.key(), changedKeys))) {
+                continue;
+            }
+            binding.set(object, values[i]);
+        }
+    }
+
+    /**
+     * Whether any of the errors comes from the file rather than from a field that cannot be bound.
+     * Fields that cannot be bound fail on every load, so they are reported but never reject a file.
+     */
+    private static boolean hasInvalidValues(List<? extends Binding> bindings, Map<String, Exception> errors) {
+        for (Binding binding : bindings) {
+            if (binding != null && !(binding instanceof FailedBinding) && errors.containsKey(binding.name())) {
+                return true;
             }
-            return;
         }
+        return false;
+    }
+
+    private void report(Plugin plugin, Class<?> clazz, Map<String, Exception> errors) {
+        if (!errors.isEmpty()) {
+            plugin.getLogger().severe(new ConfigValidationException(clazz, configFiles.get(clazz), errors).getMessage());
+        }
+    }
 
-        Class<?> fieldType = field.getType();
-
-        @SuppressWarnings("unchecked")
-        Optional<ConfigSerializer<?>> serializer = (Optional<ConfigSerializer<?>>) SerializerRegistry.getSerializer((Class) fieldType);
-        if (serializer.isPresent()) {
-            Object value = ((ConfigSerializer<Object>) serializer.get()).deserialize(config, key).orElse(null);
-            field.set(object, value);
-        } else if (List.class.isAssignableFrom(fieldType)) {
-            Type genericType = field.getGenericType();
-            if (genericType instanceof ParameterizedType paramType) {
-                Type[] typeArgs = paramType.getActualTypeArguments();
-                if (typeArgs.length > 0 && typeArgs[0] instanceof Class<?> itemType) {
-                    @SuppressWarnings("unchecked")
-                    Optional<ConfigSerializer<?>> itemSerializer = (Optional<ConfigSerializer<?>>) SerializerRegistry.getSerializer((Class) itemType);
-                    if (itemSerializer.isPresent()) {
-                        List<?> list = config.getList(key).orElse(new ArrayList<>());
-                        field.set(object, list);
-                    } else {
-                        Object value = config.getList(key).orElse(new ArrayList<>());
-                        field.set(object, value);
-                    }
-                }
+    private void reject(Class<?> clazz, YamlConfiguration previousConfig, Map<String, Exception> errors) {
+        if (previousConfig != null) {
+            configCache.put(clazz, previousConfig);
+        }
+        throw new ConfigValidationException(clazz, configFiles.get(clazz), errors);
+    }
+
+    private void saveConfigFile(YamlConfiguration configFile, Class<?> clazz) {
+        File file = configFiles.get(clazz);
+        synchronized (ConfigWriteScheduler.lockFor(configFile)) {
+            if (!FastYamlLoader.isModified(configFile)) {
+                return;
             }
-        } else {
-            Object value = config.get(key).orElse(null);
-            field.set(object, value);
+
+            if (!FastYamlLoader.keepsComments(configFile)) {
+                // Write the changes through a Bukkit copy of the file so its comments are kept
+                configFile = withComments(configFile, file, configPlugins.getOrDefault(clazz, plugin));
+                configCache.put(clazz, configFile);
+            }
+            ConfigWriteScheduler.markDirty(file, configFile);
         }
     }
 
     /**
-     * Set a field value from a string.
-     *
-     * @param object The object to set the field on
-     * @param field The field to set
-     * @param value The string value to parse
-     * @param config The configuration to use for complex types
-     * @throws IllegalAccessException If the field cannot be accessed
+     * Apply the changes made to a configuration to a Bukkit copy of its base file. Changes are
+     * found by comparing against a fresh load of all its layers, so values that come from a
+     * profile overlay or an environment variable are not written into the base file.
      */
-    @SuppressWarnings("unchecked")
-    private void setFieldValue(Object object, Field field, String value, SectionWrapper config) throws IllegalAccessException {
-        Class<?> fieldType = field.getType();
-
-        field.setAccessible(true);
-
-        if (fieldType == String.class) {
-            field.set(object, value);
-        } else if (fieldType == int.class || fieldType == Integer.class) {
-            field.set(object, Integer.parseInt(value));
-        } else if (fieldType == boolean.class || fieldType == Boolean.class) {
-            field.set(object, Boolean.parseBoolean(value));
-        } else if (fieldType == double.class || fieldType == Double.class) {
-            field.set(object, Double.parseDouble(value));
-        } else if (fieldType == float.class || fieldType == Float.class) {
-            field.set(object, Float.parseFloat(value));
-        } else if (fieldType == long.class || fieldType == Long.class) {
-            field.set(object, Long.parseLong(value));
-        } else {
-            Optional<ConfigSerializer<?>> serializer = (Optional<ConfigSerializer<?>>) SerializerRegistry.getSerializer((Class) fieldType);
-            if (serializer.isPresent()) {
-                SectionWrapper tempSection = config.createSection("__temp");
-                tempSection.set("value", value);
-
-                Object deserializedValue = ((ConfigSerializer<Object>) serializer.get()).deserialize(tempSection, "value");
-                field.set(object, deserializedValue);
-
-                config.set("__temp", null);
-            } else if (List.class.isAssignableFrom(fieldType)) {
-                Type genericType = field.getGenericType();
-                if (genericType instanceof ParameterizedType paramType) {
-                    Type[] typeArgs = paramType.getActualTypeArguments();
-                    if (typeArgs.length > 0 && typeArgs[0] instanceof Class<?> itemType) {
-
-                        String[] items = value.split(",");
-                        List<Object> list = new ArrayList<>();
-
-                        for (String item : items) {
-                            String trimmedItem = item.trim();
-
-                            if (itemType == String.class) {
-                                list.add(trimmedItem);
-                            } else if (itemType == Integer.class) {
-                                list.add(Integer.parseInt(trimmedItem));
-                            } else if (itemType == Boolean.class) {
-                                list.add(Boolean.parseBoolean(trimmedItem));
-                            } else if (itemType == Double.class) {
-                                list.add(Double.parseDouble(trimmedItem));
-                            } else if (itemType == Float.class) {
-                                list.add(Float.parseFloat(trimmedItem));
-                            } else if (itemType == Long.class) {
-                                list.add(Long.parseLong(trimmedItem));
-                            } else {
-                                Optional<ConfigSerializer<?>> itemSerializer = (Optional<ConfigSerializer<?>>) SerializerRegistry.getSerializer((Class) itemType);
-                                if (itemSerializer.isPresent()) {
-                                    SectionWrapper tempSection = config.createSection("__temp");
-                                    tempSection.set("value", trimmedItem);
-
-                                    Object deserializedItem = ((ConfigSerializer<Object>) itemSerializer.get()).deserialize(tempSection, "value");
-                                    list.add(deserializedItem);
-
-                                    config.set("__temp", null);
-                                } else {
-                                    throw new IllegalArgumentException("Cannot convert string to list item of type " + itemType.getName());
-                                }
-                            }
-                        }
-
-                        field.set(object, list);
-                    } else {
-                        throw new IllegalArgumentException("Cannot determine generic type for list field " + field.getName());
-                    }
-                } else {
-                    throw new IllegalArgumentException("List field " + field.getName() + " does not have generic type parameters");
-                }
-            } else {
-                try {
-                    SectionWrapper tempSection = config.createSection("__temp");
-                    tempSection.set("value", value);
-
-                    Optional<Object> configValue = tempSection.get("value");
-                    if (configValue.isPresent() && fieldType.isInstance(configValue.get())) {
-                        field.set(object, configValue);
-                    } else {
-                        throw new IllegalArgumentException("Cannot set field of type " + fieldType.getName() + " from string value");
-                    }
-
-                    config.set("__temp", null);
-                } catch (Exception e) {
-                    throw new IllegalArgumentException("Cannot set field of type " + fieldType.getName() + " from string value", e);
-                }
+    private YamlConfiguration withComments(YamlConfiguration config, File file, Plugin plugin) {
+        YamlConfiguration source = YamlConfiguration.loadConfiguration(file);
+        YamlConfiguration loaded = ConfigLayers.load(plugin, file);
+
+        for (String key : loaded.getKeys(true)) {
+            if (!config.contains(key)) {
+                source.set(key, null);
             }
         }
-    }
 
-    private void saveConfigFile(YamlConfiguration configFile, Class<?> clazz) {
-        try {
-            configFile.save(configFiles.get(clazz));
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+        for (Map.Entry<String, Object> entry : config.getValues(true).entrySet()) {
+            if (!(entry.getValue() instanceof ConfigurationSection)
+                    && !Objects.equals(entry.getValue(), loaded.get(entry.getKey()))) {
+                source.set(entry.getKey(), entry.getValue());
+            }
         }
+        return source;
     }
 }
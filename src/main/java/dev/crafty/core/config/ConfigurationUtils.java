@@ -15,16 +15,29 @@ import dev.crafty.core.plugin.CraftyPlugin;
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.Plugin;
 
+import java.io.BufferedReader;
 import java.io.File;
-import java.lang.reflect.Constructor;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.lang.reflect.Modifier;
-import java.net.URL;
-import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.logging.Level;
@@ -42,6 +55,24 @@ public class ConfigurationUtils {
     private static final Map<Plugin, ConfigurationManager> configManagers = new HashMap<>();
 
     private static final Map<Plugin, List<Object>> configRegistry = new HashMap<>();
+    // Configuration classes found in each plugin, discovered once
+    private static final Map<Plugin, List<Class<?>>> configClasses = new HashMap<>();
+
+    // Bounded pool reading configuration files and values off the main thread during startup
+    private static final int LOADER_THREAD_COUNT = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+    private static final AtomicInteger LOADER_THREADS = new AtomicInteger();
+    // Created on first use and shut down with CraftyCore, see shutdown()
+    private static ExecutorService loader;
+
+    /**
+     * The resource listing a plugin's configuration classes, one fully qualified class name per line.
+     * Lines starting with {@code #} are ignored.
+     */
+    public static final String CONFIG_INDEX = "META-INF/crafty/configurations.idx";
+
+    // How the @ConfigurationFile annotation appears in a class file's constant pool
+    private static final byte[] CONFIGURATION_FILE_DESCRIPTOR =
+            ("L" + ConfigurationFile.class.getName().replace('.', '/') + ";").getBytes(StandardCharsets.UTF_8);
 
     /**
      * Initialize the configuration system.
@@ -65,6 +96,28 @@ public class ConfigurationUtils {
         callback.run();
     }
 
+    /**
+     * Stop the threads that read configuration files in parallel. This should be called when
+     * CraftyCore is disabled; later loads start new threads.
+     */
+    public static synchronized void shutdown() {
+        if (loader != null) {
+            loader.shutdown();
+            loader = null;
+        }
+    }
+
+    private static synchronized ExecutorService loader() {
+        if (loader == null) {
+            loader = Executors.newFixedThreadPool(LOADER_THREAD_COUNT, runnable -> {
+                Thread thread = new Thread(runnable, "CraftyCore-ConfigLoader-" + LOADER_THREADS.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return loader;
+    }
+
     /**
      * Get or create a configuration manager for a plugin.
      *
@@ -123,6 +176,39 @@ public class ConfigurationUtils {
         }
     }
 
+    /**
+     * Load a record configuration class into a {@link ConfigSnapshot} and register it, so it is
+     * reloaded with the plugin's other configurations. If a snapshot of the class is already
+     * registered for the plugin, it is returned instead.
+     *
+     * @param type The record class, annotated with @ConfigurationFile
+     * @param plugin The plugin to load the configuration from
+     * @param <T> The record type
+     * @return The snapshot of the configuration
+     * @throws IllegalArgumentException If the class is not annotated with @ConfigurationFile
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Record> ConfigSnapshot<T> loadSnapshot(Class<T> type, Plugin plugin) {
+        if (configManager == null) {
+            throw new IllegalStateException("Configuration system not initialized");
+        }
+
+        for (Object config : configRegistry.getOrDefault(plugin, List.of())) {
+            if (config instanceof ConfigSnapshot<?> snapshot && snapshot.getType() == type) {
+                return (ConfigSnapshot<T>) snapshot;
+            }
+        }
+
+        ConfigSnapshot<T> snapshot = new ConfigSnapshot<>(type, plugin, getConfigManager(plugin));
+        configRegistry.computeIfAbsent(plugin, k -> new ArrayList<>()).add(snapshot);
+
+        CraftyCore craftyCore = (CraftyCore) Bukkit.getPluginManager().getPlugin("CraftyCore");
+        if (craftyCore != null) {
+            craftyCore.registerConfig(plugin, snapshot);
+        }
+        return snapshot;
+    }
+
     /**
      * Register a configuration object with the registry.
      * This allows the object to be automatically reloaded when the plugin's configuration is reloaded.
@@ -188,7 +274,7 @@ public class ConfigurationUtils {
     /**
      * Reload all registered configuration objects for a specific plugin.
      * This method will find all configuration objects registered for the plugin
-     * and reload their values from the configuration files.
+     * and reload their values from the configuration files, then refresh its {@link ConfigKeys}.
      *
      * @param plugin The plugin to reload configurations for
      * @return The number of configuration objects reloaded
@@ -211,6 +297,43 @@ public class ConfigurationUtils {
                 }
             }
         }
+        ConfigKeys.refreshAll(plugin);
+
+        return count;
+    }
+
+    /**
+     * Reload the registered configuration objects of a plugin that are bound to a specific file,
+     * and refresh the {@link ConfigKeys} bound to it.
+     *
+     * @param plugin The plugin to reload configurations for
+     * @param file The configuration file that changed
+     * @return The number of configuration objects and key groups reloaded
+     */
+    public static int reloadConfigs(Plugin plugin, File file) {
+        if (configManager == null) {
+            throw new IllegalStateException("Configuration system not initialized");
+        }
+
+        int count = ConfigKeys.refresh(plugin, file);
+        List<Object> configs = configRegistry.get(plugin);
+        if (configs != null) {
+            ConfigurationManager manager = getConfigManager(plugin);
+            for (Object config : configs) {
+                File configFile = manager.getConfigFile(configClassOf(config));
+                // A change to a profile overlay reloads the objects bound to its base file
+                if (configFile == null || !ConfigLayers.isLayerOf(configFile, file)) {
+                    continue;
+                }
+
+                try {
+                    manager.reloadObject(config, plugin);
+                    count++;
+                } catch (Exception e) {
+                    ConfigurationUtils.plugin.getLogger().log(Level.SEVERE, "Error reloading configuration for " + config.getClass().getName(), e);
+                }
+            }
+        }
 
         return count;
     }
@@ -279,84 +402,267 @@ public class ConfigurationUtils {
     }
 
     /**
-     * Scan a plugin for classes with the @ConfigurationFile annotation and automatically
-     * register and load them. This method uses reflection to find and instantiate
-     * configuration classes.
+     * Find the classes with the @ConfigurationFile annotation in a plugin and register and load
+     * an instance of each one that has not been loaded yet. Classes that already have a registered
+     * instance are skipped; use {@link #reloadAllConfigs(Plugin)} to repopulate those.
+     * <p>
+     * The classes are discovered once per plugin and cached. They are read from the
+     * {@value #CONFIG_INDEX} index if the plugin jar contains one, otherwise the jar is scanned
+     * for classes carrying the annotation.
+     * </p>
+     * <p>
+     * Configuration files are parsed and plain field values read in parallel on a small loader
+     * pool. Fields using a serializer that is not {@link ConfigSerializer#isThreadSafe() thread-safe},
+     * and files holding {@code ==} serialized objects, are read on the calling thread, where the
+     * fields are also assigned. A timing summary is logged for each plugin.
+     * </p>
      *
      * @param plugin The plugin to scan for configuration classes
-     * @return The number of configuration classes found and registered
+     * @return The number of configuration classes newly registered
      */
     public static int scanAndLoadConfigs(Plugin plugin) {
         if (configManager == null) {
             throw new IllegalStateException("Configuration system not initialized");
         }
 
+        long started = System.nanoTime();
+        List<Class<?>> classes = configClasses.computeIfAbsent(plugin, ConfigurationUtils::discoverConfigClasses);
+        ConfigurationManager manager = getConfigManager(plugin);
+        long discovered = System.nanoTime();
+
+        // Files and plain values are read on the loader pool; the rest is read and assigned back here on the main thread
+        Map<Class<?>, CompletableFuture<ConfigurationManager.PreparedLoad>> prepared = new LinkedHashMap<>();
+        List<CompletableFuture<?>> reads = new ArrayList<>();
+        for (Class<?> clazz : classes) {
+            if (isRegistered(plugin, clazz)) {
+                continue;
+            }
+
+            try {
+                File configFile = manager.createConfigFile(clazz, plugin);
+                if (clazz.isRecord() || hasPluginConstructor(clazz)) {
+                    // Loaded as a whole below; read the file now so that finds it parsed
+                    reads.add(CompletableFuture.runAsync(() -> FastYamlLoader.preload(configFile), loader()));
+                    prepared.put(clazz, null);
+                    continue;
+                }
+
+                Object instance = clazz.getConstructor().newInstance();
+                CompletableFuture<ConfigurationManager.PreparedLoad> load =
+                        CompletableFuture.supplyAsync(() -> manager.prepare(instance, plugin, configFile), loader());
+                reads.add(load);
+                prepared.put(clazz, load);
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.WARNING, "Could not instantiate configuration class: " + clazz.getName(), e);
+            }
+        }
+
+        CompletableFuture.allOf(reads.toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+        long read = System.nanoTime();
+
         int count = 0;
+        for (Map.Entry<Class<?>, CompletableFuture<ConfigurationManager.PreparedLoad>> entry : prepared.entrySet()) {
+            Class<?> clazz = entry.getKey();
+            try {
+                if (entry.getValue() != null) {
+                    ConfigurationManager.PreparedLoad load = entry.getValue().join();
+                    registerConfigObject(load.object(), plugin);
+                    manager.apply(load);
+                } else if (clazz.isRecord()) {
+                    loadSnapshot(clazz.asSubclass(Record.class), plugin);
+                } else {
+                    // The instance should already be registered by the constructor
+                    clazz.getConstructor(Plugin.class).newInstance(plugin);
+                }
+                count++;
+                plugin.getLogger().info("Loaded configuration " + (clazz.isRecord() ? "record" : "class") + ": " + clazz.getName());
+            } catch (Exception e) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                plugin.getLogger().log(Level.WARNING, "Could not load configuration class: " + clazz.getName(), cause);
+            }
+        }
+        long applied = System.nanoTime();
+
+        if (count > 0) {
+            plugin.getLogger().info(String.format("Loaded %d configuration classes in %.1f ms (discovery %.1f ms, reading %.1f ms on %d threads, applying %.1f ms)",
+                    count, millis(applied - started), millis(discovered - started), millis(read - discovered),
+                    LOADER_THREAD_COUNT, millis(applied - read)));
+        }
+        return count;
+    }
+
+    /**
+     * Start reading every YAML file in a plugin's data folder on the loader pool, so the loads
+     * during {@code onEnable} find them already parsed. Meant to be called from {@code onLoad},
+     * which Bukkit runs for all plugins before enabling any, so the files of all plugins are
+     * parsed in parallel. Errors are ignored here and reported by the actual load.
+     *
+     * @param plugin The plugin whose files to read
+     * @return A future completing when all files were read
+     */
+    public static CompletableFuture<Void> preload(Plugin plugin) {
+        Path dataFolder = plugin.getDataFolder().toPath();
+        if (!Files.isDirectory(dataFolder)) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        List<CompletableFuture<?>> reads = new ArrayList<>();
+        try {
+            Files.walkFileTree(dataFolder, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+                    return !dir.equals(dataFolder) && ConfigWatcher.isHidden(dir)
+                            ? FileVisitResult.SKIP_SUBTREE
+                            : FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    String name = file.getFileName().toString();
+                    if (name.endsWith(".yml") || name.endsWith(".yaml")) {
+                        reads.add(CompletableFuture.runAsync(() -> FastYamlLoader.preload(file.toFile()), loader()));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.FINE, "Could not preload configuration files", e);
+        }
+        return CompletableFuture.allOf(reads.toArray(CompletableFuture[]::new));
+    }
+
+    private static boolean hasPluginConstructor(Class<?> clazz) {
+        try {
+            clazz.getConstructor(Plugin.class);
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Forget the discovered configuration classes and registered objects of a plugin,
+     * for example when it is disabled.
+     *
+     * @param plugin The plugin to forget
+     */
+    public static void unregisterPlugin(Plugin plugin) {
+        configClasses.remove(plugin);
+        configRegistry.remove(plugin);
+        configManagers.remove(plugin);
+        if (configManager != null) {
+            // CraftyCore's manager also populates objects of other plugins
+            configManager.unregister(plugin);
+        }
+        ConfigKeys.unregister(plugin);
+    }
+
+    private static boolean isRegistered(Plugin plugin, Class<?> clazz) {
+        List<Object> configs = configRegistry.get(plugin);
+        if (configs == null) {
+            return false;
+        }
+
+        for (Object config : configs) {
+            if (configClassOf(config) == clazz) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Class<?> configClassOf(Object config) {
+        return config instanceof ConfigSnapshot<?> snapshot ? snapshot.getType() : config.getClass();
+    }
+
+    private static List<Class<?>> discoverConfigClasses(Plugin plugin) {
+        ClassLoader classLoader = plugin.getClass().getClassLoader();
+        List<String> classNames = readConfigIndex(plugin);
+        if (classNames == null) {
+            classNames = scanJarForConfigClasses(plugin);
+        }
+
+        List<Class<?>> classes = new ArrayList<>();
+        for (String className : classNames) {
+            try {
+                Class<?> clazz = Class.forName(className, false, classLoader);
+                if (clazz.isAnnotationPresent(ConfigurationFile.class) && !Modifier.isAbstract(clazz.getModifiers())) {
+                    classes.add(clazz);
+                }
+            } catch (ClassNotFoundException | LinkageError e) {
+                // Ignore classes that can't be loaded
+            }
+        }
+
+        return List.copyOf(classes);
+    }
+
+    /**
+     * Read the configuration class index from the plugin jar.
+     *
+     * @param plugin The plugin to read the index of
+     * @return The class names in the index, or null if the plugin has no index
+     */
+    private static List<String> readConfigIndex(Plugin plugin) {
+        try (InputStream stream = plugin.getResource(CONFIG_INDEX)) {
+            if (stream == null) {
+                return null;
+            }
+
+            List<String> classNames = new ArrayList<>();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.isEmpty() && !line.startsWith("#")) {
+                        classNames.add(line);
+                    }
+                }
+            }
+            return classNames;
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not read configuration index, scanning the jar instead", e);
+            return null;
+        }
+    }
+
+    /**
+     * Scan the plugin jar for classes that carry the @ConfigurationFile annotation. Class files are
+     * checked for the annotation's descriptor before loading, so unrelated classes are never loaded.
+     *
+     * @param plugin The plugin to scan
+     * @return The names of the candidate classes
+     */
+    private static List<String> scanJarForConfigClasses(Plugin plugin) {
+        List<String> classNames = new ArrayList<>();
         try {
             // Get the plugin's JAR file
             File pluginFile = new File(plugin.getClass().getProtectionDomain().getCodeSource().getLocation().toURI());
             if (!pluginFile.exists() || !pluginFile.getName().endsWith(".jar")) {
                 plugin.getLogger().warning("Could not find JAR file for plugin: " + plugin.getName());
-                return 0;
+                return classNames;
             }
 
-            // Open the JAR file
             try (JarFile jarFile = new JarFile(pluginFile)) {
-                // Get all class entries in the JAR
                 Enumeration<JarEntry> entries = jarFile.entries();
-
-                // Create a class loader for loading classes from the JAR
-                URLClassLoader classLoader = new URLClassLoader(
-                    new URL[] { pluginFile.toURI().toURL() },
-                    ConfigurationUtils.class.getClassLoader()
-                );
-
-                // Iterate through all entries
                 while (entries.hasMoreElements()) {
                     JarEntry entry = entries.nextElement();
                     String entryName = entry.getName();
+                    if (!entryName.endsWith(".class")) {
+                        continue;
+                    }
 
-                    // Check if the entry is a class file
-                    if (entryName.endsWith(".class")) {
-                        // Convert the entry name to a class name
-                        String className = entryName.substring(0, entryName.length() - 6).replace('/', '.');
-
-                        try {
-                            // Load the class
-                            Class<?> clazz = classLoader.loadClass(className);
-
-                            // Check if the class has the ConfigurationFile annotation
-                            if (clazz.isAnnotationPresent(ConfigurationFile.class)) {
-                                // Check if the class is not abstract and has a public no-arg constructor
-                                if (!Modifier.isAbstract(clazz.getModifiers())) {
-                                    try {
-                                        // Try to get a constructor that takes a Plugin parameter
-                                        Constructor<?> constructor = null;
-                                        try {
-                                            constructor = clazz.getConstructor(Plugin.class);
-                                            // Create an instance using the Plugin constructor
-                                            Object instance = constructor.newInstance(plugin);
-                                            // The instance should already be registered by the constructor
-                                            count++;
-                                            plugin.getLogger().info("Loaded configuration class: " + className);
-                                        } catch (NoSuchMethodException e) {
-                                            // Try to get a no-arg constructor
-                                            constructor = clazz.getConstructor();
-                                            // Create an instance using the no-arg constructor
-                                            Object instance = constructor.newInstance();
-                                            // Register and load the instance
-                                            registerAndLoad(instance, plugin);
-                                            count++;
-                                            plugin.getLogger().info("Loaded configuration class: " + className);
-                                        }
-                                    } catch (Exception e) {
-                                        plugin.getLogger().log(Level.WARNING, "Could not instantiate configuration class: " + className, e);
-                                    }
-                                }
-                            }
-                        } catch (ClassNotFoundException | NoClassDefFoundError e) {
-                            // Ignore classes that can't be loaded
-                        }
+                    byte[] bytes;
+                    try (InputStream stream = jarFile.getInputStream(entry)) {
+                        bytes = stream.readAllBytes();
+                    }
+
+                    if (contains(bytes, CONFIGURATION_FILE_DESCRIPTOR)) {
+                        classNames.add(entryName.substring(0, entryName.length() - 6).replace('/', '.'));
                     }
                 }
             }
@@ -364,6 +670,19 @@ public class ConfigurationUtils {
             plugin.getLogger().log(Level.SEVERE, "Error scanning for configuration classes", e);
         }
 
-        return count;
+        return classNames;
+    }
+
+    private static boolean contains(byte[] bytes, byte[] pattern) {
+        outer:
+        for (int i = 0; i <= bytes.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (bytes[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
     }
 }
@@ -0,0 +1,652 @@
+package dev.crafty.core.config;
+
+import dev.crafty.core.CraftyCore;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.MemorySection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.configuration.serialization.ConfigurationSerialization;
+import org.snakeyaml.engine.v2.api.ConstructNode;
+import org.snakeyaml.engine.v2.api.LoadSettings;
+import org.snakeyaml.engine.v2.api.lowlevel.Compose;
+import org.snakeyaml.engine.v2.constructor.StandardConstructor;
+import org.snakeyaml.engine.v2.exceptions.YamlEngineException;
+import org.snakeyaml.engine.v2.nodes.MappingNode;
+import org.snakeyaml.engine.v2.nodes.Node;
+import org.snakeyaml.engine.v2.nodes.NodeTuple;
+import org.snakeyaml.engine.v2.nodes.ScalarNode;
+import org.snakeyaml.engine.v2.nodes.SequenceNode;
+import org.snakeyaml.engine.v2.nodes.Tag;
+import org.snakeyaml.engine.v2.resolver.CoreScalarResolver;
+import org.snakeyaml.engine.v2.resolver.ScalarResolver;
+import org.snakeyaml.engine.v2.schema.CoreSchema;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.constructor.Construct;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Loads YAML files with SnakeYAML Engine into lazily built configuration sections.
+ * <p>
+ * {@link YamlConfiguration#loadConfiguration(File)} turns the whole document into
+ * {@code MemorySection}s up front. This loader only parses the document into a node tree and
+ * builds a section's values the first time that section is read, so looking up a few keys in a
+ * large menu or item file never touches the rest of it. Node trees are cached per file and reused
+ * until the file's modification time or size changes, so opening the same menu again skips
+ * parsing entirely. Across restarts, the {@link CompiledConfigCache} keeps them on disk.
+ * </p>
+ * <p>
+ * The returned configuration is a regular {@link YamlConfiguration}, so it can be wrapped in a
+ * {@link SectionWrapper} or {@link YamlConfigurationWrapper} and saved as usual. Values match
+ * those of the Bukkit loader, including YAML 1.1 booleans such as {@code yes} and {@code off},
+ * octal numbers such as {@code 017}, timestamps, merge keys and {@code ==} serialized objects. Comments are not kept; callers that save a
+ * configuration back should check {@link #isModified(YamlConfiguration)} and merge changes into
+ * a configuration loaded by Bukkit, as the {@link ConfigurationManager} does.
+ * </p>
+ *
+ * @since 1.0.0
+ */
+public final class FastYamlLoader {
+    private static final String MERGE_KEY = "<<";
+
+    private static final LoadSettings SETTINGS = LoadSettings.builder()
+            .setLabel("CraftyCore")
+            .setSchema(new Yaml11Schema())
+            .setAllowDuplicateKeys(true)
+            .build();
+
+    private static final Map<Path, ParsedFile> PARSED = new ConcurrentHashMap<>();
+
+    private record ParsedFile(long lastModified, long length, Node root) {
+    }
+
+    private FastYamlLoader() {
+    }
+
+    /**
+     * Load a configuration file. Like {@link YamlConfiguration#loadConfiguration(File)}, errors
+     * are logged and an empty configuration is returned.
+     *
+     * @param file The file to load
+     * @return The loaded configuration
+     */
+    public static YamlConfiguration load(File file) {
+        LazyYamlConfiguration config = new LazyYamlConfiguration();
+        try {
+            config.setRoot(parse(file));
+        } catch (IOException | YamlEngineException | InvalidConfigurationException e) {
+            CraftyCore.INSTANCE.logger.error("Cannot load " + file, e);
+        }
+        return config;
+    }
+
+    /**
+     * Load a configuration file and wrap it.
+     *
+     * @param file The file to load
+     * @return The wrapped configuration
+     */
+    public static YamlConfigurationWrapper loadWrapped(File file) {
+        return new YamlConfigurationWrapper(load(file));
+    }
+
+    /**
+     * Load a configuration from a string.
+     *
+     * @param contents The YAML document
+     * @return The loaded configuration
+     * @throws InvalidConfigurationException If the document is not valid YAML or its top level is not a map
+     */
+    public static YamlConfiguration loadFromString(String contents) throws InvalidConfigurationException {
+        LazyYamlConfiguration config = new LazyYamlConfiguration();
+        config.loadFromString(contents);
+        return config;
+    }
+
+    /**
+     * Parse a file into the cache without building a configuration. Errors are ignored;
+     * they are reported when the file is actually loaded.
+     *
+     * @param file The file to parse
+     */
+    static void preload(File file) {
+        try {
+            parse(file);
+        } catch (IOException | RuntimeException e) {
+            // Reported by load
+        }
+    }
+
+    /**
+     * Check whether a configuration was changed since it was loaded by this loader.
+     * Configurations loaded any other way always count as changed.
+     *
+     * @param config The configuration
+     * @return False if the configuration was loaded by this loader and not changed since
+     */
+    public static boolean isModified(YamlConfiguration config) {
+        return !(config instanceof LazyYamlConfiguration lazy) || lazy.modified;
+    }
+
+    /**
+     * Check whether a configuration holds {@code ==} serialized objects, which Bukkit only builds
+     * safely on the main thread. Configurations loaded any other way always count as holding them.
+     *
+     * @param config The configuration
+     * @return False if the configuration was loaded by this loader and its file has no serialized objects
+     */
+    static boolean hasSerializedObjects(YamlConfiguration config) {
+        if (!(config instanceof LazyYamlConfiguration lazy)) {
+            return true;
+        }
+        return lazy.root != null && containsSerializedObject(lazy.root, Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    private static boolean containsSerializedObject(Node node, Set<Node> visited) {
+        // Aliases can make the tree a graph
+        if (!visited.add(node)) {
+            return false;
+        }
+        if (node instanceof MappingNode mapping) {
+            if (Document.isSerializedObject(mapping)) {
+                return true;
+            }
+            for (NodeTuple tuple : mapping.getValue()) {
+                if (containsSerializedObject(tuple.getValueNode(), visited)) {
+                    return true;
+                }
+            }
+        } else if (node instanceof SequenceNode sequence) {
+            for (Node item : sequence.getValue()) {
+                if (containsSerializedObject(item, visited)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether saving a configuration keeps the comments of its file.
+     *
+     * @param config The configuration
+     * @return False if the configuration was loaded by this loader
+     */
+    static boolean keepsComments(YamlConfiguration config) {
+        return !(config instanceof LazyYamlConfiguration);
+    }
+
+    /**
+     * Build a configuration from a node tree, such as one merged by {@link ConfigLayers}.
+     * Errors are logged and an empty configuration is returned.
+     *
+     * @param root The root node, or null for an empty document
+     * @param file The file the tree was read from, for error messages
+     * @return The configuration
+     */
+    static YamlConfiguration load(Node root, File file) {
+        LazyYamlConfiguration config = new LazyYamlConfiguration();
+        try {
+            config.setRoot(root);
+        } catch (InvalidConfigurationException e) {
+            CraftyCore.INSTANCE.logger.error("Cannot load " + file, e);
+        }
+        return config;
+    }
+
+    /**
+     * Resolve the tag of a plain scalar, the way it would be resolved in a file.
+     *
+     * @param value The scalar
+     * @return The tag, such as {@link Tag#INT} for {@code "20"}
+     */
+    static Tag resolveTag(String value) {
+        return SETTINGS.getSchema().getScalarResolver().resolve(value, true);
+    }
+
+    /**
+     * Forget all cached node trees.
+     */
+    public static void clearCache() {
+        PARSED.clear();
+    }
+
+    /**
+     * Parse a file, reusing the cached node tree if the file has not changed.
+     *
+     * @param file The file to parse
+     * @return The root node, or null for an empty document
+     * @throws IOException If the file cannot be read
+     */
+    static Node parse(File file) throws IOException {
+        Path path = file.toPath().toAbsolutePath();
+        long lastModified = file.lastModified();
+        long length = file.length();
+
+        ParsedFile cached = PARSED.get(path);
+        if (cached != null && cached.lastModified() == lastModified && cached.length() == length) {
+            return cached.root();
+        }
+
+        Node root = CompiledConfigCache.load(path, lastModified, length, FastYamlLoader::compose);
+        PARSED.put(path, new ParsedFile(lastModified, length, root));
+        return root;
+    }
+
+    private static Node compose(byte[] contents) {
+        return new Compose(SETTINGS)
+                .composeReader(new InputStreamReader(new ByteArrayInputStream(contents), StandardCharsets.UTF_8))
+                .orElse(null);
+    }
+
+    private static Node compose(String contents) throws InvalidConfigurationException {
+        try {
+            return new Compose(SETTINGS).composeString(contents).orElse(null);
+        } catch (YamlEngineException e) {
+            throw new InvalidConfigurationException(e);
+        }
+    }
+
+    /**
+     * The root of a lazily loaded document.
+     */
+    private static final class LazyYamlConfiguration extends YamlConfiguration {
+        private final Document document = new Document();
+        private LazyContent content;
+        private MappingNode root;
+        private boolean modified;
+
+        private void setRoot(Node root) throws InvalidConfigurationException {
+            this.root = null;
+            content = null;
+            if (root == null) {
+                return;
+            }
+            if (!(root instanceof MappingNode mapping)) {
+                throw new InvalidConfigurationException("Top level is not a Map.");
+            }
+            this.root = mapping;
+            content = new LazyContent(document, mapping);
+        }
+
+        @Override
+        public void loadFromString(String contents) throws InvalidConfigurationException {
+            Node root = compose(contents);
+            for (String key : getKeys(false)) {
+                super.set(key, null);
+            }
+            setRoot(root);
+        }
+
+        private void materialize() {
+            if (content != null) {
+                content.materialize(this, super::set);
+            }
+        }
+
+        // Building a section with a dotted key goes through set and createSection, which is not a change
+        private void markModified() {
+            if (!Thread.holdsLock(document)) {
+                modified = true;
+            }
+        }
+
+        @Override
+        public Object get(String path, Object def) {
+            materialize();
+            return super.get(path, def);
+        }
+
+        @Override
+        public void set(String path, Object value) {
+            materialize();
+            markModified();
+            super.set(path, value);
+        }
+
+        @Override
+        public ConfigurationSection createSection(String path) {
+            // Built first, so the file's value at the same key cannot replace the new section later
+            materialize();
+            markModified();
+            return super.createSection(path);
+        }
+
+        @Override
+        public Set<String> getKeys(boolean deep) {
+            if (deep) {
+                materializeDeep(this);
+            } else {
+                materialize();
+            }
+            return super.getKeys(deep);
+        }
+
+        @Override
+        public Map<String, Object> getValues(boolean deep) {
+            if (deep) {
+                materializeDeep(this);
+            } else {
+                materialize();
+            }
+            return super.getValues(deep);
+        }
+    }
+
+    /**
+     * A section whose values are built from its mapping node on first access.
+     */
+    private static final class LazyYamlSection extends MemorySection {
+        private final LazyContent content;
+
+        private LazyYamlSection(ConfigurationSection parent, String path, LazyContent content) {
+            super(parent, path);
+            this.content = content;
+        }
+
+        private void materialize() {
+            if (content != null) {
+                content.materialize(this, super::set);
+            }
+        }
+
+        @Override
+        public Object get(String path, Object def) {
+            materialize();
+            return super.get(path, def);
+        }
+
+        private void markModified() {
+            if (getRoot() instanceof LazyYamlConfiguration root) {
+                root.markModified();
+            }
+        }
+
+        @Override
+        public void set(String path, Object value) {
+            materialize();
+            markModified();
+            super.set(path, value);
+        }
+
+        @Override
+        public ConfigurationSection createSection(String path) {
+            materialize();
+            markModified();
+            return super.createSection(path);
+        }
+
+        @Override
+        public Set<String> getKeys(boolean deep) {
+            if (deep) {
+                materializeDeep(this);
+            } else {
+                materialize();
+            }
+            return super.getKeys(deep);
+        }
+
+        @Override
+        public Map<String, Object> getValues(boolean deep) {
+            if (deep) {
+                materializeDeep(this);
+            } else {
+                materialize();
+            }
+            return super.getValues(deep);
+        }
+    }
+
+    // Deep key and value listings read child sections directly, so every level is built first
+    private static void materializeDeep(ConfigurationSection section) {
+        for (Object value : section.getValues(false).values()) {
+            if (value instanceof LazyYamlSection child) {
+                materializeDeep(child);
+            }
+        }
+    }
+
+    /**
+     * The pending mapping node of one section.
+     */
+    private static final class LazyContent {
+        private final Document document;
+        private volatile MappingNode node;
+        private boolean materializing;
+
+        private LazyContent(Document document, MappingNode node) {
+            this.document = document;
+            this.node = node;
+        }
+
+        private void materialize(ConfigurationSection section, BiConsumer<String, Object> put) {
+            if (node == null) {
+                return;
+            }
+
+            synchronized (document) {
+                // Setting a key that contains the path separator reads the section again while it is being built
+                if (node == null || materializing) {
+                    return;
+                }
+
+                materializing = true;
+                try {
+                    for (NodeTuple tuple : document.flatten(node)) {
+                        String key = String.valueOf(document.construct(tuple.getKeyNode()));
+                        put.accept(key, document.value(section, key, tuple.getValueNode()));
+                    }
+                } finally {
+                    node = null;
+                    materializing = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Per-document state. Construction is not thread-safe, so it happens while holding this object's lock.
+     */
+    private static final class Document {
+        private final NodeConstructor constructor = new NodeConstructor();
+
+        private Object construct(Node node) {
+            return constructor.constructNode(node);
+        }
+
+        private Object value(ConfigurationSection parent, String key, Node node) {
+            if (node instanceof MappingNode mapping) {
+                if (isSerializedObject(mapping)) {
+                    return convert(construct(mapping));
+                }
+                return new LazyYamlSection(parent, key, new LazyContent(this, mapping));
+            }
+            return convert(construct(node));
+        }
+
+        /**
+         * The tuples of a mapping with merge keys expanded. Later tuples win, so explicit keys
+         * override merged ones and earlier merge sources override later ones.
+         */
+        private List<NodeTuple> flatten(MappingNode mapping) {
+            List<NodeTuple> merged = null;
+            List<NodeTuple> own = mapping.getValue();
+
+            for (NodeTuple tuple : mapping.getValue()) {
+                if (!isMergeKey(tuple.getKeyNode())) {
+                    continue;
+                }
+
+                if (merged == null) {
+                    merged = new ArrayList<>();
+                    own = new ArrayList<>();
+                    for (NodeTuple ownTuple : mapping.getValue()) {
+                        if (!isMergeKey(ownTuple.getKeyNode())) {
+                            own.add(ownTuple);
+                        }
+                    }
+                }
+
+                Node source = tuple.getValueNode();
+                if (source instanceof MappingNode sourceMapping) {
+                    merged.addAll(flatten(sourceMapping));
+                } else if (source instanceof SequenceNode sequence) {
+                    List<Node> sources = sequence.getValue();
+                    for (int i = sources.size() - 1; i >= 0; i--) {
+                        if (sources.get(i) instanceof MappingNode sourceMapping) {
+                            merged.addAll(flatten(sourceMapping));
+                        }
+                    }
+                }
+            }
+
+            if (merged == null) {
+                return own;
+            }
+            merged.addAll(own);
+            return merged;
+        }
+
+        private static boolean isMergeKey(Node node) {
+            return node instanceof ScalarNode scalar && scalar.isPlain() && MERGE_KEY.equals(scalar.getValue());
+        }
+
+        private static boolean isSerializedObject(MappingNode mapping) {
+            for (NodeTuple tuple : mapping.getValue()) {
+                if (tuple.getKeyNode() instanceof ScalarNode scalar
+                        && ConfigurationSerialization.SERIALIZED_TYPE_KEY.equals(scalar.getValue())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Apply merge keys and deserialize {@code ==} objects inside constructed lists and maps.
+         */
+        private static Object convert(Object value) {
+            if (value instanceof List<?> list) {
+                List<Object> converted = new ArrayList<>(list.size());
+                for (Object item : list) {
+                    converted.add(convert(item));
+                }
+                return converted;
+            }
+
+            if (value instanceof Map<?, ?> map) {
+                Map<String, Object> converted = new LinkedHashMap<>();
+                Object mergeSource = map.get(MERGE_KEY);
+                if (mergeSource instanceof Map<?, ?> || mergeSource instanceof List<?>) {
+                    List<?> sources = mergeSource instanceof List<?> list ? list : List.of(mergeSource);
+                    for (int i = sources.size() - 1; i >= 0; i--) {
+                        if (convert(sources.get(i)) instanceof Map<?, ?> source) {
+                            source.forEach((key, item) -> converted.put(String.valueOf(key), item));
+                        }
+                    }
+                }
+
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    if (mergeSource != null && MERGE_KEY.equals(entry.getKey())) {
+                        continue;
+                    }
+                    converted.put(String.valueOf(entry.getKey()), convert(entry.getValue()));
+                }
+
+                if (converted.containsKey(ConfigurationSerialization.SERIALIZED_TYPE_KEY)) {
+                    return ConfigurationSerialization.deserializeObject(converted);
+                }
+                return converted;
+            }
+
+            return value;
+        }
+    }
+
+    private static final class NodeConstructor extends StandardConstructor {
+        private NodeConstructor() {
+            super(SETTINGS);
+        }
+
+        private Object constructNode(Node node) {
+            return construct(node);
+        }
+    }
+
+    /**
+     * The YAML 1.1 schema of Bukkit's loader. Scalars are resolved with the patterns of SnakeYAML's
+     * {@link Resolver} and integers, floats and timestamps are built by its {@link SafeConstructor},
+     * so octal and sexagesimal numbers, underscores and the YAML 1.1 booleans read the same as in
+     * {@link YamlConfiguration}.
+     */
+    private static final class Yaml11Schema extends CoreSchema {
+        private static final Tag TIMESTAMP = new Tag(Tag.PREFIX + "timestamp");
+        private static final Map<String, Boolean> BOOL_VALUES = Map.of(
+                "yes", true, "no", false,
+                "on", true, "off", false,
+                "true", true, "false", false
+        );
+        // Only used for scalars, which it builds without touching its own state
+        private static final SafeConstructor YAML11 = new SafeConstructor(new LoaderOptions());
+
+        private final ScalarResolver resolver = new CoreScalarResolver() {
+            @Override
+            protected void addImplicitResolvers() {
+                // Replaces the core resolvers, in the order of SnakeYAML's Resolver
+                addImplicitResolver(Tag.BOOL, Resolver.BOOL, "yYnNtTfFoO");
+                addImplicitResolver(Tag.INT, Resolver.INT, "-+0123456789");
+                addImplicitResolver(Tag.FLOAT, Resolver.FLOAT, "-+0123456789.");
+                addImplicitResolver(Tag.NULL, Resolver.NULL, "~nN\0");
+                addImplicitResolver(Tag.NULL, Resolver.EMPTY, null);
+                addImplicitResolver(TIMESTAMP, Resolver.TIMESTAMP, "0123456789");
+            }
+        };
+
+        private final Map<Tag, ConstructNode> constructors;
+
+        private Yaml11Schema() {
+            constructors = new LinkedHashMap<>(super.getSchemaTagConstructors());
+            constructors.put(Tag.BOOL, node ->
+                    BOOL_VALUES.get(((ScalarNode) node).getValue().toLowerCase(Locale.ROOT)));
+            constructors.put(Tag.INT, node ->
+                    construct(YAML11.new ConstructYamlInt(), org.yaml.snakeyaml.nodes.Tag.INT, node));
+            constructors.put(Tag.FLOAT, node ->
+                    construct(YAML11.new ConstructYamlFloat(), org.yaml.snakeyaml.nodes.Tag.FLOAT, node));
+            // Keeps a calendar while constructing, so a new one is used each time
+            constructors.put(TIMESTAMP, node ->
+                    construct(new SafeConstructor.ConstructYamlTimestamp(), org.yaml.snakeyaml.nodes.Tag.TIMESTAMP, node));
+        }
+
+        private static Object construct(Construct construct, org.yaml.snakeyaml.nodes.Tag tag, Node node) {
+            String value = ((ScalarNode) node).getValue();
+            return construct.construct(new org.yaml.snakeyaml.nodes.ScalarNode(tag, value, null, null, DumperOptions.ScalarStyle.PLAIN));
+        }
+
+        @Override
+        public ScalarResolver getScalarResolver() {
+            return resolver;
+        }
+
+        @Override
+        public Map<Tag, ConstructNode> getSchemaTagConstructors() {
+            return constructors;
+        }
+    }
+}
@@ -6,6 +6,9 @@ import org.bukkit.configuration.ConfigurationSection;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
 import java.util.Set;
 
 /**
@@ -14,6 +17,9 @@ import java.util.Set;
  */
 @Getter
 public class SectionWrapper {
+    private static final Optional<Boolean> TRUE = Optional.of(true);
+    private static final Optional<Boolean> FALSE = Optional.of(false);
+
     private final ConfigurationSection delegate;
 
     public SectionWrapper(ConfigurationSection delegate) {
@@ -28,24 +34,130 @@ public class SectionWrapper {
         return Optional.ofNullable(delegate.getString(path));
     }
 
+    /**
+     * Get a boolean, or an empty Optional if the path is not set to a boolean.
+     */
     public Optional<Boolean> getBoolean(String path) {
-        return Optional.of(delegate.getBoolean(path));
+        return delegate.get(path) instanceof Boolean value ? (value ? TRUE : FALSE) : Optional.empty();
     }
 
+    /**
+     * Get an integer, or an empty Optional if the path is not set to a number.
+     * Prefer {@link #getInt(String, int)} or {@link #findInt(String)} in frequently run code.
+     */
     public Optional<Integer> getInt(String path) {
-        return Optional.of(delegate.getInt(path));
+        return delegate.get(path) instanceof Number value ? Optional.of(value.intValue()) : Optional.empty();
     }
 
+    /**
+     * Get a double, or an empty Optional if the path is not set to a number.
+     * Prefer {@link #getDouble(String, double)} or {@link #findDouble(String)} in frequently run code.
+     */
     public Optional<Double> getDouble(String path) {
-        return Optional.of(delegate.getDouble(path));
+        return delegate.get(path) instanceof Number value ? Optional.of(value.doubleValue()) : Optional.empty();
     }
 
+    /**
+     * Get a float, or an empty Optional if the path is not set to a number.
+     * Prefer {@link #getFloat(String, float)} in frequently run code.
+     */
     public Optional<Float> getFloat(String path) {
-        return Optional.of(((float) delegate.getDouble(path)));
+        return delegate.get(path) instanceof Number value ? Optional.of(value.floatValue()) : Optional.empty();
     }
 
+    /**
+     * Get a long, or an empty Optional if the path is not set to a number.
+     * Prefer {@link #getLong(String, long)} or {@link #findLong(String)} in frequently run code.
+     */
     public Optional<Long> getLong(String path) {
-        return Optional.of(delegate.getLong(path));
+        return delegate.get(path) instanceof Number value ? Optional.of(value.longValue()) : Optional.empty();
+    }
+
+    public boolean getBoolean(String path, boolean def) {
+        return delegate.getBoolean(path, def);
+    }
+
+    public int getInt(String path, int def) {
+        return delegate.getInt(path, def);
+    }
+
+    public long getLong(String path, long def) {
+        return delegate.getLong(path, def);
+    }
+
+    public double getDouble(String path, double def) {
+        return delegate.getDouble(path, def);
+    }
+
+    public float getFloat(String path, float def) {
+        return (float) delegate.getDouble(path, def);
+    }
+
+    public OptionalInt findInt(String path) {
+        return delegate.get(path) instanceof Number value ? OptionalInt.of(value.intValue()) : OptionalInt.empty();
+    }
+
+    public OptionalLong findLong(String path) {
+        return delegate.get(path) instanceof Number value ? OptionalLong.of(value.longValue()) : OptionalLong.empty();
+    }
+
+    public OptionalDouble findDouble(String path) {
+        return delegate.get(path) instanceof Number value ? OptionalDouble.of(value.doubleValue()) : OptionalDouble.empty();
+    }
+
+    public Optional<String> getString(ConfigPath path) {
+        return Optional.ofNullable(getString(path, null));
+    }
+
+    public String getString(ConfigPath path, String def) {
+        Object value = path.get(delegate);
+        return value != null ? value.toString() : def;
+    }
+
+    public boolean getBoolean(ConfigPath path, boolean def) {
+        return path.get(delegate) instanceof Boolean value ? value : def;
+    }
+
+    public int getInt(ConfigPath path, int def) {
+        return path.get(delegate) instanceof Number value ? value.intValue() : def;
+    }
+
+    public long getLong(ConfigPath path, long def) {
+        return path.get(delegate) instanceof Number value ? value.longValue() : def;
+    }
+
+    public double getDouble(ConfigPath path, double def) {
+        return path.get(delegate) instanceof Number value ? value.doubleValue() : def;
+    }
+
+    public float getFloat(ConfigPath path, float def) {
+        return path.get(delegate) instanceof Number value ? value.floatValue() : def;
+    }
+
+    public OptionalInt findInt(ConfigPath path) {
+        return path.get(delegate) instanceof Number value ? OptionalInt.of(value.intValue()) : OptionalInt.empty();
+    }
+
+    public OptionalLong findLong(ConfigPath path) {
+        return path.get(delegate) instanceof Number value ? OptionalLong.of(value.longValue()) : OptionalLong.empty();
+    }
+
+    public OptionalDouble findDouble(ConfigPath path) {
+        return path.get(delegate) instanceof Number value ? OptionalDouble.of(value.doubleValue()) : OptionalDouble.empty();
+    }
+
+    public Optional<Object> get(ConfigPath path) {
+        return Optional.ofNullable(path.get(delegate));
+    }
+
+    public boolean contains(ConfigPath path) {
+        return path.get(delegate) != null;
+    }
+
+    public Optional<SectionWrapper> getSection(ConfigPath path) {
+        return path.get(delegate) instanceof ConfigurationSection section
+                ? Optional.of(new SectionWrapper(section))
+                : Optional.empty();
     }
 
     public Optional<List<String>> getStringList(String path) {
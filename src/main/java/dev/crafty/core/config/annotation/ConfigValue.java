@@ -9,6 +9,11 @@ import java.lang.annotation.Target;
  * Annotation to mark a field as a configuration value.
  * This annotation specifies which configuration key should be used
  * to populate the annotated field.
+ * <p>
+ * The value is checked against the field type and against {@link #min()} and {@link #max()}
+ * when the file is loaded. All problems in a file are reported together, and a reload that
+ * finds any is rejected, leaving the object as it was.
+ * </p>
  * 
  * @since 1.0.0
  */
@@ -39,4 +44,20 @@ public @interface ConfigValue {
      * @return The default value as a string
      */
     String defaultValue() default "";
+
+    /**
+     * The lowest accepted value. For numbers this bounds the value, for strings their length,
+     * and for lists and maps their size.
+     *
+     * @return The lower bound, inclusive
+     */
+    double min() default Double.NEGATIVE_INFINITY;
+
+    /**
+     * The highest accepted value. For numbers this bounds the value, for strings their length,
+     * and for lists and maps their size.
+     *
+     * @return The upper bound, inclusive
+     */
+    double max() default Double.POSITIVE_INFINITY;
 }
\ No newline at end of file
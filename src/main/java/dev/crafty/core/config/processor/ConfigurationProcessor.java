@@ -0,0 +1,720 @@
+package dev.crafty.core.config.processor;
+
+import dev.crafty.core.config.ConfigLoader;
+import dev.crafty.core.config.ConfigurationUtils;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Generates a {@code ConfigLoader} for every class annotated with {@code @ConfigurationFile},
+ * and writes the {@code META-INF/crafty/configurations.idx} index of those classes, so plugins
+ * built against CraftyCore load their configuration without jar scanning or reflection.
+ * <p>
+ * A loader reads each {@code @ConfigValue} key straight from the {@code SectionWrapper}, converts and
+ * checks it with {@code ConfigValues} and assigns the field directly, so loading and reloading the
+ * class needs no reflection. It is only generated when the class and the field types are accessible
+ * from its package and every field is non-private, non-final and non-static. Other classes are still
+ * indexed and fall back to reflection; a note explains why. Default values of simple types are parsed
+ * at compile time, so mistakes are reported as errors, as are bounds the runtime would reject.
+ * Records are only indexed, since {@code ConfigSnapshot} builds them through their constructor.
+ * </p>
+ * <p>
+ * The processor is registered as a service in the CraftyCore jar. Add CraftyCore to the
+ * {@code annotationProcessorPaths} of the {@code maven-compiler-plugin} to run it.
+ * </p>
+ *
+ * @since 1.0.0
+ */
+@SupportedAnnotationTypes("dev.crafty.core.config.annotation.ConfigurationFile")
+public class ConfigurationProcessor extends AbstractProcessor {
+    private static final String CONFIGURATION_FILE = "dev.crafty.core.config.annotation.ConfigurationFile";
+    private static final String CONFIG_VALUE = "dev.crafty.core.config.annotation.ConfigValue";
+    // Compile-time constants, inlined so the processor never loads the runtime classes
+    private static final String INDEX = ConfigurationUtils.CONFIG_INDEX;
+    private static final String LOADER_SUFFIX = ConfigLoader.SUFFIX;
+
+    private final Set<String> indexedClasses = new TreeSet<>();
+
+    private Filer filer;
+    private Messager messager;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.filer = processingEnv.getFiler();
+        this.messager = processingEnv.getMessager();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+            return false;
+        }
+
+        TypeElement annotation = processingEnv.getElementUtils().getTypeElement(CONFIGURATION_FILE);
+        if (annotation == null) {
+            return false;
+        }
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+            boolean record = element.getKind() == ElementKind.RECORD;
+            if ((element.getKind() != ElementKind.CLASS && !record) || element.getModifiers().contains(Modifier.ABSTRACT)) {
+                continue;
+            }
+
+            TypeElement type = (TypeElement) element;
+            indexedClasses.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+
+            // Records are immutable and built through their constructor by ConfigSnapshot
+            if (!record) {
+                generateLoader(type);
+            }
+        }
+
+        return false;
+    }
+
+    private void generateLoader(TypeElement type) {
+        PackageElement pkg = (PackageElement) packageOf(type);
+        if (!isAccessible(type, pkg)) {
+            messager.printMessage(Diagnostic.Kind.NOTE, "No loader generated for " + type.getQualifiedName()
+                    + ", it is not accessible from its package; it will be populated through reflection", type);
+            return;
+        }
+
+        List<FieldSpec> fields = new ArrayList<>();
+        boolean generate = true;
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            AnnotationMirror configValue = findAnnotation(field, CONFIG_VALUE);
+            if (configValue == null) {
+                continue;
+            }
+
+            // Checked for every field, so all mistakes are reported even if no loader is generated
+            boolean valid = checkDefault(field, configValue) & checkBounds(field, configValue);
+            String reason = unsupportedReason(field, pkg);
+            if (reason != null && generate) {
+                messager.printMessage(Diagnostic.Kind.NOTE, "No loader generated for " + type.getQualifiedName()
+                        + ", field " + field.getSimpleName() + " " + reason
+                        + "; it will be populated through reflection", field);
+            }
+            generate &= valid && reason == null;
+            fields.add(new FieldSpec(field, configValue));
+        }
+        if (!generate) {
+            return;
+        }
+
+        String packageName = pkg.getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String loaderName = binaryName.substring(binaryName.lastIndexOf('.') + 1) + LOADER_SUFFIX;
+        String typeName = type.getQualifiedName().toString();
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import dev.crafty.core.config.ConfigLoader;\n")
+                .append("import dev.crafty.core.config.ConfigValues;\n")
+                .append("import dev.crafty.core.config.SectionWrapper;\n")
+                .append("import dev.crafty.core.config.serializer.ConfigSerializer;\n")
+                .append("import dev.crafty.core.config.serializer.SerializerRegistry;\n\n")
+                .append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n")
+                .append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+                .append("public final class ").append(loaderName).append(" implements ConfigLoader<").append(typeName).append("> {\n");
+
+        StringBuilder names = new StringBuilder();
+        StringBuilder keys = new StringBuilder();
+        for (FieldSpec field : fields) {
+            names.append(names.isEmpty() ? "" : ", ").append(literal(field.name()));
+            keys.append(keys.isEmpty() ? "" : ", ").append(literal(field.key()));
+        }
+        source.append("    private static final String[] NAMES = {").append(names).append("};\n")
+                .append("    private static final String[] KEYS = {").append(keys).append("};\n");
+        for (int i = 0; i < fields.size(); i++) {
+            String constant = fields.get(i).defaultConstant();
+            if (constant != null) {
+                source.append("    private static final Object DEFAULT_").append(i).append(" = ").append(constant).append(";\n");
+            }
+        }
+
+        source.append("\n    @Override\n")
+                .append("    public int size() {\n")
+                .append("        return ").append(fields.size()).append(";\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public String name(int field) {\n")
+                .append("        return NAMES[field];\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public String key(int field) {\n")
+                .append("        return KEYS[field];\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public boolean threadSafe(int field) {\n")
+                .append("        return switch (field) {\n");
+        for (int i = 0; i < fields.size(); i++) {
+            FieldSpec field = fields.get(i);
+            if (field.serializer() != null) {
+                source.append("            case ").append(i).append(" -> ConfigValues.isThreadSafe(").append(field.serializer()).append(")");
+                if (field.itemSerializer() != null) {
+                    source.append("\n                    && ConfigValues.isThreadSafe(").append(field.itemSerializer()).append(")");
+                }
+                source.append(";\n");
+            }
+        }
+        source.append("            default -> true;\n")
+                .append("        };\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public Object read(int field, SectionWrapper config) {\n")
+                .append("        return switch (field) {\n");
+        for (int i = 0; i < fields.size(); i++) {
+            source.append("            case ").append(i).append(" -> read").append(i).append("(config);\n");
+        }
+        source.append("            default -> throw new IndexOutOfBoundsException(field);\n")
+                .append("        };\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public void set(").append(typeName).append(" target, int field, Object value) {\n")
+                .append("        switch (field) {\n");
+        for (int i = 0; i < fields.size(); i++) {
+            FieldSpec field = fields.get(i);
+            source.append("            case ").append(i).append(" -> target.").append(field.name())
+                    .append(" = (").append(field.typeName()).append(") value;\n");
+        }
+        source.append("            default -> throw new IndexOutOfBoundsException(field);\n")
+                .append("        }\n")
+                .append("    }\n");
+        for (int i = 0; i < fields.size(); i++) {
+            source.append("\n").append(readMethod(fields.get(i), i));
+        }
+        source.append("}\n");
+
+        try {
+            JavaFileObject file = filer.createSourceFile(packageName.isEmpty() ? loaderName : packageName + "." + loaderName, type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source.toString());
+            }
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Could not write config loader: " + e.getMessage(), type);
+        }
+    }
+
+    private String unsupportedReason(VariableElement field, PackageElement pkg) {
+        Set<Modifier> modifiers = field.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE)) {
+            return "is private";
+        }
+        if (modifiers.contains(Modifier.FINAL)) {
+            return "is final";
+        }
+        if (modifiers.contains(Modifier.STATIC)) {
+            return "is static";
+        }
+        if (!isAccessible(processingEnv.getTypeUtils().erasure(field.asType()), pkg)) {
+            return "has a type that is not accessible from the package";
+        }
+        return null;
+    }
+
+    /**
+     * Whether generated code in a package can name a type.
+     */
+    private boolean isAccessible(TypeMirror type, PackageElement pkg) {
+        return switch (type.getKind()) {
+            case ARRAY -> isAccessible(((ArrayType) type).getComponentType(), pkg);
+            case DECLARED -> isAccessible((TypeElement) ((DeclaredType) type).asElement(), pkg);
+            default -> type.getKind().isPrimitive();
+        };
+    }
+
+    private boolean isAccessible(TypeElement type, PackageElement pkg) {
+        boolean samePackage = packageOf(type).equals(pkg);
+        for (Element element = type; element.getKind() != ElementKind.PACKAGE; element = element.getEnclosingElement()) {
+            if (!element.getKind().isClass() && !element.getKind().isInterface()) {
+                // Local and anonymous classes cannot be named
+                return false;
+            }
+            Set<Modifier> modifiers = element.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE) || (!samePackage && !modifiers.contains(Modifier.PUBLIC))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Generate the method reading one field. It follows {@code FieldBinding.read} in the runtime:
+     * the value is read through the serializer registered for the field type when there is one,
+     * and otherwise taken as is, as a list or not at all, then converted and checked with
+     * {@code ConfigValues}.
+     */
+    private String readMethod(FieldSpec field, int index) {
+        String key = literal(field.key());
+        String classLiteral = field.typeName() + ".class";
+
+        StringBuilder code = new StringBuilder();
+        code.append("    private static Object read").append(index).append("(SectionWrapper config) {\n");
+        if (field.serializer() != null) {
+            code.append("        ConfigSerializer<Object> serializer = ").append(field.serializer()).append(";\n");
+        }
+
+        code.append("        if (!config.contains(").append(key).append(")) {\n");
+        if (field.required()) {
+            code.append("            throw ConfigValues.missing(").append(key).append(");\n");
+        } else if (field.defaultValue().isEmpty()) {
+            code.append("            return ConfigLoader.UNSET;\n");
+        } else if (field.defaultConstant() != null) {
+            code.append("            return ").append(field.check("DEFAULT_" + index)).append(";\n");
+        } else {
+            code.append("            Object value = ConfigValues.parseDefault(").append(literal(field.name())).append(", ")
+                    .append(literal(field.defaultValue())).append(", ").append(classLiteral).append(", ")
+                    .append(field.serializer() != null ? "serializer" : "null").append(", ")
+                    .append(field.itemType() != null ? field.itemType() + ".class" : "null").append(", ")
+                    .append(field.itemSerializer() != null ? field.itemSerializer() : "null").append(");\n");
+            String value = switch (field.fallback()) {
+                case RAW -> field.serializer() != null
+                        ? "serializer != null ? value : ConfigValues.convert(" + key + ", value, " + classLiteral + ")"
+                        : "ConfigValues.convert(" + key + ", value, " + classLiteral + ")";
+                case LIST, NONE -> "value";
+            };
+            code.append("            return ").append(field.check(value)).append(";\n");
+        }
+        code.append("        }\n");
+
+        if (field.serializer() != null) {
+            code.append("        if (serializer != null) {\n")
+                    .append("            return ").append(field.check("serializer.deserialize(config, " + key + ").orElse(null)")).append(";\n")
+                    .append("        }\n");
+        }
+        switch (field.fallback()) {
+            case RAW -> code.append("        return ")
+                    .append(field.check("ConfigValues.convert(" + key + ", config.get(" + key + ").orElse(null), " + classLiteral + ")"))
+                    .append(";\n");
+            case LIST -> code.append("        return ")
+                    .append(field.check("config.getList(" + key + ").orElse(new java.util.ArrayList<>())"))
+                    .append(";\n");
+            case NONE -> code.append("        return ConfigLoader.UNSET;\n");
+        }
+        return code.append("    }\n").toString();
+    }
+
+    /**
+     * How a field without a serializer is read, as in {@code FieldBinding.Source}.
+     */
+    private enum Fallback {
+        RAW,
+        LIST,
+        NONE
+    }
+
+    /**
+     * A {@code @ConfigValue} field and what the generated code needs to read it.
+     */
+    private final class FieldSpec {
+        private final VariableElement field;
+        private final String key;
+        private final boolean required;
+        private final String defaultValue;
+        private final double min;
+        private final double max;
+        private final String typeName;
+        private final String serializer;
+        private final Fallback fallback;
+        private final String itemType;
+        private final String itemSerializer;
+
+        private FieldSpec(VariableElement field, AnnotationMirror configValue) {
+            this.field = field;
+            this.key = (String) annotationValue(configValue, "key", "");
+            this.required = (Boolean) annotationValue(configValue, "required", true);
+            this.defaultValue = (String) annotationValue(configValue, "defaultValue", "");
+            this.min = (Double) annotationValue(configValue, "min", Double.NEGATIVE_INFINITY);
+            this.max = (Double) annotationValue(configValue, "max", Double.POSITIVE_INFINITY);
+
+            TypeMirror type = field.asType();
+            this.typeName = sourceName(type);
+
+            // Mirrors how the runtime resolves the serializer of a field from its generic type
+            String serializer = null;
+            Fallback fallback = Fallback.RAW;
+            String itemType = null;
+            if (type.getKind() == TypeKind.DECLARED) {
+                List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+                boolean list = isList(type);
+                if (list && !arguments.isEmpty() && isClass(arguments.get(0))) {
+                    itemType = sourceName(arguments.get(0));
+                }
+
+                if (list && arguments.size() == 1 && itemType != null) {
+                    serializer = "SerializerRegistry.getListSerializer(" + typeName + ".class, " + itemType + ".class).orElse(null)";
+                } else {
+                    serializer = serializerLookup(typeName);
+                }
+                fallback = !list ? Fallback.RAW : itemType != null ? Fallback.LIST : Fallback.NONE;
+            } else if (type.getKind() == TypeKind.ARRAY && isClass(type)) {
+                serializer = serializerLookup(typeName);
+            }
+            this.serializer = serializer;
+            this.fallback = fallback;
+            this.itemType = itemType;
+            this.itemSerializer = itemType != null ? serializerLookup(itemType) : null;
+        }
+
+        String name() {
+            return field.getSimpleName().toString();
+        }
+
+        String key() {
+            return key;
+        }
+
+        boolean required() {
+            return required;
+        }
+
+        String defaultValue() {
+            return defaultValue;
+        }
+
+        String typeName() {
+            return typeName;
+        }
+
+        String serializer() {
+            return serializer;
+        }
+
+        Fallback fallback() {
+            return fallback;
+        }
+
+        String itemType() {
+            return itemType;
+        }
+
+        String itemSerializer() {
+            return itemSerializer;
+        }
+
+        /**
+         * The default value as a constant, for the types whose defaults the runtime parses before
+         * looking at serializers, or null if it is parsed at runtime.
+         */
+        String defaultConstant() {
+            if (required || defaultValue.isEmpty()) {
+                return null;
+            }
+
+            try {
+                return switch (typeName) {
+                    case "java.lang.String" -> literal(defaultValue);
+                    case "int", "java.lang.Integer" -> Integer.toString(Integer.parseInt(defaultValue));
+                    case "long", "java.lang.Long" -> Long.parseLong(defaultValue) + "L";
+                    case "boolean", "java.lang.Boolean" -> Boolean.toString(Boolean.parseBoolean(defaultValue));
+                    case "double", "java.lang.Double" -> doubleLiteral(Double.parseDouble(defaultValue));
+                    case "float", "java.lang.Float" -> floatLiteral(Float.parseFloat(defaultValue));
+                    default -> null;
+                };
+            } catch (NumberFormatException e) {
+                // Reported by checkDefault
+                return null;
+            }
+        }
+
+        /**
+         * Wrap an expression in the checks {@code FieldBinding.check} applies to every value.
+         */
+        String check(String value) {
+            String key = literal(this.key);
+            if (field.asType().getKind().isPrimitive()) {
+                value = "ConfigValues.require(" + key + ", " + value + ")";
+            }
+            if (min != Double.NEGATIVE_INFINITY || max != Double.POSITIVE_INFINITY) {
+                value = "ConfigValues.checkBounds(" + key + ", " + value + ", " + doubleLiteral(min) + ", " + doubleLiteral(max) + ")";
+            }
+            return value;
+        }
+    }
+
+    private static String serializerLookup(String typeName) {
+        return "SerializerRegistry.getSerializer((java.lang.reflect.Type) " + typeName + ".class).orElse(null)";
+    }
+
+    /**
+     * The erased, fully qualified name of a type as it can be written in source, without any
+     * type annotations.
+     */
+    private String sourceName(TypeMirror type) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        return switch (erased.getKind()) {
+            case ARRAY -> sourceName(((ArrayType) erased).getComponentType()) + "[]";
+            case DECLARED -> ((TypeElement) ((DeclaredType) erased).asElement()).getQualifiedName().toString();
+            default -> erased.getKind().name().toLowerCase(Locale.ROOT);
+        };
+    }
+
+    /**
+     * Whether the runtime sees a type as a plain {@code Class} rather than a parameterized,
+     * wildcard or variable type.
+     */
+    private boolean isClass(TypeMirror type) {
+        return switch (type.getKind()) {
+            case DECLARED -> ((DeclaredType) type).getTypeArguments().isEmpty();
+            case ARRAY -> {
+                TypeMirror component = ((ArrayType) type).getComponentType();
+                yield component.getKind().isPrimitive() || isClass(component);
+            }
+            default -> false;
+        };
+    }
+
+    private boolean isList(TypeMirror type) {
+        // Only List itself, like the runtime; concrete list types are read raw
+        TypeElement element = processingEnv.getElementUtils().getTypeElement("java.util.List");
+        return element != null && processingEnv.getTypeUtils().isSameType(
+                processingEnv.getTypeUtils().erasure(type), processingEnv.getTypeUtils().erasure(element.asType()));
+    }
+
+    private boolean isSubtype(TypeMirror type, String supertype) {
+        TypeElement element = processingEnv.getElementUtils().getTypeElement(supertype);
+        return element != null && processingEnv.getTypeUtils().isAssignable(
+                processingEnv.getTypeUtils().erasure(type), processingEnv.getTypeUtils().erasure(element.asType()));
+    }
+
+    private static String doubleLiteral(double value) {
+        if (Double.isNaN(value)) {
+            return "Double.NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "Double.POSITIVE_INFINITY" : "Double.NEGATIVE_INFINITY";
+        }
+        return Double.toString(value);
+    }
+
+    private static String floatLiteral(float value) {
+        if (Float.isNaN(value)) {
+            return "Float.NaN";
+        }
+        if (Float.isInfinite(value)) {
+            return value > 0 ? "Float.POSITIVE_INFINITY" : "Float.NEGATIVE_INFINITY";
+        }
+        return value + "f";
+    }
+
+    /**
+     * Report bounds the runtime would reject: a min above the max, or bounds on a type that has
+     * no value, length or size.
+     *
+     * @return True if the bounds are valid
+     */
+    private boolean checkBounds(VariableElement field, AnnotationMirror configValue) {
+        double min = (Double) annotationValue(configValue, "min", Double.NEGATIVE_INFINITY);
+        double max = (Double) annotationValue(configValue, "max", Double.POSITIVE_INFINITY);
+        if (min > max) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "The min of " + field.getSimpleName() + " is greater than its max", field);
+            return false;
+        }
+        if (min == Double.NEGATIVE_INFINITY && max == Double.POSITIVE_INFINITY) {
+            return true;
+        }
+
+        TypeMirror type = field.asType();
+        boolean measurable = switch (type.getKind()) {
+            case BYTE, SHORT, INT, LONG, FLOAT, DOUBLE -> true;
+            default -> isSubtype(type, "java.lang.Number") || isSubtype(type, "java.lang.CharSequence")
+                    || isSubtype(type, "java.util.Collection") || isSubtype(type, "java.util.Map");
+        };
+        if (!measurable) {
+            messager.printMessage(Diagnostic.Kind.ERROR, field.getSimpleName()
+                    + " has a min or max, but is not a number, string, list or map", field);
+        }
+        return measurable;
+    }
+
+    /**
+     * Parse a default value of a simple type at compile time, reporting an error if it is invalid.
+     * Other types are parsed by their serializer at runtime.
+     *
+     * @return True if the default value is valid
+     */
+    private boolean checkDefault(VariableElement field, AnnotationMirror configValue) {
+        boolean required = (Boolean) annotationValue(configValue, "required", true);
+        String value = (String) annotationValue(configValue, "defaultValue", "");
+        if (required || value.isEmpty()) {
+            return true;
+        }
+
+        TypeMirror type = field.asType();
+        String simple = switch (type.getKind()) {
+            case INT -> "java.lang.Integer";
+            case BOOLEAN -> "java.lang.Boolean";
+            case DOUBLE -> "java.lang.Double";
+            case FLOAT -> "java.lang.Float";
+            case LONG -> "java.lang.Long";
+            case DECLARED -> sourceName(type);
+            default -> null;
+        };
+        if (simple == null) {
+            return true;
+        }
+
+        if (simple.equals("java.util.List")) {
+            String itemType = listItemType(type);
+            boolean valid = true;
+            for (String item : value.split(",")) {
+                valid &= checkSimpleDefault(field, itemType, item.trim());
+            }
+            return valid;
+        }
+        return checkSimpleDefault(field, simple, value);
+    }
+
+    private boolean checkSimpleDefault(VariableElement field, String type, String value) {
+        try {
+            switch (type) {
+                case "java.lang.Integer" -> Integer.parseInt(value);
+                case "java.lang.Long" -> Long.parseLong(value);
+                case "java.lang.Double" -> Double.parseDouble(value);
+                case "java.lang.Float" -> Float.parseFloat(value);
+                default -> {
+                }
+            }
+            return true;
+        } catch (NumberFormatException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Invalid default value \"" + value + "\" for " + type, field);
+            return false;
+        }
+    }
+
+    private String listItemType(TypeMirror type) {
+        if (type instanceof DeclaredType declared && declared.getTypeArguments().size() == 1) {
+            return sourceName(declared.getTypeArguments().get(0));
+        }
+        return "java.lang.Object";
+    }
+
+    private void writeIndex() {
+        if (indexedClasses.isEmpty()) {
+            return;
+        }
+
+        // Keep entries from classes not recompiled in an incremental build
+        Set<String> entries = new TreeSet<>(indexedClasses);
+        try {
+            FileObject existing = filer.getResource(StandardLocation.CLASS_OUTPUT, "", INDEX);
+            try (Reader reader = existing.openReader(true); BufferedReader lines = new BufferedReader(reader)) {
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.isEmpty() && !line.startsWith("#")
+                            && processingEnv.getElementUtils().getTypeElement(line.replace('$', '.')) != null) {
+                        entries.add(line);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // No index from a previous build
+        }
+
+        try {
+            FileObject file = filer.createResource(StandardLocation.CLASS_OUTPUT, "", INDEX);
+            try (Writer writer = file.openWriter()) {
+                writer.write("# Generated by " + getClass().getName() + "\n");
+                for (String entry : entries) {
+                    writer.write(entry);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Could not write configuration index: " + e.getMessage());
+        }
+    }
+
+    private static Element packageOf(Element element) {
+        while (element.getKind() != ElementKind.PACKAGE) {
+            element = element.getEnclosingElement();
+        }
+        return element;
+    }
+
+    private static AnnotationMirror findAnnotation(Element element, String annotationType) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationType)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private static Object annotationValue(AnnotationMirror mirror, String name, Object defaultValue) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        return defaultValue;
+    }
+
+    private static String literal(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> literal.append("\\\"");
+                case '\\' -> literal.append("\\\\");
+                case '\n' -> literal.append("\\n");
+                case '\r' -> literal.append("\\r");
+                case '\t' -> literal.append("\\t");
+                default -> {
+                    if (c < 0x20 || c > 0x7e) {
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+                }
+            }
+        }
+        return literal.append('"').toString();
+    }
+}
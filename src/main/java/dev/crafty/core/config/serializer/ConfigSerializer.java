@@ -1,11 +1,10 @@
 package dev.crafty.core.config.serializer;
 
+import dev.crafty.core.config.ConfigWriteScheduler;
 import dev.crafty.core.config.SectionWrapper;
 import dev.crafty.core.config.YamlConfigurationWrapper;
-import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
-import java.io.IOException;
 import java.util.Optional;
 
 /**
@@ -41,19 +40,33 @@ public interface ConfigSerializer<T> {
      */
     Class<T> getType();
 
+    /**
+     * Whether {@link #deserialize(SectionWrapper, String)} may run off the main thread, such as
+     * while configuration files are loaded in parallel. Serializers that call into the server,
+     * for example to look up worlds or create item stacks, must keep the default.
+     *
+     * @return True if deserializing is safe on any thread
+     */
+    default boolean isThreadSafe() {
+        return false;
+    }
+
     default <S> ConfigSerializer<S> getSerializer(Class<S> type) {
         return SerializerRegistry.getSerializer(type).orElseThrow(() -> new IllegalArgumentException("No serializer found for type " + type.getName()));
     }
 
+    /**
+     * Schedules the parent document to be written to its file, if {@code args.save} is set.
+     * The document is serialized and written off-thread by the {@link ConfigWriteScheduler}, so
+     * serializers that save must change the document while holding {@link SerializationArgs#lock()}.
+     *
+     * @param args The serialization arguments
+     */
     default void save(SerializationArgs<T> args) {
         if (!args.save) return;
         var yamlConfig = args.parent().getYamlConfiguration();
 
-        try {
-            yamlConfig.save(args.configFile);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        ConfigWriteScheduler.markDirty(args.configFile, yamlConfig);
     }
 
     record SerializationArgs<T>(
@@ -66,5 +79,15 @@ public interface ConfigSerializer<T> {
         public SerializationArgs(T value, YamlConfigurationWrapper parent, String path, File configFile) {
             this(value, parent, parent, path, configFile, true);
         }
+
+        /**
+         * Gets the lock that guards changes to the parent document.
+         *
+         * @return The lock of the parent document
+         * @see ConfigWriteScheduler#lockFor(org.bukkit.configuration.file.FileConfiguration)
+         */
+        public Object lock() {
+            return ConfigWriteScheduler.lockFor(parent.getYamlConfiguration());
+        }
     }
 }
\ No newline at end of file
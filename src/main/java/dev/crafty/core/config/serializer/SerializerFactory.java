@@ -35,10 +35,12 @@ public class SerializerFactory {
                 var section = args.section();
                 var path = args.path();
                 var value = args.value();
-                
-                section.set(path, value);
 
-                save(args);
+                synchronized (args.lock()) {
+                    section.set(path, value);
+
+                    save(args);
+                }
             }
 
             @Override
@@ -54,6 +56,12 @@ public class SerializerFactory {
             public Class<T> getType() {
                 return type;
             }
+
+            @Override
+            public boolean isThreadSafe() {
+                // Only reads the section
+                return true;
+            }
         };
     }
 
@@ -77,10 +85,12 @@ public class SerializerFactory {
                 var section = args.section();
                 var path = args.path();
                 var value = args.value();
-                
-                section.set(path, value);
 
-                save(args);
+                synchronized (args.lock()) {
+                    section.set(path, value);
+
+                    save(args);
+                }
             }
 
             @Override
@@ -96,6 +106,12 @@ public class SerializerFactory {
             public Class<List<T>> getType() {
                 return type;
             }
+
+            @Override
+            public boolean isThreadSafe() {
+                // Only reads the section
+                return true;
+            }
         };
     }
 
@@ -113,32 +129,32 @@ public class SerializerFactory {
         SerializerRegistry.register(createSimpleSerializer(Long.class, SectionWrapper::getLong));
 
         // Register list serializers
-        SerializerRegistry.register(createListSerializer(
+        SerializerRegistry.registerList(String.class, createListSerializer(
                 (Class<List<String>>) (Class<?>) List.class,
                 String.class,
                 SectionWrapper::getStringList));
         
-        SerializerRegistry.register(createListSerializer(
+        SerializerRegistry.registerList(Integer.class, createListSerializer(
                 (Class<List<Integer>>) (Class<?>) List.class,
                 Integer.class,
                 SectionWrapper::getIntegerList));
         
-        SerializerRegistry.register(createListSerializer(
+        SerializerRegistry.registerList(Boolean.class, createListSerializer(
                 (Class<List<Boolean>>) (Class<?>) List.class,
                 Boolean.class,
                 SectionWrapper::getBooleanList));
         
-        SerializerRegistry.register(createListSerializer(
+        SerializerRegistry.registerList(Double.class, createListSerializer(
                 (Class<List<Double>>) (Class<?>) List.class,
                 Double.class,
                 SectionWrapper::getDoubleList));
         
-        SerializerRegistry.register(createListSerializer(
+        SerializerRegistry.registerList(Float.class, createListSerializer(
                 (Class<List<Float>>) (Class<?>) List.class,
                 Float.class,
                 SectionWrapper::getFloatList));
         
-        SerializerRegistry.register(createListSerializer(
+        SerializerRegistry.registerList(Long.class, createListSerializer(
                 (Class<List<Long>>) (Class<?>) List.class,
                 Long.class,
                 SectionWrapper::getLongList));
@@ -1,19 +1,50 @@
 package dev.crafty.core.config.serializer;
 
-import java.util.HashMap;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Registry for configuration serializers.
  * This class manages all the available serializers and provides methods
  * for registering and retrieving them.
+ * <p>
+ * The registry is safe to use from any thread. A lookup first tries the exact class, then its
+ * superclasses, then its interfaces, so a serializer registered for {@code ItemStack} also
+ * handles server-specific subclasses. Resolutions are memoized per class and recomputed after
+ * the registry changes, so repeated lookups cost a single {@link ClassValue} read.
+ * Serializers for {@code List<T>} are registered per item type with
+ * {@link #registerList(Class, ConfigSerializer)} and found through {@link #getSerializer(Type)}.
+ * </p>
  *
  * @since 1.0.0
  */
 public class SerializerRegistry {
 
-    private static final Map<Class<?>, ConfigSerializer<?>> SERIALIZERS = new HashMap<>();
+    private static final Map<Class<?>, ConfigSerializer<?>> SERIALIZERS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, ConfigSerializer<?>> LIST_SERIALIZERS = new ConcurrentHashMap<>();
+
+    // Bumped on every change so cached lookups (here and in ConfigBindingPlan) know to resolve again
+    private static final AtomicInteger VERSION = new AtomicInteger();
+
+    private static final ClassValue<Resolution> RESOLUTIONS = new ClassValue<>() {
+        @Override
+        protected Resolution computeValue(Class<?> type) {
+            int version = VERSION.get();
+            return new Resolution(version, resolve(type));
+        }
+    };
+
+    private record Resolution(int version, ConfigSerializer<?> serializer) {
+    }
 
     /**
      * Register a serializer for a specific type.
@@ -23,10 +54,23 @@ public class SerializerRegistry {
      */
     public static <T> void register(ConfigSerializer<T> serializer) {
         SERIALIZERS.put(serializer.getType(), serializer);
+        VERSION.incrementAndGet();
+    }
+
+    /**
+     * Register a serializer for lists of a specific item type.
+     *
+     * @param itemType The type of the list items
+     * @param serializer The serializer to register
+     * @param <T> The type of the list items
+     */
+    public static <T> void registerList(Class<T> itemType, ConfigSerializer<List<T>> serializer) {
+        LIST_SERIALIZERS.put(itemType, serializer);
+        VERSION.incrementAndGet();
     }
 
     /**
-     * Get a serializer for a specific type.
+     * Get a serializer for a specific type, or for its nearest registered supertype.
      *
      * @param type The type to get a serializer for
      * @param <T> The type of object the serializer handles
@@ -34,26 +78,78 @@ public class SerializerRegistry {
      */
     @SuppressWarnings("unchecked")
     public static <T> Optional<ConfigSerializer<T>> getSerializer(Class<T> type) {
-        return Optional.ofNullable((ConfigSerializer<T>) SERIALIZERS.get(type));
+        Resolution resolution = RESOLUTIONS.get(type);
+        if (resolution.version() != VERSION.get()) {
+            RESOLUTIONS.remove(type);
+            resolution = RESOLUTIONS.get(type);
+        }
+        return Optional.ofNullable((ConfigSerializer<T>) resolution.serializer());
     }
 
     /**
-     * Check if a serializer exists for a specific type.
+     * Get a serializer for a possibly generic type. For {@code List<T>}, the serializer
+     * registered for lists of {@code T} is preferred over one registered for {@code List}.
+     *
+     * @param type The type to get a serializer for, such as a field's generic type
+     * @return An Optional containing the serializer if found, or empty if not found
+     */
+    @SuppressWarnings("unchecked")
+    public static Optional<ConfigSerializer<Object>> getSerializer(Type type) {
+        if (type instanceof Class<?> clazz) {
+            return getSerializer((Class<Object>) clazz);
+        }
+
+        if (type instanceof ParameterizedType parameterized && parameterized.getRawType() instanceof Class<?> raw) {
+            Type[] arguments = parameterized.getActualTypeArguments();
+            // Only List itself; a field declared as ArrayList<String> cannot hold what a list serializer returns
+            if (raw == List.class && arguments.length == 1 && arguments[0] instanceof Class<?> itemType) {
+                return getListSerializer(raw, itemType);
+            }
+            return getSerializer((Class<Object>) raw);
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Get a serializer for a list type with a known item type, such as {@code List<String>}.
+     * The serializer registered for lists of the item type is preferred over one registered
+     * for the list type itself. Those serializers return a plain {@link List}, so they are only
+     * used when the list type is {@code List} itself, not a concrete type such as {@code ArrayList}.
+     *
+     * @param listType The list type
+     * @param itemType The type of the list items
+     * @return An Optional containing the serializer if found, or empty if not found
+     */
+    @SuppressWarnings("unchecked")
+    public static Optional<ConfigSerializer<Object>> getListSerializer(Class<?> listType, Class<?> itemType) {
+        ConfigSerializer<?> listSerializer = listType == List.class ? LIST_SERIALIZERS.get(itemType) : null;
+        if (listSerializer != null) {
+            return Optional.of((ConfigSerializer<Object>) listSerializer);
+        }
+        return getSerializer((Class<Object>) listType);
+    }
+
+    /**
+     * Check if a serializer exists for a specific type or one of its supertypes.
      *
      * @param type The type to check for
      * @return True if a serializer exists for the type, false otherwise
      */
     public static boolean hasSerializer(Class<?> type) {
-        return SERIALIZERS.containsKey(type);
+        return getSerializer(type).isPresent();
     }
 
     /**
-     * Remove a serializer for a specific type.
+     * Remove the serializer for a specific type, and the serializer registered with
+     * {@link #registerList(Class, ConfigSerializer)} for lists of it.
      *
-     * @param type The type to remove the serializer for
+     * @param type The type to remove the serializers for
      */
     public static void unregister(Class<?> type) {
         SERIALIZERS.remove(type);
+        LIST_SERIALIZERS.remove(type);
+        VERSION.incrementAndGet();
     }
 
     /**
@@ -61,6 +157,18 @@ public class SerializerRegistry {
      */
     public static void clear() {
         SERIALIZERS.clear();
+        LIST_SERIALIZERS.clear();
+        VERSION.incrementAndGet();
+    }
+
+    /**
+     * Get the current version of the registry. The version changes whenever a serializer
+     * is registered or removed, so callers caching lookups can tell when to refresh them.
+     *
+     * @return The registry version
+     */
+    public static int getVersion() {
+        return VERSION.get();
     }
 
     /**
@@ -69,6 +177,40 @@ public class SerializerRegistry {
      * @return The number of registered serializers
      */
     public static int size() {
-        return SERIALIZERS.size();
+        return SERIALIZERS.size() + LIST_SERIALIZERS.size();
+    }
+
+    /**
+     * Find the serializer of the nearest registered supertype: the class itself, then its
+     * superclasses, then its interfaces in breadth-first order.
+     */
+    private static ConfigSerializer<?> resolve(Class<?> type) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            ConfigSerializer<?> serializer = SERIALIZERS.get(current);
+            if (serializer != null) {
+                return serializer;
+            }
+        }
+
+        Queue<Class<?>> queue = new ArrayDeque<>();
+        Set<Class<?>> seen = new HashSet<>();
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            queue.addAll(List.of(current.getInterfaces()));
+        }
+
+        while (!queue.isEmpty()) {
+            Class<?> candidate = queue.poll();
+            if (!seen.add(candidate)) {
+                continue;
+            }
+
+            ConfigSerializer<?> serializer = SERIALIZERS.get(candidate);
+            if (serializer != null) {
+                return serializer;
+            }
+            queue.addAll(List.of(candidate.getInterfaces()));
+        }
+
+        return null;
     }
-}
\ No newline at end of file
+}
@@ -35,14 +35,16 @@ public class ItemStackSerializer implements ConfigSerializer<ItemStack> {
         var section = args.section();
         var path = args.path();
 
-        if (value == null) {
-            section.set(path, null);
-            return;
-        }
-        
-        section.set(path, value);
+        synchronized (args.lock()) {
+            if (value == null) {
+                section.set(path, null);
+                return;
+            }
 
-        save(args);
+            section.set(path, value);
+
+            save(args);
+        }
     }
 
     @Override
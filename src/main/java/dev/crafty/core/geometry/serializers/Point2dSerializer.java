@@ -23,10 +23,12 @@ public class Point2dSerializer implements ConfigSerializer<Point2d> {
         var path = args.path();
         var value = args.value();
 
-        section.set(path + ".x", value.x());
-        section.set(path + ".z", value.z());
+        synchronized (args.lock()) {
+            section.set(path + ".x", value.x());
+            section.set(path + ".z", value.z());
 
-        save(args);
+            save(args);
+        }
     }
 
     @Override
@@ -45,4 +47,9 @@ public class Point2dSerializer implements ConfigSerializer<Point2d> {
     public Class<Point2d> getType() {
         return Point2d.class;
     }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
 }
@@ -22,24 +22,26 @@ public class Polygon3dSerializer implements ConfigSerializer<Polygon3d> {
         double minY = value.getMinY();
         double maxY = value.getMaxY();
 
-        section.set(path + ".minY", minY);
-        section.set(path + ".maxY", maxY);
+        synchronized (args.lock()) {
+            section.set(path + ".minY", minY);
+            section.set(path + ".maxY", maxY);
 
-        SectionWrapper verticesSection = section.createSection(path + ".vertices");
+            SectionWrapper verticesSection = section.createSection(path + ".vertices");
 
-        for (int i = 1; i <= points.size(); i++) {
-            Point2d point = points.get(i - 1);
-            SerializationArgs<Point2d> pointArgs = new SerializationArgs<>(point, verticesSection, args.parent(), i + "", args.configFile(), false);
-            getSerializer(Point2d.class).serialize(pointArgs);
-        }
+            for (int i = 1; i <= points.size(); i++) {
+                Point2d point = points.get(i - 1);
+                SerializationArgs<Point2d> pointArgs = new SerializationArgs<>(point, verticesSection, args.parent(), i + "", args.configFile(), false);
+                getSerializer(Point2d.class).serialize(pointArgs);
+            }
 
-        save(args);
+            save(args);
+        }
     }
 
     @Override
     public Optional<Polygon3d> deserialize(SectionWrapper section, String path) {
-        var minY = section.getDouble(path + ".minY").orElse(0.0);
-        var maxY = section.getDouble(path + ".maxY").orElse(0.0);
+        var minY = section.getDouble(path + ".minY", 0.0);
+        var maxY = section.getDouble(path + ".maxY", 0.0);
 
         var _verticesSection = section.getSection(path + ".vertices");
         if (_verticesSection.isEmpty()) return Optional.empty();
@@ -58,4 +60,9 @@ public class Polygon3dSerializer implements ConfigSerializer<Polygon3d> {
     public Class<Polygon3d> getType() {
         return Polygon3d.class;
     }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
 }
@@ -1,6 +1,7 @@
 package dev.crafty.core.gui;
 
 import com.google.common.base.Preconditions;
+import dev.crafty.core.config.FastYamlLoader;
 import dev.crafty.core.config.SectionWrapper;
 import dev.crafty.core.config.serializer.builtin.ItemStackSerializer;
 import dev.crafty.core.plugin.CraftyPlugin;
@@ -93,7 +94,7 @@ public abstract class Menu implements Listener {
             this.plugin.saveResource(MENU_FOLDER + this.id + ".yml", false);
         }
 
-        return YamlConfiguration.loadConfiguration(yamlFile);
+        return FastYamlLoader.load(yamlFile);
     }
 
     @EventHandler
@@ -123,7 +124,7 @@ public abstract class Menu implements Listener {
     private static FillConfig getFillConfig(YamlConfiguration config) {
         var fillSection = new SectionWrapper(config.getConfigurationSection("fill"));
 
-        var enabled = fillSection.getBoolean("enabled").orElse(false);
+        var enabled = fillSection.getBoolean("enabled", false);
         var item = new ItemStackSerializer().deserialize(fillSection, "item").orElse(ItemStack.of(Material.AIR));
 
         return new FillConfig(enabled, item);
@@ -1,6 +1,7 @@
 package dev.crafty.core.items;
 
 import dev.crafty.core.CraftyCore;
+import dev.crafty.core.config.FastYamlLoader;
 import dev.crafty.core.config.SectionWrapper;
 import dev.crafty.core.config.serializer.SerializerRegistry;
 import dev.crafty.core.config.serializer.builtin.ItemStackSerializer;
@@ -268,6 +269,6 @@ public abstract class Item implements Listener {
             this.plugin.saveResource(ITEM_FOLDER + this.id + ".yml", false);
         }
 
-        return YamlConfiguration.loadConfiguration(yamlFile);
+        return FastYamlLoader.load(yamlFile);
     }
 }
@@ -8,8 +8,13 @@ import dev.crafty.core.bridge.placeholders.PlaceholderBridge;
 import dev.crafty.core.bukkit.CraftyLogger;
 import dev.crafty.core.bukkit.EnhancedBaseCommand;
 import dev.crafty.core.bukkit.SelfRegisteringListener;
+import dev.crafty.core.config.CompiledConfigCache;
+import dev.crafty.core.config.ConfigKey;
+import dev.crafty.core.config.ConfigKeys;
 import dev.crafty.core.config.ConfigurationUtils;
+import dev.crafty.core.config.ConfigSnapshot;
 import dev.crafty.core.config.ConfigWatcher;
+import dev.crafty.core.config.ConfigWriteScheduler;
 import dev.crafty.core.i18n.i18nManager;
 import dev.crafty.core.scheduler.ScheduledAction;
 import dev.crafty.core.scheduler.SchedulerService;
@@ -26,6 +31,7 @@ import org.reflections.scanners.SubTypesScanner;
 import org.reflections.util.ClasspathHelper;
 import org.reflections.util.ConfigurationBuilder;
 
+import java.io.File;
 import java.lang.reflect.Modifier;
 import java.util.List;
 
@@ -45,11 +51,17 @@ public abstract class CraftyPlugin extends JavaPlugin {
     private ConfigWatcher configWatcher;
     private boolean configWatcherEnabled = false;
 
+    @Override
+    public void onLoad() {
+        // Bukkit loads every plugin before enabling any, so the config files of all plugins are read in parallel
+        CompiledConfigCache.register(this);
+        ConfigurationUtils.preload(this);
+    }
+
     @Override
     public void onEnable() {
         this.logger = new CraftyLogger(this);
         this.i18n = new i18nManager(this);
-        this.task = new TaskProvider();
 
         logger.info("Starting plugin enable process...");
 
@@ -63,6 +75,7 @@ public abstract class CraftyPlugin extends JavaPlugin {
             return;
         }
         craftyCore = (CraftyCore) corePlugin;
+        this.task = new TaskProvider(this, craftyCore.getTaskRuntime());
 
         // Minimum version check
         if (!checkVersion()) {
@@ -141,6 +154,15 @@ public abstract class CraftyPlugin extends JavaPlugin {
             logger.error("Error in onCraftyDisable: " + ex.getMessage());
             ex.printStackTrace();
         }
+        if (task instanceof TaskProvider provider) {
+            provider.shutdown();
+        }
+        ConfigWriteScheduler.flushAll();
+        ConfigurationUtils.unregisterPlugin(this);
+        CompiledConfigCache.unregister(this);
+        if (craftyCore != null) {
+            craftyCore.unregisterConfigs(this);
+        }
         logger.info("Plugin disabled.");
     }
 
@@ -180,11 +202,35 @@ public abstract class CraftyPlugin extends JavaPlugin {
         ConfigurationUtils.registerAndLoad(configObject, this);
     }
 
+    protected <T extends Record> ConfigSnapshot<T> loadConfigSnapshot(Class<T> recordType) {
+        return ConfigurationUtils.loadSnapshot(recordType, this);
+    }
+
+    protected <T> ConfigKey<T> configKey(String path, T defaultValue) {
+        return ConfigKeys.forConfig(this).key(path, defaultValue);
+    }
+
     private void setupConfigWatcher() {
-        configWatcher = ConfigWatcher.forPluginConfig(this, () -> {
-            logger.info("Detected changes to config.yml, reloading configuration...");
-            reloadAllConfigurations();
-            onConfigReloaded();
+        File configFile = new File(getDataFolder(), "config.yml").getAbsoluteFile();
+        File langFile = new File(getDataFolder(), "lang.yml").getAbsoluteFile();
+
+        configWatcher = ConfigWatcher.forDataFolder(this, file -> {
+            File changed = file.getAbsoluteFile();
+            if (changed.equals(configFile)) {
+                logger.info("Detected changes to config.yml, reloading configuration...");
+                reloadAllConfigurations();
+                onConfigReloaded();
+            } else if (changed.equals(langFile)) {
+                logger.info("Detected changes to lang.yml, reloading messages...");
+                i18n.reload();
+            } else {
+                // Menus and items read their files when used, so only bound config objects need reloading
+                int reloaded = ConfigurationUtils.reloadConfigs(this, changed);
+                if (reloaded > 0) {
+                    logger.info("Detected changes to " + changed.getName() + ", reloaded " + reloaded + " configuration(s).");
+                    onConfigReloaded();
+                }
+            }
         });
         configWatcher.start();
         logger.info("Config watcher started.");
@@ -2,15 +2,35 @@ package dev.crafty.core.storage;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import dev.crafty.core.storage.serialization.StorageSerializer;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A decorator that adds caching to any storage provider.
  * Uses Caffeine for high-performance caching.
+ * <p>
+ * When an {@link OffHeapCacheTier} is attached, entries that the on-heap cache evicts for size are
+ * serialized into the off-heap tier in the background and promoted back on the next lookup, so
+ * large datasets stay cached without keeping every value on the heap. The on-heap cache is kept
+ * small in that case. An entry keeps the time it was loaded from the delegate while it moves
+ * between the tiers, so it expires after the same {@code expireAfterWrite} duration wherever it
+ * lives, and changes made by other servers to a shared backend are picked up just as without the
+ * tier.
+ * </p>
  *
  * @since 1.0.0
  * @param <T> The type of object to store
@@ -18,23 +38,86 @@ import java.util.concurrent.TimeUnit;
  */
 public class CachedStorageProvider<T, K> implements StorageProvider<T, K> {
 
+    /**
+     * The default maximum number of entries kept on-heap.
+     */
+    public static final long DEFAULT_MAXIMUM_SIZE = 10000;
+
+    /**
+     * The default maximum number of entries kept on-heap when an off-heap tier is attached.
+     */
+    public static final long DEFAULT_OFF_HEAP_MAXIMUM_SIZE = 128;
+
+    private static final AtomicLong NAMESPACES = new AtomicLong();
+    // A daemon thread of its own, since the common pool has no workers on single-core hosts
+    private static final ThreadPoolExecutor SPILL_EXECUTOR = new ThreadPoolExecutor(
+            1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "CraftyCore-CacheSpill");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    static {
+        // Let the thread die when idle, so a reloaded plugin class loader does not keep it alive
+        SPILL_EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
     private final StorageProvider<T, K> delegate;
-    private final Cache<K, CompletableFuture<Optional<T>>> cache;
+    private final Cache<K, CachedValue<T>> cache;
     private final Cache<String, CompletableFuture<Collection<T>>> collectionCache;
 
+    private final OffHeapCacheTier offHeapTier;
+    private final Class<T> valueType;
+    private final long expireAfterWriteNanos;
+    // Entries evicted for size whose serialization into the tier has not run yet
+    private final ConcurrentHashMap<K, CachedValue<T>> pendingSpills = new ConcurrentHashMap<>();
+    // Orders spills against invalidation and promotion of the same key
+    private final Object spillLock = new Object();
+    // Off-heap base keys of non-UUID keys, so hashing runs once per key rather than per lookup
+    private final Cache<Object, UUID> offHeapKeys;
+    // Mixed into off-heap keys so providers sharing the tier never see each other's entries
+    private volatile long namespace = NAMESPACES.incrementAndGet();
+
     /**
      * Creates a new CachedStorageProvider with default cache settings.
      *
      * @param delegate The storage provider to delegate to
      */
     public CachedStorageProvider(StorageProvider<T, K> delegate) {
-        this(delegate, 
+        this(delegate, (Class<T>) null, null);
+    }
+
+    /**
+     * Creates a new CachedStorageProvider with default cache settings that spills evicted
+     * entries into an off-heap tier.
+     *
+     * @param delegate The storage provider to delegate to
+     * @param valueType The class of the value type, used to serialize off-heap entries
+     * @param offHeapTier The off-heap tier to spill into, or null to keep entries on-heap only
+     */
+    public CachedStorageProvider(StorageProvider<T, K> delegate, Class<T> valueType, OffHeapCacheTier offHeapTier) {
+        this(delegate, valueType, offHeapTier, offHeapTier == null ? DEFAULT_MAXIMUM_SIZE : DEFAULT_OFF_HEAP_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Creates a new CachedStorageProvider with default cache settings and a custom on-heap size
+     * that spills evicted entries into an off-heap tier.
+     *
+     * @param delegate The storage provider to delegate to
+     * @param valueType The class of the value type, used to serialize off-heap entries
+     * @param offHeapTier The off-heap tier to spill into, or null to keep entries on-heap only
+     * @param maximumSize The maximum number of entries kept on-heap
+     */
+    public CachedStorageProvider(StorageProvider<T, K> delegate, Class<T> valueType, OffHeapCacheTier offHeapTier, long maximumSize) {
+        this(delegate,
              Caffeine.newBuilder()
                  .expireAfterWrite(5, TimeUnit.MINUTES)
-                 .maximumSize(10000),
+                 .maximumSize(maximumSize),
              Caffeine.newBuilder()
                  .expireAfterWrite(1, TimeUnit.MINUTES)
-                 .maximumSize(100));
+                 .maximumSize(100),
+             valueType,
+             offHeapTier);
     }
 
     /**
@@ -48,9 +131,50 @@ public class CachedStorageProvider<T, K> implements StorageProvider<T, K> {
             StorageProvider<T, K> delegate, 
             Caffeine<Object, Object> cacheBuilder,
             Caffeine<Object, Object> collectionCacheBuilder) {
+        this(delegate, cacheBuilder, collectionCacheBuilder, null, null);
+    }
+
+    /**
+     * Creates a new CachedStorageProvider with custom cache settings that spills entries evicted
+     * for size into an off-heap tier.
+     *
+     * @param delegate The storage provider to delegate to
+     * @param cacheBuilder The builder for the item cache
+     * @param collectionCacheBuilder The builder for the collection cache
+     * @param valueType The class of the value type, used to serialize off-heap entries
+     * @param offHeapTier The off-heap tier to spill into, or null to keep entries on-heap only
+     */
+    public CachedStorageProvider(
+            StorageProvider<T, K> delegate,
+            Caffeine<Object, Object> cacheBuilder,
+            Caffeine<Object, Object> collectionCacheBuilder,
+            Class<T> valueType,
+            OffHeapCacheTier offHeapTier) {
         this.delegate = delegate;
-        this.cache = cacheBuilder.build();
+        this.valueType = valueType;
+        this.offHeapTier = valueType == null ? null : offHeapTier;
+
+        if (this.offHeapTier != null) {
+            this.cache = cacheBuilder
+                    .evictionListener((K key, CachedValue<T> value, RemovalCause cause) -> {
+                        // Expired entries must be reloaded from the delegate, so only size evictions are kept
+                        if (cause == RemovalCause.SIZE) {
+                            scheduleSpill(key, value);
+                        }
+                    })
+                    .build();
+            this.offHeapKeys = Caffeine.newBuilder()
+                    .expireAfterAccess(10, TimeUnit.MINUTES)
+                    .maximumSize(DEFAULT_MAXIMUM_SIZE)
+                    .build();
+        } else {
+            this.cache = cacheBuilder.build();
+            this.offHeapKeys = null;
+        }
         this.collectionCache = collectionCacheBuilder.build();
+        this.expireAfterWriteNanos = cache.policy().expireAfterWrite()
+                .map(expiration -> expiration.getExpiresAfter(TimeUnit.NANOSECONDS))
+                .orElse(Long.MAX_VALUE);
     }
 
     /**
@@ -61,18 +185,39 @@ public class CachedStorageProvider<T, K> implements StorageProvider<T, K> {
         // Invalidate the cache for this key and the collection cache
         cache.invalidate(key);
         collectionCache.invalidateAll();
+        invalidateOffHeap(key);
 
         // Delegate to the underlying provider
         return delegate.save(key, value);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Void> saveAll(Map<K, T> values) {
+        // Invalidate the cache for these keys and the collection cache
+        cache.invalidateAll(values.keySet());
+        collectionCache.invalidateAll();
+        values.keySet().forEach(this::invalidateOffHeap);
+
+        // Delegate to the underlying provider
+        return delegate.saveAll(values);
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public CompletableFuture<Optional<T>> get(K key) {
-        // Get from cache or compute if absent
-        return cache.get(key, delegate::get);
+        // Get from cache or compute if absent, promoting spilled entries before hitting the delegate
+        CachedValue<T> cached = cache.get(key, this::load);
+        if (isExpired(cached.loadedAt())) {
+            // A promoted entry keeps its original load time, so it can expire before the cache notices
+            cache.asMap().remove(key, cached);
+            cached = cache.get(key, this::load);
+        }
+        return cached.future();
     }
 
     /**
@@ -87,6 +232,23 @@ public class CachedStorageProvider<T, K> implements StorageProvider<T, K> {
         return collectionCache.get(cacheKey, k -> delegate.getAll());
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Collection<K>> getKeys() {
+        return delegate.getKeys();
+    }
+
+    /**
+     * Gets the provider this cache wraps.
+     *
+     * @return The underlying storage provider
+     */
+    public StorageProvider<T, K> getDelegate() {
+        return delegate;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -95,6 +257,7 @@ public class CachedStorageProvider<T, K> implements StorageProvider<T, K> {
         // Invalidate the cache for this key and the collection cache
         cache.invalidate(key);
         collectionCache.invalidateAll();
+        invalidateOffHeap(key);
 
         // Delegate to the underlying provider
         return delegate.delete(key);
@@ -124,6 +287,7 @@ public class CachedStorageProvider<T, K> implements StorageProvider<T, K> {
         // Clear all caches
         cache.invalidateAll();
         collectionCache.invalidateAll();
+        abandonOffHeapEntries();
 
         // Delegate to the underlying provider
         return delegate.close();
@@ -142,7 +306,126 @@ public class CachedStorageProvider<T, K> implements StorageProvider<T, K> {
         // Clear all caches
         cache.invalidateAll();
         collectionCache.invalidateAll();
+        abandonOffHeapEntries();
 
         return CompletableFuture.completedFuture(null);
     }
+
+    private CachedValue<T> load(K key) {
+        CachedValue<T> promoted = promote(key);
+        if (promoted != null) {
+            return promoted;
+        }
+        return new CachedValue<>(delegate.get(key), System.nanoTime());
+    }
+
+    private boolean isExpired(long loadedAt) {
+        return System.nanoTime() - loadedAt >= expireAfterWriteNanos;
+    }
+
+    private void scheduleSpill(K key, CachedValue<T> value) {
+        // Only completed, present values are worth keeping; pending loads and misses are dropped
+        CompletableFuture<Optional<T>> future = value.future();
+        if (!future.isDone() || future.isCompletedExceptionally() || future.join().isEmpty()) {
+            return;
+        }
+
+        // Serialization runs off the eviction path, which holds the cache's locks
+        pendingSpills.put(key, value);
+        SPILL_EXECUTOR.execute(() -> spill(key, value));
+    }
+
+    private void spill(K key, CachedValue<T> value) {
+        byte[] json;
+        try {
+            json = StorageSerializer.getJsonMapper().writeValueAsBytes(value.future().join().orElseThrow());
+        } catch (IOException e) {
+            // Not serializable as JSON; the entry is simply reloaded from the delegate next time
+            pendingSpills.remove(key, value);
+            return;
+        }
+
+        byte[] data = ByteBuffer.allocate(Long.BYTES + json.length)
+                .putLong(value.loadedAt())
+                .put(json)
+                .array();
+
+        synchronized (spillLock) {
+            // Skipped if the key was written, promoted or evicted again in the meantime
+            if (pendingSpills.remove(key, value)) {
+                offHeapTier.put(toOffHeapKey(key), data);
+            }
+        }
+    }
+
+    private CachedValue<T> promote(K key) {
+        if (offHeapTier == null) {
+            return null;
+        }
+
+        byte[] data;
+        synchronized (spillLock) {
+            CachedValue<T> pending = pendingSpills.remove(key);
+            if (pending != null) {
+                // Evicted but not serialized yet, so the value can be reused as is
+                offHeapTier.remove(toOffHeapKey(key));
+                return isExpired(pending.loadedAt()) ? null : pending;
+            }
+            data = offHeapTier.take(toOffHeapKey(key));
+        }
+
+        if (data == null) {
+            return null;
+        }
+
+        long loadedAt = ByteBuffer.wrap(data).getLong();
+        if (isExpired(loadedAt)) {
+            return null;
+        }
+
+        try {
+            T value = StorageSerializer.getJsonMapper().readValue(data, Long.BYTES, data.length - Long.BYTES, valueType);
+            return new CachedValue<>(CompletableFuture.completedFuture(Optional.of(value)), loadedAt);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void invalidateOffHeap(K key) {
+        if (offHeapTier != null) {
+            synchronized (spillLock) {
+                pendingSpills.remove(key);
+                offHeapTier.remove(toOffHeapKey(key));
+            }
+        }
+    }
+
+    private void abandonOffHeapEntries() {
+        // Entries under the old namespace become unreachable and age out of the tier's LRU order
+        synchronized (spillLock) {
+            pendingSpills.clear();
+            namespace = NAMESPACES.incrementAndGet();
+        }
+    }
+
+    private UUID toOffHeapKey(K key) {
+        UUID base = key instanceof UUID uuid ? uuid : offHeapKeys.get(key, CachedStorageProvider::baseKey);
+        long mix = namespace * 0x9E3779B97F4A7C15L;
+        return new UUID(base.getMostSignificantBits() ^ mix, base.getLeastSignificantBits() ^ Long.rotateLeft(mix, 32));
+    }
+
+    private static UUID baseKey(Object key) {
+        String string = key.toString();
+        if (string.length() == 36) {
+            try {
+                return UUID.fromString(string);
+            } catch (IllegalArgumentException ignored) {
+                // Not a UUID, hashed below
+            }
+        }
+        return UUID.nameUUIDFromBytes(string.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private record CachedValue<T>(CompletableFuture<Optional<T>> future, long loadedAt) {
+    }
 }
@@ -0,0 +1,228 @@
+package dev.crafty.core.storage;
+
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A byte-bounded, off-heap cache for serialized values.
+ * <p>
+ * Values are stored in a single direct {@link ByteBuffer} arena that is split into fixed-size
+ * blocks. A value occupies a chain of blocks; the chain links live in a primitive {@code int[]}
+ * so the only per-entry heap cost is the index entry itself. Entries are keyed by a UUID held as
+ * two longs and evicted in least-recently-used order once the arena runs out of free blocks.
+ * </p>
+ * <p>
+ * The tier is shared by every {@link CachedStorageProvider}, which spills entries into it when its
+ * on-heap cache evicts them for size. All operations are synchronized; they only copy bytes, so
+ * the critical sections are short.
+ * </p>
+ *
+ * @since 1.0.0
+ */
+public class OffHeapCacheTier {
+    /**
+     * The size of a single arena block in bytes.
+     */
+    public static final int BLOCK_SIZE = 256;
+
+    private static final int NO_BLOCK = -1;
+
+    private final ByteBuffer arena;
+    private final int blockCount;
+    private final int[] nextBlock;
+    private final int[] freeBlocks;
+    private int freeCount;
+
+    // Access-ordered index; each value packs the first block (high 32 bits) and the length (low 32 bits)
+    private final LinkedHashMap<Key, Long> index = new LinkedHashMap<>(1024, 0.75f, true);
+
+    @Getter
+    private final long capacityBytes;
+
+    /**
+     * Creates a new off-heap cache tier.
+     *
+     * @param capacityBytes The maximum number of bytes to reserve off-heap, rounded down to whole
+     *                      blocks and capped at the largest direct buffer the JVM can allocate
+     * @throws IllegalArgumentException If the capacity is smaller than a single block
+     */
+    public OffHeapCacheTier(long capacityBytes) {
+        long blocks = Math.min(capacityBytes, Integer.MAX_VALUE) / BLOCK_SIZE;
+        if (blocks < 1) {
+            throw new IllegalArgumentException("Off-heap cache capacity must be at least " + BLOCK_SIZE + " bytes");
+        }
+
+        this.blockCount = (int) blocks;
+        this.capacityBytes = blocks * BLOCK_SIZE;
+        this.arena = ByteBuffer.allocateDirect((int) this.capacityBytes);
+        this.nextBlock = new int[blockCount];
+        this.freeBlocks = new int[blockCount];
+        resetFreeList();
+    }
+
+    /**
+     * Stores a value, replacing any previous value for the key and evicting the least recently
+     * used entries if there is not enough free space.
+     *
+     * @param key The key of the value
+     * @param data The serialized value
+     * @return True if the value was stored, false if it is larger than the whole arena
+     */
+    public synchronized boolean put(UUID key, byte[] data) {
+        Key indexKey = new Key(key.getMostSignificantBits(), key.getLeastSignificantBits());
+        Long previous = index.remove(indexKey);
+        if (previous != null) {
+            release(firstBlock(previous));
+        }
+
+        int needed = Math.max(1, (data.length + BLOCK_SIZE - 1) / BLOCK_SIZE);
+        if (needed > blockCount) {
+            return false;
+        }
+
+        while (freeCount < needed) {
+            evictEldest();
+        }
+
+        int first = NO_BLOCK;
+        int previousBlock = NO_BLOCK;
+        int offset = 0;
+        for (int i = 0; i < needed; i++) {
+            int block = freeBlocks[--freeCount];
+            int length = Math.min(BLOCK_SIZE, data.length - offset);
+            if (length > 0) {
+                arena.put(block * BLOCK_SIZE, data, offset, length);
+                offset += length;
+            }
+
+            nextBlock[block] = NO_BLOCK;
+            if (previousBlock == NO_BLOCK) {
+                first = block;
+            } else {
+                nextBlock[previousBlock] = block;
+            }
+            previousBlock = block;
+        }
+
+        index.put(indexKey, ((long) first << 32) | (data.length & 0xFFFFFFFFL));
+        return true;
+    }
+
+    /**
+     * Reads a value and marks it as recently used.
+     *
+     * @param key The key of the value
+     * @return The serialized value, or null if it is not cached
+     */
+    public synchronized byte[] get(UUID key) {
+        Long entry = index.get(new Key(key.getMostSignificantBits(), key.getLeastSignificantBits()));
+        return entry == null ? null : read(entry);
+    }
+
+    /**
+     * Reads and removes a value. Used when an entry is promoted back to the on-heap tier.
+     *
+     * @param key The key of the value
+     * @return The serialized value, or null if it is not cached
+     */
+    public synchronized byte[] take(UUID key) {
+        Long entry = index.remove(new Key(key.getMostSignificantBits(), key.getLeastSignificantBits()));
+        if (entry == null) {
+            return null;
+        }
+
+        byte[] data = read(entry);
+        release(firstBlock(entry));
+        return data;
+    }
+
+    /**
+     * Removes a value if present.
+     *
+     * @param key The key of the value
+     * @return True if a value was removed
+     */
+    public synchronized boolean remove(UUID key) {
+        Long entry = index.remove(new Key(key.getMostSignificantBits(), key.getLeastSignificantBits()));
+        if (entry == null) {
+            return false;
+        }
+
+        release(firstBlock(entry));
+        return true;
+    }
+
+    /**
+     * Removes every value from the tier.
+     */
+    public synchronized void clear() {
+        index.clear();
+        resetFreeList();
+    }
+
+    /**
+     * Gets the number of values currently stored.
+     *
+     * @return The number of entries
+     */
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Gets the number of arena bytes currently occupied, in whole blocks.
+     *
+     * @return The used bytes
+     */
+    public synchronized long getUsedBytes() {
+        return (long) (blockCount - freeCount) * BLOCK_SIZE;
+    }
+
+    private byte[] read(long entry) {
+        int length = (int) entry;
+        byte[] data = new byte[length];
+        int block = firstBlock(entry);
+        int offset = 0;
+        while (offset < length) {
+            int chunk = Math.min(BLOCK_SIZE, length - offset);
+            arena.get(block * BLOCK_SIZE, data, offset, chunk);
+            offset += chunk;
+            block = nextBlock[block];
+        }
+        return data;
+    }
+
+    private void evictEldest() {
+        Iterator<Map.Entry<Key, Long>> iterator = index.entrySet().iterator();
+        Map.Entry<Key, Long> eldest = iterator.next();
+        iterator.remove();
+        release(firstBlock(eldest.getValue()));
+    }
+
+    private void release(int block) {
+        while (block != NO_BLOCK) {
+            int next = nextBlock[block];
+            freeBlocks[freeCount++] = block;
+            block = next;
+        }
+    }
+
+    private void resetFreeList() {
+        for (int i = 0; i < blockCount; i++) {
+            freeBlocks[i] = blockCount - 1 - i;
+        }
+        freeCount = blockCount;
+    }
+
+    private static int firstBlock(long entry) {
+        return (int) (entry >>> 32);
+    }
+
+    private record Key(long mostSigBits, long leastSigBits) {
+    }
+}
@@ -1,14 +1,34 @@
 package dev.crafty.core.storage;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import dev.crafty.core.storage.providers.MongoDbStorageProvider;
 import dev.crafty.core.storage.providers.PlayerDataProviderImpl;
 import lombok.Getter;
-import lombok.Setter;
 import dev.crafty.core.storage.StorageProviderFactory.StorageType;
 import dev.crafty.core.storage.StorageProviderFactory.StorageConfig;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 /**
  * Manages storage provider instances, handling creation, caching, and configuration.
@@ -19,16 +39,31 @@ import java.util.UUID;
 public class ProviderManager {
     private static final ProviderManager INSTANCE = new ProviderManager();
 
-    private final Map<String, StorageProvider<?, String>> providers = new HashMap<>();
+    private final Map<ProviderKey, StorageProvider<?, String>> providers = new ConcurrentHashMap<>();
+
+    // Resolved default providers, keyed by value type and raw identifier so hot paths skip key building
+    private final Map<DefaultKey, StorageProvider<?, String>> defaultProviders = new ConcurrentHashMap<>();
+    // Bumped whenever the default configuration changes, so stale resolutions are not cached
+    private final AtomicLong defaultGeneration = new AtomicLong();
 
     // Global storage configuration
     @Getter
-    @Setter
-    private StorageType defaultStorageType = StorageType.YAML;
-    private StorageConfig defaultYamlConfig = StorageConfig.forYaml("data");
-    private StorageConfig defaultPostgresConfig = null; // Will be initialized when needed
-    private StorageConfig defaultMySqlConfig = null; // Will be initialized when needed
-    private StorageConfig defaultMogoDbConfig = null; // Will be initialized when needed
+    private volatile StorageType defaultStorageType = StorageType.YAML;
+    private volatile StorageConfig defaultYamlConfig = StorageConfig.forYaml("data");
+    private volatile StorageConfig defaultPostgresConfig = null; // Will be initialized when needed
+    private volatile StorageConfig defaultMySqlConfig = null; // Will be initialized when needed
+    private volatile StorageConfig defaultMogoDbConfig = null; // Will be initialized when needed
+
+    // Shared off-heap tier that cached providers spill into, null when disabled
+    @Getter
+    private volatile OffHeapCacheTier offHeapCacheTier = null;
+
+    // Maximum number of entries each cached provider keeps on-heap, 0 for the default
+    @Getter
+    private volatile long onHeapCacheSize = 0;
+
+    // Value types of the providers resolved through the default configuration, null until a file is set
+    private volatile StorageManifest manifest = null;
 
     /**
      * Private constructor to enforce singleton pattern.
@@ -56,7 +91,7 @@ public class ProviderManager {
      * @return The storage provider
      */
     public <T> StorageProvider<T, String> getYamlProvider(Class<T> valueType, String directory) {
-        String key = "yaml:" + valueType.getName() + ":" + directory;
+        ProviderKey key = new ProviderKey(StorageType.YAML, valueType, directory);
         return getOrCreateProvider(key, () -> 
             StorageProviderFactory.createProvider(
                 StorageType.YAML,
@@ -80,7 +115,7 @@ public class ProviderManager {
      */
     public <T> StorageProvider<T, String> getPostgresProvider(
             Class<T> valueType, String tableName, String connectionUrl, String username, String password) {
-        String key = "postgres:" + valueType.getName() + ":" + tableName;
+        ProviderKey key = new ProviderKey(StorageType.POSTGRES, valueType, tableName);
         return getOrCreateProvider(key, () -> 
             StorageProviderFactory.createProvider(
                 StorageType.POSTGRES,
@@ -102,7 +137,7 @@ public class ProviderManager {
      */
     public <T> StorageProvider<T, String> getMongoDbProvider(
             Class<T> valueType, String tableName, String connectionUrl) {
-        String key = "mongodb:" + valueType.getName() + ":" + tableName;
+        ProviderKey key = new ProviderKey(StorageType.MONGODB, valueType, tableName);
         return getOrCreateProvider(key, () ->
             StorageProviderFactory.createProvider(
                 StorageType.MONGODB,
@@ -126,7 +161,7 @@ public class ProviderManager {
      */
     public <T> StorageProvider<T, String> getMySqlProvider(
             Class<T> valueType, String tableName, String connectionUrl, String username, String password) {
-        String key = "mysql:" + valueType.getName() + ":" + tableName;
+        ProviderKey key = new ProviderKey(StorageType.MYSQL, valueType, tableName);
         return getOrCreateProvider(key, () -> 
             StorageProviderFactory.createProvider(
                 StorageType.MYSQL,
@@ -136,6 +171,50 @@ public class ProviderManager {
         );
     }
 
+    /**
+     * Sets the default storage type used by {@link #getProvider(Class, String)}.
+     *
+     * @param defaultStorageType The storage type to use by default
+     */
+    public void setDefaultStorageType(StorageType defaultStorageType) {
+        this.defaultStorageType = defaultStorageType;
+        invalidateDefaultProviders();
+    }
+
+    /**
+     * Sets the size of the shared off-heap cache tier. Providers created afterwards spill entries
+     * evicted from their on-heap cache into it, so this should be called before any provider is
+     * requested.
+     *
+     * @param bytes The maximum number of bytes to keep off-heap, or 0 to disable the tier
+     */
+    public void setOffHeapCacheSize(long bytes) {
+        this.offHeapCacheTier = bytes > 0 ? new OffHeapCacheTier(bytes) : null;
+    }
+
+    /**
+     * Sets the maximum number of entries each cached provider keeps on-heap. Like the off-heap
+     * tier, this only applies to providers created afterwards.
+     *
+     * @param entries The maximum number of entries, or 0 for {@link CachedStorageProvider#DEFAULT_MAXIMUM_SIZE},
+     *                or {@link CachedStorageProvider#DEFAULT_OFF_HEAP_MAXIMUM_SIZE} when the off-heap tier is enabled
+     */
+    public void setOnHeapCacheSize(long entries) {
+        this.onHeapCacheSize = Math.max(0, entries);
+    }
+
+    /**
+     * Sets the file that records the value type of every provider resolved through the default
+     * configuration, so {@link #getStoredProviderIdentities(StorageType)} can match stored
+     * locations with their value types after a restart.
+     *
+     * @param file The manifest file
+     * @param logger The logger to report manifest read and write failures to
+     */
+    public void setManifestFile(Path file, Logger logger) {
+        this.manifest = StorageManifest.load(file, logger);
+    }
+
     /**
      * Sets the default YAML configuration.
      *
@@ -143,6 +222,7 @@ public class ProviderManager {
      */
     public void setDefaultYamlConfig(String directory) {
         this.defaultYamlConfig = StorageConfig.forYaml(directory);
+        invalidateDefaultProviders();
     }
 
     /**
@@ -155,6 +235,7 @@ public class ProviderManager {
      */
     public void setDefaultPostgresConfig(String tableName, String connectionUrl, String username, String password) {
         this.defaultPostgresConfig = StorageConfig.forPostgres(tableName, connectionUrl, username, password);
+        invalidateDefaultProviders();
     }
 
     /**
@@ -165,6 +246,7 @@ public class ProviderManager {
      */
     public void setDefaultMongoDbConfig(String tableName, String connectionUrl) {
         this.defaultMogoDbConfig = StorageConfig.forMongoDb(tableName, connectionUrl);
+        invalidateDefaultProviders();
     }
 
     /**
@@ -177,6 +259,7 @@ public class ProviderManager {
      */
     public void setDefaultMySqlConfig(String tableName, String connectionUrl, String username, String password) {
         this.defaultMySqlConfig = StorageConfig.forMySql(tableName, connectionUrl, username, password);
+        invalidateDefaultProviders();
     }
 
     /**
@@ -189,7 +272,7 @@ public class ProviderManager {
      * @throws IllegalStateException If the default configuration for the selected storage type is not set
      */
     public <T> StorageProvider<T, String> getProvider(Class<T> valueType) {
-        return getProvider(valueType, valueType.getSimpleName().toLowerCase());
+        return getDefaultProvider(valueType, valueType);
     }
 
     /**
@@ -203,7 +286,81 @@ public class ProviderManager {
      * @throws IllegalStateException If the default configuration for the selected storage type is not set
      */
     public <T> StorageProvider<T, String> getProvider(Class<T> valueType, String identifier) {
-        switch (defaultStorageType) {
+        return getDefaultProvider(valueType, identifier);
+    }
+
+    /**
+     * Looks up the default provider for a value type and identifier, resolving it only once.
+     * The identifier is kept in its raw form (a {@link String}, a player {@link UUID}, or the value
+     * type itself for {@link #getProvider(Class)}) so repeated lookups never build a string key.
+     *
+     * @param valueType The class of the value type
+     * @param identifier The raw identifier
+     * @param <T> The type of object to store
+     * @return The storage provider
+     */
+    @SuppressWarnings("unchecked")
+    private <T> StorageProvider<T, String> getDefaultProvider(Class<T> valueType, Object identifier) {
+        StorageProvider<?, String> provider = defaultProviders.get(new DefaultKey(valueType, identifier));
+        if (provider != null) {
+            return (StorageProvider<T, String>) provider;
+        }
+
+        // Resolve outside the map, since creating a provider may open a connection pool
+        DefaultKey key = new DefaultKey(valueType, identifier);
+        String location = identifierToString(valueType, identifier);
+        StorageManifest current = manifest;
+        if (current != null) {
+            current.record(valueType, location, identifier instanceof UUID);
+        }
+
+        while (true) {
+            long generation = defaultGeneration.get();
+            StorageProvider<T, String> resolved = resolveDefaultProvider(valueType, location);
+            StorageProvider<?, String> existing = defaultProviders.putIfAbsent(key, resolved);
+            if (defaultGeneration.get() == generation) {
+                return existing != null ? (StorageProvider<T, String>) existing : resolved;
+            }
+
+            // The default configuration changed while resolving; drop the entry and resolve again
+            defaultProviders.remove(key, resolved);
+        }
+    }
+
+    /**
+     * Forgets the resolved default providers after the default configuration changed. The
+     * generation is bumped before clearing, so a resolution racing with the change either sees
+     * the new generation or has its entry cleared.
+     */
+    private void invalidateDefaultProviders() {
+        defaultGeneration.incrementAndGet();
+        defaultProviders.clear();
+    }
+
+    private static String identifierToString(Class<?> valueType, Object identifier) {
+        if (identifier == valueType) {
+            return valueType.getSimpleName().toLowerCase();
+        }
+        return identifier.toString();
+    }
+
+    private <T> StorageProvider<T, String> resolveDefaultProvider(Class<T> valueType, String identifier) {
+        return getProvider(defaultStorageType, valueType, identifier);
+    }
+
+    /**
+     * Gets a storage provider of a specific type using that type's default configuration,
+     * regardless of the current default storage type. Used when copying data between backends.
+     *
+     * @param storageType The storage type to resolve
+     * @param valueType The class of the value type
+     * @param identifier A unique identifier for this provider (e.g., table name or directory suffix)
+     * @param <T> The type of object to store
+     * @return The storage provider
+     * @throws IllegalStateException If the default configuration for the storage type is not set
+     */
+    public <T> StorageProvider<T, String> getProvider(StorageType storageType, Class<T> valueType, String identifier) {
+        switch (storageType) {
             case YAML:
                 if (defaultYamlConfig == null) {
                     throw new IllegalStateException("Default YAML configuration not set");
@@ -245,7 +402,187 @@ public class ProviderManager {
                         defaultMogoDbConfig.getConnectionUrl()
                 );
             default:
-                throw new IllegalStateException("Unsupported default storage type: " + defaultStorageType);
+                throw new IllegalStateException("Unsupported storage type: " + storageType);
+        }
+    }
+
+    /**
+     * Gets the value type and identifier of every provider resolved through the default
+     * configuration so far, e.g. by {@link #getProvider(Class)} or {@link #forPlayer(UUID, Class)}.
+     *
+     * @return A snapshot of the known default provider identities
+     */
+    public List<ProviderIdentity> getDefaultProviderIdentities() {
+        List<ProviderIdentity> identities = new ArrayList<>();
+        for (DefaultKey key : defaultProviders.keySet()) {
+            ProviderIdentity identity = new ProviderIdentity(key.valueType(), identifierToString(key.valueType(), key.identifier()));
+            if (!identities.contains(identity)) {
+                identities.add(identity);
+            }
+        }
+        return identities;
+    }
+
+    /**
+     * Gets the value type and identifier of every provider that holds data in a storage type's
+     * default configuration, including providers not resolved since the server started.
+     * <p>
+     * The locations of the storage type (YAML data directories, SQL tables with a key and a data
+     * column, or MongoDB collections) are listed from the backend itself, and each is matched with
+     * the value type it was resolved with, now or in an earlier run recorded in the manifest (see
+     * {@link #setManifestFile(Path, Logger)}). Player locations, named after the player's UUID, are
+     * matched with the value type used with {@link #forPlayer(UUID, Class)}. Locations that match no
+     * loadable value type or more than one are reported rather than listed. This blocks while the
+     * backend is queried, so it should not be called on the main thread.
+     * </p>
+     *
+     * @param storageType The storage type to list
+     * @return The identities of the stored providers and the locations that could not be matched
+     */
+    public StoredProviders getStoredProviderIdentities(StorageType storageType) {
+        Map<String, Map<String, Class<?>>> known = new HashMap<>();
+        Map<String, Class<?>> playerTypes = new HashMap<>();
+        for (DefaultKey key : defaultProviders.keySet()) {
+            String identifier = identifierToString(key.valueType(), key.identifier());
+            known.computeIfAbsent(identifier.toLowerCase(Locale.ROOT), k -> new HashMap<>())
+                    .put(key.valueType().getName(), key.valueType());
+            if (key.identifier() instanceof UUID) {
+                playerTypes.put(key.valueType().getName(), key.valueType());
+            }
+        }
+
+        StorageManifest current = manifest;
+        List<ProviderIdentity> identities = new ArrayList<>();
+        List<String> unresolved = new ArrayList<>();
+        for (String location : listLocations(storageType)) {
+            // SQL backends may report table names in a different case than they were created with
+            Map<String, Class<?>> candidates = new HashMap<>(known.getOrDefault(location.toLowerCase(Locale.ROOT), Map.of()));
+            Set<String> recorded = new LinkedHashSet<>();
+            if (current != null) {
+                recorded.addAll(current.typesOf(location));
+            }
+            if (isUuid(location)) {
+                candidates.putAll(playerTypes);
+                if (current != null) {
+                    recorded.addAll(current.playerTypes());
+                }
+            }
+            for (String typeName : recorded) {
+                if (!candidates.containsKey(typeName)) {
+                    Class<?> type = loadClass(typeName);
+                    if (type != null) {
+                        candidates.put(typeName, type);
+                    }
+                }
+            }
+
+            if (candidates.size() == 1) {
+                identities.add(new ProviderIdentity(candidates.values().iterator().next(), location));
+            } else {
+                unresolved.add(location);
+            }
+        }
+
+        return new StoredProviders(identities, unresolved);
+    }
+
+    private static Class<?> loadClass(String name) {
+        try {
+            // Plugin class loaders resolve the classes of other plugins through their shared lookup
+            return Class.forName(name, false, ProviderManager.class.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private List<String> listLocations(StorageType storageType) {
+        switch (storageType) {
+            case YAML:
+                if (defaultYamlConfig == null) {
+                    throw new IllegalStateException("Default YAML configuration not set");
+                }
+                Path directory = Paths.get(defaultYamlConfig.getDirectory());
+                if (!Files.isDirectory(directory)) {
+                    return List.of();
+                }
+                try (Stream<Path> children = Files.list(directory)) {
+                    return children.filter(Files::isDirectory)
+                            .map(child -> child.getFileName().toString())
+                            .toList();
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to list directory: " + directory, e);
+                }
+            case POSTGRES:
+                if (defaultPostgresConfig == null) {
+                    throw new IllegalStateException("Default PostgreSQL configuration not set");
+                }
+                return listTables(defaultPostgresConfig);
+            case MYSQL:
+                if (defaultMySqlConfig == null) {
+                    throw new IllegalStateException("Default MySQL configuration not set");
+                }
+                return listTables(defaultMySqlConfig);
+            case MONGODB:
+                if (defaultMogoDbConfig == null) {
+                    throw new IllegalStateException("Default MongoDB configuration not set");
+                }
+                return MongoDbStorageProvider.listCollections(defaultMogoDbConfig.getConnectionUrl()).join();
+            default:
+                throw new IllegalStateException("Unsupported storage type: " + storageType);
+        }
+    }
+
+    private static List<String> listTables(StorageConfig config) {
+        HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setJdbcUrl(config.getConnectionUrl());
+        hikariConfig.setUsername(config.getUsername());
+        hikariConfig.setPassword(config.getPassword());
+        hikariConfig.setMaximumPoolSize(1);
+
+        try (HikariDataSource dataSource = new HikariDataSource(hikariConfig);
+             Connection conn = dataSource.getConnection()) {
+            DatabaseMetaData metaData = conn.getMetaData();
+            String catalog = conn.getCatalog();
+            String schema = conn.getSchema();
+
+            List<String> tables = new ArrayList<>();
+            try (ResultSet rs = metaData.getTables(catalog, schema, "%", new String[]{"TABLE"})) {
+                while (rs.next()) {
+                    String table = rs.getString("TABLE_NAME");
+                    if (isStorageTable(metaData, catalog, schema, table)) {
+                        tables.add(table);
+                    }
+                }
+            }
+            return tables;
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to list tables of " + config.getConnectionUrl(), e);
+        }
+    }
+
+    private static boolean isStorageTable(DatabaseMetaData metaData, String catalog, String schema, String table) throws SQLException {
+        // Tables of other plugins sharing the database lack the key and data columns providers create
+        String escape = metaData.getSearchStringEscape();
+        String pattern = table.replace("_", escape + "_").replace("%", escape + "%");
+
+        Set<String> columns = new HashSet<>();
+        try (ResultSet rs = metaData.getColumns(catalog, schema, pattern, null)) {
+            while (rs.next()) {
+                columns.add(rs.getString("COLUMN_NAME").toLowerCase(Locale.ROOT));
+            }
+        }
+        return columns.contains("key") && columns.contains("data");
+    }
+
+    private static boolean isUuid(String value) {
+        if (value.length() != 36) {
+            return false;
+        }
+        try {
+            UUID.fromString(value);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
         }
     }
 
@@ -258,12 +595,21 @@ public class ProviderManager {
      * @return The storage provider
      */
     @SuppressWarnings("unchecked")
-    private <T> StorageProvider<T, String> getOrCreateProvider(String key, ProviderSupplier<T> providerSupplier) {
-        if (!providers.containsKey(key)) {
-            StorageProvider<T, String> provider = providerSupplier.get();
-            providers.put(key, provider);
+    private <T> StorageProvider<T, String> getOrCreateProvider(ProviderKey key, ProviderSupplier<T> providerSupplier) {
+        StorageProvider<?, String> provider = providers.get(key);
+        if (provider != null) {
+            return (StorageProvider<T, String>) provider;
         }
-        return (StorageProvider<T, String>) providers.get(key);
+
+        // Create the provider outside the map so opening a connection pool never blocks other keys;
+        // when two threads race, the provider that was not published is closed again
+        StorageProvider<T, String> created = providerSupplier.get();
+        StorageProvider<?, String> existing = providers.putIfAbsent(key, created);
+        if (existing != null) {
+            created.close();
+            return (StorageProvider<T, String>) existing;
+        }
+        return created;
     }
 
     /**
@@ -275,7 +621,7 @@ public class ProviderManager {
      * @return The player data provider
      */
     public <T> PlayerDataProvider<T> forPlayer(UUID playerId, Class<T> valueType) {
-        StorageProvider<T, String> provider = getProvider(valueType, playerId.toString());
+        StorageProvider<T, String> provider = getDefaultProvider(valueType, playerId);
         return new PlayerDataProviderImpl<>(provider, playerId);
     }
 
@@ -284,10 +630,20 @@ public class ProviderManager {
      * This should be called when the plugin is disabled.
      */
     public void closeAllProviders() {
+        invalidateDefaultProviders();
+        StorageManifest current = manifest;
+        if (current != null) {
+            current.write();
+        }
         for (StorageProvider<?, String> provider : providers.values()) {
             provider.close();
         }
         providers.clear();
+
+        OffHeapCacheTier tier = offHeapCacheTier;
+        if (tier != null) {
+            tier.clear();
+        }
     }
 
     /**
@@ -299,4 +655,34 @@ public class ProviderManager {
     private interface ProviderSupplier<T> {
         StorageProvider<T, String> get();
     }
+
+    /**
+     * Registry key identifying a provider by backend, value type and location (directory or table).
+     */
+    private record ProviderKey(StorageType type, Class<?> valueType, String location) {
+    }
+
+    /**
+     * The value type and identifier a provider was resolved with through the default configuration.
+     *
+     * @param valueType The class of the value type
+     * @param identifier The provider identifier (e.g., table name or directory suffix)
+     */
+    public record ProviderIdentity(Class<?> valueType, String identifier) {
+    }
+
+    /**
+     * The providers found in a storage type by {@link #getStoredProviderIdentities(StorageType)}.
+     *
+     * @param identities The identities of the stored providers
+     * @param unresolved The locations that could not be matched with exactly one value type
+     */
+    public record StoredProviders(List<ProviderIdentity> identities, List<String> unresolved) {
+    }
+
+    /**
+     * Lookup key for providers resolved through the default configuration.
+     */
+    private record DefaultKey(Class<?> valueType, Object identifier) {
+    }
 }
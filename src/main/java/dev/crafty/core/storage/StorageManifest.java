@@ -0,0 +1,148 @@
+package dev.crafty.core.storage;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import dev.crafty.core.storage.serialization.StorageSerializer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Remembers the value type every provider identifier was resolved with, so the objects stored at
+ * a location can be read back after a restart even if their owner has not used them since.
+ * <p>
+ * The manifest is a YAML file mapping each identifier (lower-cased, since SQL backends may report
+ * table names in another case) to the value type names used with it, plus the value types used
+ * with player locations, which are named after the player's UUID. New entries are written in the
+ * background.
+ * </p>
+ *
+ * @since 1.0.0
+ */
+final class StorageManifest {
+    private final Path file;
+    private final Logger logger;
+    private final Map<String, Set<String>> locations = new TreeMap<>();
+    private final Set<String> playerTypes = new TreeSet<>();
+    private final AtomicBoolean writeScheduled = new AtomicBoolean();
+    // Orders a background write and the final write on shutdown
+    private final Object writeLock = new Object();
+
+    private StorageManifest(Path file, Logger logger) {
+        this.file = file;
+        this.logger = logger;
+    }
+
+    /**
+     * Reads the manifest from a file. A missing or unreadable file gives an empty manifest.
+     *
+     * @param file The manifest file
+     * @param logger The logger to report read and write failures to
+     * @return The manifest
+     */
+    static StorageManifest load(Path file, Logger logger) {
+        StorageManifest manifest = new StorageManifest(file, logger);
+        if (!Files.exists(file)) {
+            return manifest;
+        }
+
+        try {
+            Contents contents = StorageSerializer.getYamlMapper().readValue(file.toFile(), new TypeReference<>() {});
+            if (contents.locations() != null) {
+                contents.locations().forEach((identifier, types) -> manifest.locations.put(identifier, new TreeSet<>(types)));
+            }
+            if (contents.playerTypes() != null) {
+                manifest.playerTypes.addAll(contents.playerTypes());
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to read storage manifest " + file + ", starting a new one", e);
+        }
+        return manifest;
+    }
+
+    /**
+     * Records the value type a provider was resolved with.
+     *
+     * @param valueType The class of the value type
+     * @param identifier The provider identifier
+     * @param player Whether the identifier is a player's UUID
+     */
+    void record(Class<?> valueType, String identifier, boolean player) {
+        boolean changed;
+        synchronized (this) {
+            changed = player
+                    ? playerTypes.add(valueType.getName())
+                    : locations.computeIfAbsent(identifier.toLowerCase(Locale.ROOT), k -> new TreeSet<>()).add(valueType.getName());
+        }
+
+        if (changed && writeScheduled.compareAndSet(false, true)) {
+            CompletableFuture.runAsync(this::write);
+        }
+    }
+
+    /**
+     * Gets the names of the value types recorded for an identifier.
+     *
+     * @param identifier The provider identifier, in any case
+     * @return The recorded type names
+     */
+    synchronized Set<String> typesOf(String identifier) {
+        return new LinkedHashSet<>(locations.getOrDefault(identifier.toLowerCase(Locale.ROOT), Set.of()));
+    }
+
+    /**
+     * Gets the names of the value types recorded for player locations.
+     *
+     * @return The recorded type names
+     */
+    synchronized Set<String> playerTypes() {
+        return new LinkedHashSet<>(playerTypes);
+    }
+
+    /**
+     * Writes the manifest to its file, replacing it atomically.
+     */
+    void write() {
+        synchronized (writeLock) {
+            writeScheduled.set(false);
+
+            Contents contents;
+            synchronized (this) {
+                Map<String, List<String>> copy = new TreeMap<>();
+                locations.forEach((identifier, types) -> copy.put(identifier, List.copyOf(types)));
+                contents = new Contents(copy, List.copyOf(playerTypes));
+            }
+
+            try {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+                Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+                StorageSerializer.getYamlMapper().writeValue(temp.toFile(), contents);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Failed to write storage manifest " + file, e);
+            }
+        }
+    }
+
+    /**
+     * The serialized form of the manifest.
+     *
+     * @param locations The value type names by lower-cased identifier
+     * @param playerTypes The value type names used with player locations
+     */
+    private record Contents(Map<String, List<String>> locations, Collection<String> playerTypes) {
+    }
+}
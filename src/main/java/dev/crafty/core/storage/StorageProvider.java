@@ -1,6 +1,7 @@
 package dev.crafty.core.storage;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
@@ -23,6 +24,19 @@ public interface StorageProvider<T, K> {
      */
     CompletableFuture<Void> save(K key, T value);
 
+    /**
+     * Saves several objects to the storage. Providers that can write them in one round trip
+     * override this; by default each object is saved on its own.
+     *
+     * @param values The objects to save, by key
+     * @return A CompletableFuture that completes when every object is saved
+     */
+    default CompletableFuture<Void> saveAll(Map<K, T> values) {
+        return CompletableFuture.allOf(values.entrySet().stream()
+                .map(entry -> save(entry.getKey(), entry.getValue()))
+                .toArray(CompletableFuture[]::new));
+    }
+
     /**
      * Retrieves an object from the storage.
      *
@@ -38,6 +52,17 @@ public interface StorageProvider<T, K> {
      */
     CompletableFuture<Collection<T>> getAll();
 
+    /**
+     * Retrieves the keys of all objects in the storage.
+     * Providers that cannot enumerate their keys complete the future exceptionally.
+     *
+     * @return A CompletableFuture that completes with a collection of all keys
+     */
+    default CompletableFuture<Collection<K>> getKeys() {
+        return CompletableFuture.failedFuture(
+                new UnsupportedOperationException(getClass().getSimpleName() + " does not support listing keys"));
+    }
+
     /**
      * Deletes an object from the storage.
      *
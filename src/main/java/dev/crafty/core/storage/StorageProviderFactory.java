@@ -38,7 +38,7 @@ public class StorageProviderFactory {
     public static <T> StorageProvider<T, String> createYamlProvider(Class<T> valueType, Path directory) {
         YamlStorageProvider<T> provider = new YamlStorageProvider<>(valueType, directory);
         provider.initialize();
-        return createCachedProvider(provider);
+        return createCachedProvider(provider, valueType);
     }
 
     /**
@@ -53,6 +53,25 @@ public class StorageProviderFactory {
         return new CachedStorageProvider<>(provider);
     }
 
+    /**
+     * Creates a cached storage provider that wraps the given provider and spills evicted entries
+     * into the shared off-heap tier configured on the {@link ProviderManager}, if any, keeping the
+     * on-heap size configured there.
+     *
+     * @param provider The provider to wrap
+     * @param valueType The class of the value type
+     * @param <T> The type of object to store
+     * @param <K> The type of key used to identify objects
+     * @return The cached storage provider
+     */
+    public static <T, K> StorageProvider<T, K> createCachedProvider(StorageProvider<T, K> provider, Class<T> valueType) {
+        ProviderManager manager = ProviderManager.getInstance();
+        long onHeapSize = manager.getOnHeapCacheSize();
+        return onHeapSize > 0
+                ? new CachedStorageProvider<>(provider, valueType, manager.getOffHeapCacheTier(), onHeapSize)
+                : new CachedStorageProvider<>(provider, valueType, manager.getOffHeapCacheTier());
+    }
+
     /**
      * Creates a PostgreSQL storage provider.
      *
@@ -69,7 +88,7 @@ public class StorageProviderFactory {
         PostgresStorageProvider<T> provider = new PostgresStorageProvider<>(
                 valueType, tableName, connectionUrl, username, password);
         provider.initialize();
-        return createCachedProvider(provider);
+        return createCachedProvider(provider, valueType);
     }
 
     /**
@@ -88,7 +107,7 @@ public class StorageProviderFactory {
         MySqlStorageProvider<T> provider = new MySqlStorageProvider<>(
                 valueType, tableName, connectionUrl, username, password);
         provider.initialize();
-        return createCachedProvider(provider);
+        return createCachedProvider(provider, valueType);
     }
 
     /**
@@ -106,7 +125,7 @@ public class StorageProviderFactory {
                 valueType, tableName, connectionUrl
         );
         provider.initialize();
-        return createCachedProvider(provider);
+        return createCachedProvider(provider, valueType);
     }
 
     /**
@@ -0,0 +1,55 @@
+package dev.crafty.core.storage.migration;
+
+/**
+ * A snapshot of a running or finished {@link StorageMigrator}.
+ *
+ * @param totalKeys The number of keys found in the source
+ * @param migratedKeys The number of keys copied in this run
+ * @param failedKeys The number of keys that could not be copied in this run
+ * @param skippedKeys The number of keys skipped because an earlier run already copied them
+ * @param elapsedMillis The time spent in this run
+ * @param finished Whether the migration has finished
+ * @since 1.0.0
+ */
+public record MigrationProgress(
+        long totalKeys,
+        long migratedKeys,
+        long failedKeys,
+        long skippedKeys,
+        long elapsedMillis,
+        boolean finished
+) {
+
+    /**
+     * Gets the number of keys handled so far, including skipped ones.
+     *
+     * @return The number of processed keys
+     */
+    public long processedKeys() {
+        return migratedKeys + failedKeys + skippedKeys;
+    }
+
+    /**
+     * Gets the percentage of keys processed.
+     *
+     * @return The completion percentage, between 0 and 100
+     */
+    public double percentComplete() {
+        return totalKeys == 0 ? 100.0 : processedKeys() * 100.0 / totalKeys;
+    }
+
+    /**
+     * Gets the copy rate of this run.
+     *
+     * @return The number of keys copied per second
+     */
+    public double operationsPerSecond() {
+        return elapsedMillis == 0 ? 0 : (migratedKeys + failedKeys) * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "%d/%d keys (%.1f%%), %d failed, %d resumed, %.0f ops/s".formatted(
+                processedKeys(), totalKeys, percentComplete(), failedKeys, skippedKeys, operationsPerSecond());
+    }
+}
@@ -0,0 +1,168 @@
+package dev.crafty.core.storage.migration;
+
+import co.aikar.commands.BaseCommand;
+import co.aikar.commands.annotation.CommandAlias;
+import co.aikar.commands.annotation.CommandPermission;
+import co.aikar.commands.annotation.Description;
+import co.aikar.commands.annotation.Subcommand;
+import co.aikar.commands.annotation.Syntax;
+import dev.crafty.core.CraftyCore;
+import dev.crafty.core.config.SectionWrapper;
+import dev.crafty.core.storage.ProviderManager;
+import dev.crafty.core.storage.ProviderManager.ProviderIdentity;
+import dev.crafty.core.storage.ProviderManager.StoredProviders;
+import dev.crafty.core.storage.StorageProvider;
+import dev.crafty.core.storage.StorageProviderFactory.StorageType;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.MemoryConfiguration;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code /craftycore storage migrate <type>} copies every provider stored in the current default
+ * storage type (see {@link ProviderManager#getStoredProviderIdentities(StorageType)}) into the
+ * given one, while the server keeps running. Stored locations that cannot be matched with a value
+ * type are skipped and listed, so their owners can migrate them once the type is known.
+ * Checkpoints are kept under {@code plugins/CraftyCore/migrations}, so re-running the command
+ * after an interruption resumes each provider where it stopped.
+ *
+ * @since 1.0.0
+ */
+@CommandAlias("craftycore")
+public class StorageMigrationCommand extends BaseCommand {
+    private static final long PROGRESS_INTERVAL_MILLIS = 5000;
+
+    private final CraftyCore plugin;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public StorageMigrationCommand(CraftyCore plugin) {
+        this.plugin = plugin;
+    }
+
+    @Subcommand("storage migrate")
+    @CommandPermission("craftycore.storage.migrate")
+    @Syntax("<YAML|POSTGRES|MYSQL|MONGODB>")
+    @Description("Copy all known storage data from the current storage type into another")
+    public void onMigrate(CommandSender sender, StorageType targetType) {
+        ProviderManager manager = ProviderManager.getInstance();
+        StorageType sourceType = manager.getDefaultStorageType();
+
+        if (sourceType == targetType) {
+            sender.sendMessage("Storage is already using " + targetType + ".");
+            return;
+        }
+
+        if (!running.compareAndSet(false, true)) {
+            sender.sendMessage("A storage migration is already running.");
+            return;
+        }
+
+        // Reset the flag if anything fails before the migration takes ownership of it
+        boolean started = false;
+        try {
+            ConfigurationSection section = plugin.getConfig().getConfigurationSection("storage.migration");
+            SectionWrapper settings = new SectionWrapper(section != null ? section : new MemoryConfiguration());
+            int batchSize = settings.getInt("batch-size").filter(value -> value > 0).orElse(100);
+            int parallelism = settings.getInt("parallelism").filter(value -> value > 0).orElse(4);
+            int maxOperationsPerSecond = settings.getInt("max-operations-per-second").orElse(0);
+            Path checkpointFolder = plugin.getDataFolder().toPath()
+                    .resolve("migrations")
+                    .resolve(sourceType.name().toLowerCase() + "-to-" + targetType.name().toLowerCase());
+
+            sender.sendMessage("Listing the storage providers stored in " + sourceType + "...");
+
+            // Listing queries the source backend, so it runs off the main thread
+            CompletableFuture.supplyAsync(() -> manager.getStoredProviderIdentities(sourceType)).thenCompose(stored -> {
+                reportUnresolved(sender, sourceType, stored);
+                List<ProviderIdentity> identities = stored.identities();
+                message(sender, "Migrating " + identities.size() + " storage providers from " + sourceType + " to " + targetType + "...");
+
+                CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+                for (ProviderIdentity identity : identities) {
+                    chain = chain.thenCompose(ignored -> migrate(
+                            sender, identity, sourceType, targetType, batchSize, parallelism, maxOperationsPerSecond, checkpointFolder));
+                }
+                return chain;
+            }).whenComplete((ignored, throwable) -> {
+                running.set(false);
+                if (throwable != null) {
+                    Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+                    plugin.logger.error("Storage migration failed: " + cause.getMessage());
+                    message(sender, "Storage migration failed: " + cause.getMessage());
+                } else {
+                    message(sender, "Storage migration to " + targetType + " finished. Set storage.type to " + targetType + " and restart to use it.");
+                }
+            });
+            started = true;
+        } finally {
+            if (!started) {
+                running.set(false);
+            }
+        }
+    }
+
+    private void reportUnresolved(CommandSender sender, StorageType sourceType, StoredProviders stored) {
+        List<String> unresolved = stored.unresolved();
+        if (unresolved.isEmpty()) {
+            return;
+        }
+
+        String skipped = "Skipping " + unresolved.size() + " " + sourceType
+                + " locations whose value type is unknown or ambiguous: " + String.join(", ", unresolved);
+        plugin.logger.warn(skipped);
+        message(sender, skipped);
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompletableFuture<Void> migrate(CommandSender sender,
+                                            ProviderIdentity identity,
+                                            StorageType sourceType,
+                                            StorageType targetType,
+                                            int batchSize,
+                                            int parallelism,
+                                            int maxOperationsPerSecond,
+                                            Path checkpointFolder) {
+        ProviderManager manager = ProviderManager.getInstance();
+        Class<Object> valueType = (Class<Object>) identity.valueType();
+        StorageProvider<Object, String> source = manager.getProvider(sourceType, valueType, identity.identifier());
+        StorageProvider<Object, String> target = manager.getProvider(targetType, valueType, identity.identifier());
+
+        String name = valueType.getSimpleName() + "/" + identity.identifier();
+        Path checkpoint = checkpointFolder.resolve(
+                (valueType.getName() + "-" + identity.identifier()).replaceAll("[^A-Za-z0-9._-]", "_") + ".checkpoint");
+        AtomicLong lastReport = new AtomicLong();
+
+        return StorageMigrator.from(source)
+                .to(target)
+                .batchSize(batchSize)
+                .parallelism(parallelism)
+                .maxOperationsPerSecond(maxOperationsPerSecond)
+                .checkpoint(checkpoint)
+                .onProgress(progress -> {
+                    // Batches complete concurrently, so only the caller that advances the timestamp reports
+                    long now = System.currentTimeMillis();
+                    long last = lastReport.get();
+                    if (progress.finished() || (now - last >= PROGRESS_INTERVAL_MILLIS && lastReport.compareAndSet(last, now))) {
+                        plugin.logger.info("Migrating " + name + ": " + progress);
+                        message(sender, "Migrating " + name + ": " + progress);
+                    }
+                })
+                .migrate()
+                .thenAccept(progress -> {
+                    if (progress.failedKeys() > 0) {
+                        plugin.logger.warn("Migration of " + name + " left " + progress.failedKeys() + " keys behind; run the command again to retry them.");
+                    }
+                });
+    }
+
+    private void message(CommandSender sender, String message) {
+        Bukkit.getScheduler().runTask(plugin, () -> sender.sendMessage(message));
+    }
+}
@@ -0,0 +1,333 @@
+package dev.crafty.core.storage.migration;
+
+import dev.crafty.core.storage.CachedStorageProvider;
+import dev.crafty.core.storage.StorageProvider;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Copies every object from one {@link StorageProvider} into another.
+ * <p>
+ * Keys are read from the source, sorted and split into batches. The values of a batch are written
+ * with one {@link StorageProvider#saveAll(Map)} call and up to {@code parallelism} batches are
+ * written concurrently. Reads are throttled to a maximum rate, and progress is reported after
+ * every batch. When a checkpoint file is configured, the last key of the highest contiguous
+ * completed batch is recorded there so an interrupted migration resumes where it stopped.
+ * Batches that contain a failed key never advance the checkpoint, so resuming retries them.
+ * </p>
+ *
+ * <pre>{@code
+ * StorageMigrator.from(yamlProvider)
+ *         .to(postgresProvider)
+ *         .batchSize(200)
+ *         .maxOperationsPerSecond(1000)
+ *         .checkpoint(dataFolder.resolve("players.checkpoint"))
+ *         .onProgress(progress -> logger.info(progress.toString()))
+ *         .migrate();
+ * }</pre>
+ *
+ * @param <T> The type of object being migrated
+ * @since 1.0.0
+ */
+public class StorageMigrator<T> {
+    private final StorageProvider<T, String> source;
+    private StorageProvider<T, String> target;
+    private int batchSize = 100;
+    private int parallelism = 4;
+    private int maxOperationsPerSecond = 0;
+    private Path checkpointFile;
+    private Consumer<MigrationProgress> progressListener = progress -> {};
+
+    private StorageMigrator(StorageProvider<T, String> source) {
+        this.source = source;
+    }
+
+    /**
+     * Starts configuring a migration that reads from the given provider.
+     *
+     * @param source The provider to copy from
+     * @param <T> The type of object being migrated
+     * @return A new StorageMigrator
+     */
+    public static <T> StorageMigrator<T> from(StorageProvider<T, String> source) {
+        return new StorageMigrator<>(source);
+    }
+
+    /**
+     * Sets the provider to copy into.
+     *
+     * @param target The provider to copy into
+     * @return this StorageMigrator instance
+     */
+    public StorageMigrator<T> to(StorageProvider<T, String> target) {
+        this.target = target;
+        return this;
+    }
+
+    /**
+     * Sets the number of keys written per batch.
+     *
+     * @param batchSize The batch size, at least 1
+     * @return this StorageMigrator instance
+     */
+    public StorageMigrator<T> batchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of batches written concurrently.
+     *
+     * @param parallelism The number of concurrent batches, at least 1
+     * @return this StorageMigrator instance
+     */
+    public StorageMigrator<T> parallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        return this;
+    }
+
+    /**
+     * Limits how many objects are copied per second, to keep load on a live server bounded.
+     *
+     * @param maxOperationsPerSecond The maximum copy rate, or 0 for no limit
+     * @return this StorageMigrator instance
+     */
+    public StorageMigrator<T> maxOperationsPerSecond(int maxOperationsPerSecond) {
+        this.maxOperationsPerSecond = Math.max(0, maxOperationsPerSecond);
+        return this;
+    }
+
+    /**
+     * Sets the file used to record and resume progress.
+     *
+     * @param checkpointFile The checkpoint file, or null to always start from the beginning
+     * @return this StorageMigrator instance
+     */
+    public StorageMigrator<T> checkpoint(Path checkpointFile) {
+        this.checkpointFile = checkpointFile;
+        return this;
+    }
+
+    /**
+     * Sets the listener notified after every batch and once more when the migration ends.
+     *
+     * @param progressListener The progress listener
+     * @return this StorageMigrator instance
+     */
+    public StorageMigrator<T> onProgress(Consumer<MigrationProgress> progressListener) {
+        this.progressListener = progressListener;
+        return this;
+    }
+
+    /**
+     * Runs the migration on a background thread.
+     *
+     * @return A CompletableFuture that completes with the final progress once every batch is done
+     * @throws IllegalStateException If no target provider was set
+     */
+    public CompletableFuture<MigrationProgress> migrate() {
+        if (target == null) {
+            throw new IllegalStateException("No target provider set for migration");
+        }
+
+        ExecutorService coordinator = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "CraftyCore-StorageMigrator");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        CompletableFuture<MigrationProgress> result = CompletableFuture.supplyAsync(this::run, coordinator);
+        result.whenComplete((progress, throwable) -> coordinator.shutdown());
+        return result;
+    }
+
+    private MigrationProgress run() {
+        // Read straight from the backend so a bulk copy does not churn the source's cache
+        StorageProvider<T, String> reader = source instanceof CachedStorageProvider<T, String> cached
+                ? cached.getDelegate()
+                : source;
+
+        List<String> keys = new ArrayList<>(reader.getKeys().join());
+        keys.sort(null);
+
+        String resumeAfter = readCheckpoint();
+        int start = 0;
+        if (resumeAfter != null) {
+            while (start < keys.size() && keys.get(start).compareTo(resumeAfter) <= 0) {
+                start++;
+            }
+        }
+
+        List<String> pending = keys.subList(start, keys.size());
+        int batchCount = (pending.size() + batchSize - 1) / batchSize;
+
+        Tracker tracker = new Tracker(keys.size(), start, batchCount);
+        Semaphore inFlight = new Semaphore(parallelism);
+        long intervalNanos = maxOperationsPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / maxOperationsPerSecond : 0;
+        long nextSlot = System.nanoTime();
+
+        List<CompletableFuture<Void>> batches = new ArrayList<>(batchCount);
+        for (int batch = 0; batch < batchCount; batch++) {
+            List<String> batchKeys = pending.subList(batch * batchSize, Math.min(pending.size(), (batch + 1) * batchSize));
+
+            inFlight.acquireUninterruptibly();
+
+            List<CompletableFuture<Optional<T>>> reads = new ArrayList<>(batchKeys.size());
+            for (String key : batchKeys) {
+                if (intervalNanos > 0) {
+                    long wait = nextSlot - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    nextSlot = Math.max(nextSlot, System.nanoTime() - intervalNanos) + intervalNanos;
+                }
+                reads.add(reader.get(key));
+            }
+
+            int batchIndex = batch;
+            String lastKey = batchKeys.get(batchKeys.size() - 1);
+            batches.add(copy(batchKeys, reads)
+                    .thenAccept(failed -> tracker.batchDone(batchIndex, lastKey, batchKeys.size() - failed, failed))
+                    .whenComplete((ignored, throwable) -> inFlight.release()));
+        }
+
+        CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).join();
+
+        MigrationProgress progress = tracker.snapshot(true);
+        progressListener.accept(progress);
+        return progress;
+    }
+
+    /**
+     * Writes the values read for a batch to the target with a single {@link StorageProvider#saveAll(Map)}.
+     *
+     * @return A future with the number of keys that could not be copied
+     */
+    private CompletableFuture<Integer> copy(List<String> keys, List<CompletableFuture<Optional<T>>> reads) {
+        return CompletableFuture.allOf(reads.stream()
+                        .map(read -> read.handle((value, throwable) -> null))
+                        .toArray(CompletableFuture[]::new))
+                .thenCompose(ignored -> {
+                    Map<String, T> values = new LinkedHashMap<>();
+                    int failedReads = 0;
+                    for (int i = 0; i < keys.size(); i++) {
+                        CompletableFuture<Optional<T>> read = reads.get(i);
+                        if (read.isCompletedExceptionally()) {
+                            failedReads++;
+                        } else {
+                            String key = keys.get(i);
+                            read.join().ifPresent(value -> values.put(key, value));
+                        }
+                    }
+
+                    int readFailures = failedReads;
+                    if (values.isEmpty()) {
+                        return CompletableFuture.completedFuture(readFailures);
+                    }
+                    return target.saveAll(values)
+                            .handle((saved, throwable) -> throwable == null ? readFailures : readFailures + values.size());
+                });
+    }
+
+    private String readCheckpoint() {
+        if (checkpointFile == null || !Files.exists(checkpointFile)) {
+            return null;
+        }
+
+        try {
+            String key = Files.readString(checkpointFile, StandardCharsets.UTF_8);
+            return key.isEmpty() ? null : key;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read migration checkpoint: " + checkpointFile, e);
+        }
+    }
+
+    private void writeCheckpoint(String key) {
+        if (checkpointFile == null) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(checkpointFile.toAbsolutePath().getParent());
+            Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+            Files.writeString(temp, key, StandardCharsets.UTF_8);
+            Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write migration checkpoint: " + checkpointFile, e);
+        }
+    }
+
+    /**
+     * Tracks completed batches and advances the checkpoint over the contiguous completed prefix.
+     */
+    private class Tracker {
+        private final long startNanos = System.nanoTime();
+        private final long totalKeys;
+        private final long skippedKeys;
+        private final AtomicLong migrated = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+
+        private final boolean[] done;
+        private final boolean[] clean;
+        private final String[] lastKeys;
+        private int checkpointed = 0;
+
+        private Tracker(long totalKeys, long skippedKeys, int batchCount) {
+            this.totalKeys = totalKeys;
+            this.skippedKeys = skippedKeys;
+            this.done = new boolean[batchCount];
+            this.clean = new boolean[batchCount];
+            this.lastKeys = new String[batchCount];
+        }
+
+        private void batchDone(int batch, String lastKey, int migratedKeys, int failedKeys) {
+            migrated.addAndGet(migratedKeys);
+            failed.addAndGet(failedKeys);
+
+            synchronized (this) {
+                done[batch] = true;
+                clean[batch] = failedKeys == 0;
+                lastKeys[batch] = lastKey;
+
+                String checkpoint = null;
+                while (checkpointed < done.length && done[checkpointed] && clean[checkpointed]) {
+                    checkpoint = lastKeys[checkpointed];
+                    checkpointed++;
+                }
+                if (checkpoint != null) {
+                    writeCheckpoint(checkpoint);
+                }
+            }
+
+            progressListener.accept(snapshot(false));
+        }
+
+        private MigrationProgress snapshot(boolean finished) {
+            return new MigrationProgress(
+                    totalKeys,
+                    migrated.get(),
+                    failed.get(),
+                    skippedKeys,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+                    finished
+            );
+        }
+    }
+}
@@ -3,16 +3,20 @@ package dev.crafty.core.storage.providers;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.mongodb.ConnectionString;
 import com.mongodb.MongoClientSettings;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.ReplaceOneModel;
 import com.mongodb.client.model.ReplaceOptions;
 import com.mongodb.reactivestreams.client.MongoClient;
 import com.mongodb.reactivestreams.client.MongoClients;
 import com.mongodb.reactivestreams.client.MongoCollection;
 import com.mongodb.reactivestreams.client.MongoDatabase;
 import dev.crafty.core.storage.AbstractStorageProvider;
+import dev.crafty.core.storage.serialization.Compression;
 import dev.crafty.core.storage.serialization.StorageSerializer;
 import org.bson.Document;
 import org.bson.codecs.configuration.CodecRegistries;
 import org.bson.codecs.pojo.PojoCodecProvider;
+import org.bson.types.Binary;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 
@@ -20,19 +24,30 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 
 /**
  * An asynchronous MongoDB storage provider implementation using the Reactive Streams driver.
- * Handles serialization and deserialization of objects to and from MongoDB documents.
+ * Handles serialization and deserialization of objects to and from MongoDB documents. When
+ * compression is configured, a compressed object is stored as BinData in a document holding only
+ * the algorithm and the compressed JSON.
  *
  * @param <T> The type of objects to store.
  * @since 1.0.0
  */
 public class MongoDbStorageProvider<T> extends AbstractStorageProvider<T, String> {
 
+    /**
+     * The database that holds the collections of every provider.
+     */
+    public static final String DATABASE_NAME = "master";
+
+    private static final String COMPRESSION_FIELD = "_z";
+    private static final String COMPRESSED_DATA_FIELD = "_zdata";
+
     private final MongoCollection<Document> collection;
 
     /**
@@ -61,7 +76,7 @@ public class MongoDbStorageProvider<T> extends AbstractStorageProvider<T, String
                         .build()
         );
 
-        MongoDatabase database = mongoClient.getDatabase("master");
+        MongoDatabase database = mongoClient.getDatabase(DATABASE_NAME);
         this.collection = database.getCollection(tableName, Document.class);
     }
 
@@ -79,14 +94,12 @@ public class MongoDbStorageProvider<T> extends AbstractStorageProvider<T, String
     @Override
     public CompletableFuture<Void> save(String key, T value) {
         Document filter = new Document("_id", key);
-        String json = null;
+        Document document;
         try {
-            json = StorageSerializer.toJson(value);
+            document = toDocument(key, value);
         } catch (JsonProcessingException e) {
             throw new RuntimeException(e);
         }
-        Document document = Document.parse(json);
-        document.put("_id", key);
 
         CompletableFuture<Void> future = new CompletableFuture<>();
 
@@ -96,6 +109,37 @@ public class MongoDbStorageProvider<T> extends AbstractStorageProvider<T, String
         return future;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The objects are written with a single unordered bulk write.
+     * </p>
+     */
+    @Override
+    public CompletableFuture<Void> saveAll(Map<String, T> values) {
+        if (values.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        List<ReplaceOneModel<Document>> writes = new ArrayList<>(values.size());
+        for (Map.Entry<String, T> entry : values.entrySet()) {
+            Document document;
+            try {
+                document = toDocument(entry.getKey(), entry.getValue());
+            } catch (JsonProcessingException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+            writes.add(new ReplaceOneModel<>(new Document("_id", entry.getKey()), document, new ReplaceOptions().upsert(true)));
+        }
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+
+        collection.bulkWrite(writes, new BulkWriteOptions().ordered(false))
+                .subscribe(toCompletableFutureSubscriber(future));
+
+        return future;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -119,7 +163,7 @@ public class MongoDbStorageProvider<T> extends AbstractStorageProvider<T, String
                     @Override
                     public void onNext(Document document) {
                         try {
-                            result = StorageSerializer.fromJson(document.toJson(), valueType);
+                            result = fromDocument(document);
                         } catch (IOException e) {
                             throw new RuntimeException(e);
                         }
@@ -161,7 +205,7 @@ public class MongoDbStorageProvider<T> extends AbstractStorageProvider<T, String
                     @Override
                     public void onNext(Document document) {
                         try {
-                            T value = StorageSerializer.fromJson(document.toJson(), valueType);
+                            T value = fromDocument(document);
                             results.add(value);
                         } catch (IOException e) {
                             throw new CompletionException(e);
@@ -182,6 +226,42 @@ public class MongoDbStorageProvider<T> extends AbstractStorageProvider<T, String
         return future;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Collection<String>> getKeys() {
+        CompletableFuture<Collection<String>> future = new CompletableFuture<>();
+
+        List<String> results = new ArrayList<>();
+
+        collection.find()
+                .projection(new Document("_id", 1))
+                .subscribe(new Subscriber<>() {
+                    @Override
+                    public void onSubscribe(Subscription s) {
+                        s.request(Long.MAX_VALUE);
+                    }
+
+                    @Override
+                    public void onNext(Document document) {
+                        results.add(String.valueOf(document.get("_id")));
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        future.completeExceptionally(t);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        future.complete(results);
+                    }
+                });
+
+        return future;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -197,6 +277,65 @@ public class MongoDbStorageProvider<T> extends AbstractStorageProvider<T, String
         return future;
     }
 
+    private static Document toDocument(String key, Object value) throws JsonProcessingException {
+        StorageSerializer.StoredValue stored = StorageSerializer.toStoredValue(value);
+        Document document = stored.compressed() == null
+                ? Document.parse(stored.json())
+                : new Document(COMPRESSION_FIELD, stored.compression().getId())
+                        .append(COMPRESSED_DATA_FIELD, new Binary(stored.compressed()));
+        document.put("_id", key);
+        return document;
+    }
+
+    private T fromDocument(Document document) throws IOException {
+        if (document.get(COMPRESSED_DATA_FIELD) instanceof Binary data) {
+            Compression compression = Compression.fromId(document.getString(COMPRESSION_FIELD));
+            if (compression == null) {
+                throw new IOException("Unknown compression for document " + document.get("_id"));
+            }
+            return StorageSerializer.fromCompressed(compression, data.getData(), valueType);
+        }
+        return StorageSerializer.fromJson(document.toJson(), valueType);
+    }
+
+    /**
+     * Lists the names of the collections in the providers' database.
+     *
+     * @param connectionUrl The MongoDB connection URL.
+     * @return A CompletableFuture with the collection names.
+     */
+    public static CompletableFuture<List<String>> listCollections(String connectionUrl) {
+        CompletableFuture<List<String>> future = new CompletableFuture<>();
+        MongoClient mongoClient = MongoClients.create(connectionUrl);
+
+        List<String> results = new ArrayList<>();
+        mongoClient.getDatabase(DATABASE_NAME)
+                .listCollectionNames()
+                .subscribe(new Subscriber<>() {
+                    @Override
+                    public void onSubscribe(Subscription s) {
+                        s.request(Long.MAX_VALUE);
+                    }
+
+                    @Override
+                    public void onNext(String name) {
+                        results.add(name);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        future.completeExceptionally(t);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        future.complete(results);
+                    }
+                });
+
+        return future.whenComplete((names, throwable) -> mongoClient.close());
+    }
+
     /**
      * Utility method to create a Subscriber that completes the given CompletableFuture
      * when the operation completes or fails.
@@ -10,12 +10,14 @@ import java.io.IOException;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 /**
  * A storage provider that stores objects in a MySQL database.
- * Objects are serialized to JSON before storage.
+ * Objects are serialized to JSON before storage. When compression is configured, the compressed
+ * JSON is stored as raw bytes in a {@code data_z} column (see {@link StorageSerializer#toStoredValue(Object)}).
  *
  * @param <T> The type of object to store
  * @since 1.0.0
@@ -64,8 +66,9 @@ public class MySqlStorageProvider<T> extends AbstractStorageProvider<T, String>
                 
                 String createTableSql = String.format(
                         "CREATE TABLE IF NOT EXISTS %s (" +
-                        "key VARCHAR(255) PRIMARY KEY, " +
+                        "`key` VARCHAR(255) PRIMARY KEY, " +
                         "data JSON NOT NULL, " +
+                        "data_z LONGBLOB, " +
                         "created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
                         "updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP" +
                         ")", tableName);
@@ -73,10 +76,17 @@ public class MySqlStorageProvider<T> extends AbstractStorageProvider<T, String>
                 stmt.execute(createTableSql);
                 
                 String createIndexSql = String.format(
-                        "CREATE INDEX IF NOT EXISTS %s_key_idx ON %s (key)",
+                        "CREATE INDEX IF NOT EXISTS %s_key_idx ON %s (`key`)",
                         tableName, tableName);
                 
                 stmt.execute(createIndexSql);
+
+                // Tables created before compressed values were stored as binary lack the column
+                try (ResultSet rs = conn.getMetaData().getColumns(conn.getCatalog(), null, tableName, "data_z")) {
+                    if (!rs.next()) {
+                        stmt.execute(String.format("ALTER TABLE %s ADD COLUMN data_z LONGBLOB", tableName));
+                    }
+                }
                 
             } catch (SQLException e) {
                 throw new RuntimeException("Failed to initialize database", e);
@@ -91,20 +101,22 @@ public class MySqlStorageProvider<T> extends AbstractStorageProvider<T, String>
     public CompletableFuture<Void> save(String key, T value) {
         return CompletableFuture.runAsync(() -> {
             try {
-                String json = StorageSerializer.toJson(value);
+                StorageSerializer.StoredValue stored = StorageSerializer.toStoredValue(value);
                 
                 String sql = String.format(
-                        "INSERT INTO %s (key, data, updated_at) " +
-                        "VALUES (?, ?, CURRENT_TIMESTAMP) " +
-                        "ON DUPLICATE KEY UPDATE data = ?, updated_at = CURRENT_TIMESTAMP",
+                        "INSERT INTO %s (`key`, data, data_z, updated_at) " +
+                        "VALUES (?, ?, ?, CURRENT_TIMESTAMP) " +
+                        "ON DUPLICATE KEY UPDATE data = ?, data_z = ?, updated_at = CURRENT_TIMESTAMP",
                         tableName);
                 
                 try (Connection conn = dataSource.getConnection();
                      PreparedStatement stmt = conn.prepareStatement(sql)) {
                     
                     stmt.setString(1, key);
-                    stmt.setString(2, json);
-                    stmt.setString(3, json);
+                    stmt.setString(2, stored.json());
+                    stmt.setBytes(3, stored.compressed());
+                    stmt.setString(4, stored.json());
+                    stmt.setBytes(5, stored.compressed());
                     
                     stmt.executeUpdate();
                 }
@@ -113,6 +125,53 @@ public class MySqlStorageProvider<T> extends AbstractStorageProvider<T, String>
             }
         });
     }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The objects are written as one JDBC batch in a single transaction.
+     * </p>
+     */
+    @Override
+    public CompletableFuture<Void> saveAll(Map<String, T> values) {
+        if (values.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return CompletableFuture.runAsync(() -> {
+            String sql = String.format(
+                    "INSERT INTO %s (`key`, data, data_z, updated_at) " +
+                    "VALUES (?, ?, ?, CURRENT_TIMESTAMP) " +
+                    "ON DUPLICATE KEY UPDATE data = ?, data_z = ?, updated_at = CURRENT_TIMESTAMP",
+                    tableName);
+
+            try (Connection conn = dataSource.getConnection()) {
+                boolean autoCommit = conn.getAutoCommit();
+                conn.setAutoCommit(false);
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (Map.Entry<String, T> entry : values.entrySet()) {
+                        StorageSerializer.StoredValue stored = StorageSerializer.toStoredValue(entry.getValue());
+                        stmt.setString(1, entry.getKey());
+                        stmt.setString(2, stored.json());
+                        stmt.setBytes(3, stored.compressed());
+                        stmt.setString(4, stored.json());
+                        stmt.setBytes(5, stored.compressed());
+                        stmt.addBatch();
+                    }
+
+                    stmt.executeBatch();
+                    conn.commit();
+                } catch (JsonProcessingException | SQLException e) {
+                    conn.rollback();
+                    throw new RuntimeException("Failed to save " + values.size() + " objects", e);
+                } finally {
+                    conn.setAutoCommit(autoCommit);
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Failed to save " + values.size() + " objects", e);
+            }
+        });
+    }
     
     /**
      * {@inheritDoc}
@@ -120,7 +179,7 @@ public class MySqlStorageProvider<T> extends AbstractStorageProvider<T, String>
     @Override
     public CompletableFuture<Optional<T>> get(String key) {
         return CompletableFuture.supplyAsync(() -> {
-            String sql = String.format("SELECT data FROM %s WHERE `key` = ?", tableName);
+            String sql = String.format("SELECT data, data_z FROM %s WHERE `key` = ?", tableName);
             
             try (Connection conn = dataSource.getConnection();
                  PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -130,7 +189,7 @@ public class MySqlStorageProvider<T> extends AbstractStorageProvider<T, String>
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
                         String json = rs.getString("data");
-                        T value = StorageSerializer.fromJson(json, valueType);
+                        T value = StorageSerializer.fromStoredValue(json, rs.getBytes("data_z"), valueType);
                         return Optional.ofNullable(value);
                     } else {
                         return Optional.empty();
@@ -148,7 +207,7 @@ public class MySqlStorageProvider<T> extends AbstractStorageProvider<T, String>
     @Override
     public CompletableFuture<Collection<T>> getAll() {
         return CompletableFuture.supplyAsync(() -> {
-            String sql = String.format("SELECT data FROM %s", tableName);
+            String sql = String.format("SELECT data, data_z FROM %s", tableName);
             Collection<T> result = new ArrayList<>();
             
             try (Connection conn = dataSource.getConnection();
@@ -157,7 +216,7 @@ public class MySqlStorageProvider<T> extends AbstractStorageProvider<T, String>
                 
                 while (rs.next()) {
                     String json = rs.getString("data");
-                    T value = StorageSerializer.fromJson(json, valueType);
+                    T value = StorageSerializer.fromStoredValue(json, rs.getBytes("data_z"), valueType);
                     result.add(value);
                 }
                 
@@ -168,6 +227,30 @@ public class MySqlStorageProvider<T> extends AbstractStorageProvider<T, String>
         });
     }
     
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Collection<String>> getKeys() {
+        return CompletableFuture.supplyAsync(() -> {
+            String sql = String.format("SELECT `key` FROM %s", tableName);
+            Collection<String> result = new ArrayList<>();
+            
+            try (Connection conn = dataSource.getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                
+                while (rs.next()) {
+                    result.add(rs.getString(1));
+                }
+                
+                return result;
+            } catch (SQLException e) {
+                throw new RuntimeException("Failed to get all keys", e);
+            }
+        });
+    }
+    
     /**
      * {@inheritDoc}
      */
@@ -14,6 +14,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * A storage provider that stores objects in YAML files.
@@ -124,6 +125,23 @@ public class YamlStorageProvider<T> extends AbstractStorageProvider<T, String> {
         });
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Collection<String>> getKeys() {
+        return CompletableFuture.supplyAsync(() -> {
+            try (Stream<Path> files = Files.list(directory)) {
+                return files
+                        .filter(path -> path.toString().endsWith(fileExtension))
+                        .map(this::getKeyFromPath)
+                        .collect(Collectors.toList());
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to list files in directory: " + directory, e);
+            }
+        });
+    }
+
     /**
      * {@inheritDoc}
      */
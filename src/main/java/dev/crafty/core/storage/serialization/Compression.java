@@ -0,0 +1,149 @@
+package dev.crafty.core.storage.serialization;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+
+/**
+ * Compression algorithms available for stored values.
+ *
+ * @since 1.0.0
+ */
+public enum Compression {
+    /**
+     * Values are stored as plain JSON.
+     */
+    NONE("none") {
+        @Override
+        public byte[] compress(byte[] data) {
+            return data;
+        }
+
+        @Override
+        public byte[] decompress(byte[] data) {
+            return data;
+        }
+    },
+
+    /**
+     * Raw deflate at the fastest level; the cheapest option for large, repetitive JSON.
+     */
+    DEFLATE("deflate") {
+        @Override
+        public byte[] compress(byte[] data) {
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+            try {
+                deflater.setInput(data);
+                deflater.finish();
+
+                ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+                byte[] buffer = new byte[8192];
+                while (!deflater.finished()) {
+                    output.write(buffer, 0, deflater.deflate(buffer));
+                }
+                return output.toByteArray();
+            } finally {
+                deflater.end();
+            }
+        }
+
+        @Override
+        public byte[] decompress(byte[] data) throws IOException {
+            Inflater inflater = new Inflater(true);
+            try {
+                inflater.setInput(data);
+
+                ByteArrayOutputStream output = new ByteArrayOutputStream(data.length * 4);
+                byte[] buffer = new byte[8192];
+                while (!inflater.finished()) {
+                    int read = inflater.inflate(buffer);
+                    if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new IOException("Truncated deflate data");
+                    }
+                    output.write(buffer, 0, read);
+                }
+                return output.toByteArray();
+            } catch (DataFormatException e) {
+                throw new IOException("Invalid deflate data", e);
+            } finally {
+                inflater.end();
+            }
+        }
+    },
+
+    /**
+     * GZIP at the default level; slower than {@link #DEFLATE} but compresses slightly better.
+     */
+    GZIP("gzip") {
+        @Override
+        public byte[] compress(byte[] data) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+            try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+                gzip.write(data);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to gzip data", e);
+            }
+            return output.toByteArray();
+        }
+
+        @Override
+        public byte[] decompress(byte[] data) throws IOException {
+            try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data))) {
+                return gzip.readAllBytes();
+            }
+        }
+    };
+
+    private final String id;
+
+    Compression(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the identifier written in front of compressed payloads.
+     *
+     * @return The algorithm identifier
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Compresses the given bytes.
+     *
+     * @param data The uncompressed data
+     * @return The compressed data
+     */
+    public abstract byte[] compress(byte[] data);
+
+    /**
+     * Decompresses the given bytes.
+     *
+     * @param data The compressed data
+     * @return The uncompressed data
+     * @throws IOException If the data is not valid for this algorithm
+     */
+    public abstract byte[] decompress(byte[] data) throws IOException;
+
+    /**
+     * Finds the algorithm for an identifier written by {@link #getId()}.
+     *
+     * @param id The algorithm identifier
+     * @return The algorithm, or null if the identifier is unknown
+     */
+    public static Compression fromId(String id) {
+        for (Compression compression : values()) {
+            if (compression.id.equals(id)) {
+                return compression;
+            }
+        }
+        return null;
+    }
+}
@@ -2,11 +2,15 @@ package dev.crafty.core.storage.serialization;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utility class for serializing and deserializing objects using Jackson.
@@ -15,6 +19,19 @@ import java.util.Map;
 public class StorageSerializer {
     private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
     private static final ObjectMapper YAML_MAPPER = new ObjectMapper(new YAMLFactory());
+
+    /**
+     * The single field of the JSON envelope of a compressed value. It holds
+     * {@code "<algorithm>:<base64 payload>"} for {@link #toStorageJson(Object)}, or just the
+     * algorithm for {@link #toStoredValue(Object)}, whose payload is stored as binary beside it.
+     * The envelope is itself valid JSON, so compressed and plain values can live side by side in
+     * JSON/JSONB columns.
+     */
+    public static final String COMPRESSED_FIELD = "$z";
+    private static final String COMPRESSED_PREFIX = "{\"" + COMPRESSED_FIELD + "\"";
+
+    private static final Map<Class<?>, CompressionSettings> COMPRESSION = new ConcurrentHashMap<>();
+    private static volatile CompressionSettings defaultCompression = new CompressionSettings(Compression.NONE, Integer.MAX_VALUE);
     
     /**
      * Converts an object to a JSON string.
@@ -101,6 +118,215 @@ public class StorageSerializer {
         return JSON_MAPPER.convertValue(map, valueType);
     }
     
+    /**
+     * Sets the compression used for stored values of a specific type and its subtypes, overriding
+     * the default. A setting for a subtype takes precedence over one for its supertypes.
+     *
+     * @param valueType The class of the stored values
+     * @param compression The compression algorithm
+     * @param thresholdBytes The minimum JSON size in bytes before values are compressed
+     */
+    public static void setCompression(Class<?> valueType, Compression compression, int thresholdBytes) {
+        COMPRESSION.put(valueType, new CompressionSettings(compression, thresholdBytes));
+    }
+
+    /**
+     * Removes the type-specific compression for a type, so it falls back to the default.
+     *
+     * @param valueType The class of the stored values
+     */
+    public static void clearCompression(Class<?> valueType) {
+        COMPRESSION.remove(valueType);
+    }
+
+    /**
+     * Sets the compression used for stored values of every type without a specific setting.
+     *
+     * @param compression The compression algorithm
+     * @param thresholdBytes The minimum JSON size in bytes before values are compressed
+     */
+    public static void setDefaultCompression(Compression compression, int thresholdBytes) {
+        defaultCompression = new CompressionSettings(compression, thresholdBytes);
+    }
+
+    /**
+     * Gets the compression that applies to stored values of a type.
+     *
+     * @param valueType The class of the stored values
+     * @return The compression settings
+     */
+    public static CompressionSettings getCompression(Class<?> valueType) {
+        if (COMPRESSION.isEmpty()) {
+            return defaultCompression;
+        }
+
+        // The nearest configured superclass wins, then the nearest configured interface
+        for (Class<?> type = valueType; type != null; type = type.getSuperclass()) {
+            CompressionSettings settings = COMPRESSION.get(type);
+            if (settings != null) {
+                return settings;
+            }
+        }
+        for (Class<?> type = valueType; type != null; type = type.getSuperclass()) {
+            CompressionSettings settings = interfaceCompression(type);
+            if (settings != null) {
+                return settings;
+            }
+        }
+        return defaultCompression;
+    }
+
+    private static CompressionSettings interfaceCompression(Class<?> type) {
+        for (Class<?> implemented : type.getInterfaces()) {
+            CompressionSettings settings = COMPRESSION.get(implemented);
+            if (settings == null) {
+                settings = interfaceCompression(implemented);
+            }
+            if (settings != null) {
+                return settings;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Converts an object to JSON for storage, compressing it into an envelope when compression is
+     * configured for its type and the JSON reaches the size threshold.
+     *
+     * @param object The object to serialize
+     * @return The JSON, or a compressed JSON envelope
+     * @throws JsonProcessingException If serialization fails
+     */
+    public static String toStorageJson(Object object) throws JsonProcessingException {
+        CompressionSettings settings = object == null ? defaultCompression : getCompression(object.getClass());
+        if (settings.compression() == Compression.NONE) {
+            return toJson(object);
+        }
+
+        byte[] json = JSON_MAPPER.writeValueAsBytes(object);
+        if (json.length < settings.thresholdBytes()) {
+            return new String(json, StandardCharsets.UTF_8);
+        }
+
+        String payload = settings.compression().getId() + ":" + Base64.getEncoder().encodeToString(settings.compression().compress(json));
+        return JSON_MAPPER.writeValueAsString(Map.of(COMPRESSED_FIELD, payload));
+    }
+
+    /**
+     * Converts an object for a backend that can store binary data next to its JSON. When the
+     * object is compressed, the compressed bytes are kept as they are rather than Base64 encoded,
+     * and the JSON is only an envelope naming the algorithm, {@code {"$z":"<algorithm>"}}.
+     *
+     * @param object The object to serialize
+     * @return The JSON and, if compressed, the compressed bytes
+     * @throws JsonProcessingException If serialization fails
+     */
+    public static StoredValue toStoredValue(Object object) throws JsonProcessingException {
+        CompressionSettings settings = object == null ? defaultCompression : getCompression(object.getClass());
+        if (settings.compression() == Compression.NONE) {
+            return new StoredValue(toJson(object), Compression.NONE, null);
+        }
+
+        byte[] json = JSON_MAPPER.writeValueAsBytes(object);
+        if (json.length < settings.thresholdBytes()) {
+            return new StoredValue(new String(json, StandardCharsets.UTF_8), Compression.NONE, null);
+        }
+
+        String envelope = JSON_MAPPER.writeValueAsString(Map.of(COMPRESSED_FIELD, settings.compression().getId()));
+        return new StoredValue(envelope, settings.compression(), settings.compression().compress(json));
+    }
+
+    /**
+     * Converts a value written by {@link #toStoredValue(Object)} back to an object. Values without
+     * compressed bytes are read with {@link #fromStorageJson(String, Class)}, so values written
+     * before binary storage was used stay readable.
+     *
+     * @param json The stored JSON
+     * @param compressed The stored compressed bytes, or null
+     * @param valueType The class of the object to create
+     * @param <T> The type of the object
+     * @return The deserialized object
+     * @throws IOException If decompression or deserialization fails
+     */
+    public static <T> T fromStoredValue(String json, byte[] compressed, Class<T> valueType) throws IOException {
+        if (compressed == null) {
+            return fromStorageJson(json, valueType);
+        }
+
+        JsonNode algorithm = JSON_MAPPER.readTree(json).get(COMPRESSED_FIELD);
+        Compression compression = algorithm != null && algorithm.isTextual() ? Compression.fromId(algorithm.asText()) : null;
+        if (compression == null) {
+            throw new IOException("Unknown compression for stored value: " + json);
+        }
+        return fromCompressed(compression, compressed, valueType);
+    }
+
+    /**
+     * Converts compressed JSON, as in {@link StoredValue#compressed()}, back to an object.
+     *
+     * @param compression The algorithm the JSON was compressed with
+     * @param compressed The compressed JSON
+     * @param valueType The class of the object to create
+     * @param <T> The type of the object
+     * @return The deserialized object
+     * @throws IOException If decompression or deserialization fails
+     */
+    public static <T> T fromCompressed(Compression compression, byte[] compressed, Class<T> valueType) throws IOException {
+        return JSON_MAPPER.readValue(compression.decompress(compressed), valueType);
+    }
+
+    /**
+     * Converts JSON written by {@link #toStorageJson(Object)} back to an object.
+     * Plain JSON is read directly, so values written before compression was enabled stay readable.
+     *
+     * @param json The stored JSON
+     * @param valueType The class of the object to create
+     * @param <T> The type of the object
+     * @return The deserialized object
+     * @throws IOException If decompression or deserialization fails
+     */
+    public static <T> T fromStorageJson(String json, Class<T> valueType) throws IOException {
+        // Cheap prefix check first; JSON/JSONB columns keep the single key at the start
+        if (!json.startsWith(COMPRESSED_PREFIX)) {
+            return fromJson(json, valueType);
+        }
+
+        JsonNode envelope = JSON_MAPPER.readTree(json);
+        JsonNode payload = envelope.get(COMPRESSED_FIELD);
+        if (envelope.size() != 1 || payload == null || !payload.isTextual()) {
+            return JSON_MAPPER.treeToValue(envelope, valueType);
+        }
+
+        String text = payload.asText();
+        int separator = text.indexOf(':');
+        Compression compression = separator < 0 ? null : Compression.fromId(text.substring(0, separator));
+        if (compression == null) {
+            return JSON_MAPPER.treeToValue(envelope, valueType);
+        }
+
+        byte[] data = compression.decompress(Base64.getDecoder().decode(text.substring(separator + 1)));
+        return JSON_MAPPER.readValue(data, valueType);
+    }
+
+    /**
+     * A value prepared by {@link #toStoredValue(Object)}.
+     *
+     * @param json The JSON of the value, or the envelope of a compressed value
+     * @param compression The algorithm the value is compressed with, {@link Compression#NONE} if it is not
+     * @param compressed The compressed JSON, or null if the value is not compressed
+     */
+    public record StoredValue(String json, Compression compression, byte[] compressed) {
+    }
+
+    /**
+     * Compression settings for a stored type.
+     *
+     * @param compression The compression algorithm
+     * @param thresholdBytes The minimum JSON size in bytes before values are compressed
+     */
+    public record CompressionSettings(Compression compression, int thresholdBytes) {
+    }
+
     /**
      * Gets the JSON ObjectMapper instance.
      *
@@ -34,6 +34,9 @@ public enum TargetThread {
     /**
      * Represents the main thread as the target execution context for a task.
      * This option specifies that the task should execute on the main thread.
+     * <p>
+     * Tasks are queued and run on the server thread during the next ticks, a limited
+     * amount of time per tick, so they can safely use the Bukkit API.
      */
     MAIN
 }
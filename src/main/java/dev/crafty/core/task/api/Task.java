@@ -4,13 +4,16 @@ import dev.crafty.core.number.UnitNumber;
 import dev.crafty.core.number.units.TimeUnit;
 
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 /**
  * Provides asynchronous task execution and scheduling functionality.
  * <p>
  * This interface allows the execution of tasks asynchronously on a specified target thread
- * and supports optional delayed execution.
+ * and supports optional delayed execution. Results are delivered either to callbacks or, through
+ * {@link #supply(Callable, TargetThread)} and {@link #submit(Runnable, TargetThread)}, as a
+ * {@link TaskFuture} that can be chained across threads.
  * @since 1.0.0
  */
 public interface Task {
@@ -85,4 +88,73 @@ public interface Task {
      *                     the execution context for the task.
      */
     void schedule(Runnable action, UnitNumber<TimeUnit> delay, TargetThread targetThread);
+
+    /**
+     * Executes a given task on a specified target thread and returns a future of its result.
+     *
+     * @param <T> The type of the result produced by the task.
+     * @param action The task to be executed on the specified thread.
+     * @param targetThread The thread on which the task should be executed.
+     * @return The future of the result, completed exceptionally if the task throws.
+     */
+    default <T> TaskFuture<T> supply(Callable<T> action, TargetThread targetThread) {
+        return supply(action, UnitNumber.of(0, TimeUnit.MILLISECOND), targetThread);
+    }
+
+    /**
+     * Schedules a task for execution on a specified target thread after a specified delay
+     * and returns a future of its result. Cancelling the future before the delay has passed
+     * keeps the task from running.
+     *
+     * @param <T> The type of the result produced by the task.
+     * @param action The task to be executed on the specified thread after the delay.
+     * @param delay The delay before the task is executed.
+     * @param targetThread The thread on which the task should be executed.
+     * @return The future of the result, completed exceptionally if the task throws.
+     */
+    <T> TaskFuture<T> supply(Callable<T> action, UnitNumber<TimeUnit> delay, TargetThread targetThread);
+
+    /**
+     * Executes a given task on a specified target thread and returns a future completed when it has run.
+     *
+     * @param action The task to be executed on the specified thread.
+     * @param targetThread The thread on which the task should be executed.
+     * @return The future of the task, completed exceptionally if the task throws.
+     */
+    default TaskFuture<Void> submit(Runnable action, TargetThread targetThread) {
+        return submit(action, UnitNumber.of(0, TimeUnit.MILLISECOND), targetThread);
+    }
+
+    /**
+     * Schedules a task for execution on a specified target thread after a specified delay
+     * and returns a future completed when it has run.
+     *
+     * @param action The task to be executed on the specified thread after the delay.
+     * @param delay The delay before the task is executed.
+     * @param targetThread The thread on which the task should be executed.
+     * @return The future of the task, completed exceptionally if the task throws.
+     */
+    default TaskFuture<Void> submit(Runnable action, UnitNumber<TimeUnit> delay, TargetThread targetThread) {
+        return supply(() -> {
+            action.run();
+            return null;
+        }, delay, targetThread);
+    }
+
+    /**
+     * Gets the executor that runs tasks on a specified target thread.
+     *
+     * @param targetThread The target thread.
+     * @return The executor for that thread.
+     */
+    Executor executor(TargetThread targetThread);
+
+    /**
+     * Called for every stage chained from a {@link TaskFuture} of this task provider, so a
+     * provider can cancel the stages that have not run yet when it shuts down. Does nothing by default.
+     *
+     * @param stage The new stage
+     */
+    default void track(TaskFuture<?> stage) {
+    }
 }
@@ -0,0 +1,117 @@
+package dev.crafty.core.task.api;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * The result of a task started through {@link Task}, with stages that run on a chosen thread.
+ * <p>
+ * Stages are chained without nesting callbacks, and a failure in any stage skips the following
+ * ones and completes the last future exceptionally:
+ * </p>
+ * <pre>{@code
+ * task.supply(() -> database.loadBalance(uuid), TargetThread.VIRTUAL)
+ *         .thenOnPlatform(balance -> computeRank(balance))
+ *         .thenAcceptOnMain(rank -> player.sendMessage("Rank: " + rank))
+ *         .exceptionally(e -> { logger.warning("Could not load rank: " + e); return null; });
+ * }</pre>
+ * Every stage created from a task future is itself a task future, and async stages without an
+ * executor run on virtual threads. Cancelling a future before its task has started keeps the task
+ * from running; a task that is already running is not interrupted. Stages that have not run when
+ * their task provider shuts down are cancelled with it.
+ *
+ * @param <T> The type of the result
+ * @since 1.0.0
+ */
+public class TaskFuture<T> extends CompletableFuture<T> {
+    private final Task task;
+
+    /**
+     * Create an incomplete future whose stages run on the threads of a task provider.
+     *
+     * @param task The task provider
+     */
+    public TaskFuture(Task task) {
+        this.task = task;
+    }
+
+    /**
+     * Apply a function to the result on a target thread.
+     *
+     * @param targetThread The thread to run the function on
+     * @param function The function
+     * @param <U> The type of the new result
+     * @return The future of the function's result
+     */
+    public <U> TaskFuture<U> thenOn(TargetThread targetThread, Function<? super T, ? extends U> function) {
+        return (TaskFuture<U>) thenApplyAsync(function, task.executor(targetThread));
+    }
+
+    /**
+     * Apply a function to the result on the main thread.
+     *
+     * @param function The function
+     * @param <U> The type of the new result
+     * @return The future of the function's result
+     */
+    public <U> TaskFuture<U> thenOnMain(Function<? super T, ? extends U> function) {
+        return thenOn(TargetThread.MAIN, function);
+    }
+
+    /**
+     * Apply a function to the result on a virtual thread.
+     *
+     * @param function The function
+     * @param <U> The type of the new result
+     * @return The future of the function's result
+     */
+    public <U> TaskFuture<U> thenOnVirtual(Function<? super T, ? extends U> function) {
+        return thenOn(TargetThread.VIRTUAL, function);
+    }
+
+    /**
+     * Apply a function to the result on a platform thread, for CPU-intensive work.
+     *
+     * @param function The function
+     * @param <U> The type of the new result
+     * @return The future of the function's result
+     */
+    public <U> TaskFuture<U> thenOnPlatform(Function<? super T, ? extends U> function) {
+        return thenOn(TargetThread.PLATFORM, function);
+    }
+
+    /**
+     * Consume the result on a target thread.
+     *
+     * @param targetThread The thread to run the action on
+     * @param action The action
+     * @return The future completed once the action has run
+     */
+    public TaskFuture<Void> thenAcceptOn(TargetThread targetThread, Consumer<? super T> action) {
+        return (TaskFuture<Void>) thenAcceptAsync(action, task.executor(targetThread));
+    }
+
+    /**
+     * Consume the result on the main thread.
+     *
+     * @param action The action
+     * @return The future completed once the action has run
+     */
+    public TaskFuture<Void> thenAcceptOnMain(Consumer<? super T> action) {
+        return thenAcceptOn(TargetThread.MAIN, action);
+    }
+
+    @Override
+    public <U> CompletableFuture<U> newIncompleteFuture() {
+        TaskFuture<U> stage = new TaskFuture<>(task);
+        task.track(stage);
+        return stage;
+    }
+
+    @Override
+    public Executor defaultExecutor() {
+        return task.executor(TargetThread.VIRTUAL);
+    }
+}
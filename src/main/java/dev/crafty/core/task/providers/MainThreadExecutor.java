@@ -0,0 +1,123 @@
+package dev.crafty.core.task.providers;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.IllegalPluginAccessException;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Runs tasks on the server thread, in batches once per tick.
+ * <p>
+ * Tasks are added to a lock-free queue from any thread and run in order by a single repeating
+ * Bukkit task. Each tick runs tasks until the time budget is used up and leaves the rest for the
+ * next tick, so a burst of callbacks is spread over several ticks instead of stretching one.
+ * At least one task runs every tick, however long it takes.
+ * </p>
+ *
+ * @since 1.0.0
+ */
+public final class MainThreadExecutor implements Executor {
+    /**
+     * The default time budget per tick, in milliseconds.
+     */
+    public static final double DEFAULT_BUDGET_MILLIS = 5;
+
+    private final Plugin plugin;
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+
+    private volatile long budgetNanos;
+    private volatile BukkitTask drainTask;
+
+    /**
+     * Create a main thread executor. The repeating task is started when the first task is added.
+     *
+     * @param plugin The plugin that owns the repeating task
+     * @param budgetMillis The time spent running tasks per tick, in milliseconds
+     */
+    public MainThreadExecutor(Plugin plugin, double budgetMillis) {
+        this.plugin = plugin;
+        setBudget(budgetMillis);
+    }
+
+    /**
+     * Set the time spent running tasks per tick.
+     *
+     * @param budgetMillis The budget in milliseconds
+     */
+    public void setBudget(double budgetMillis) {
+        this.budgetNanos = (long) (Math.max(0, budgetMillis) * TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    /**
+     * Queue a task to run on the server thread during a coming tick.
+     *
+     * @param task The task
+     */
+    @Override
+    public void execute(Runnable task) {
+        queue.add(task);
+        if (drainTask == null) {
+            start();
+        }
+    }
+
+    /**
+     * Get the number of tasks waiting to run.
+     *
+     * @return The number of queued tasks
+     */
+    public int getQueued() {
+        return queue.size();
+    }
+
+    /**
+     * Stop running tasks and drop the ones still queued.
+     *
+     * @return The number of tasks dropped
+     */
+    public synchronized int shutdown() {
+        if (drainTask != null) {
+            drainTask.cancel();
+            drainTask = null;
+        }
+
+        int dropped = queue.size();
+        queue.clear();
+        return dropped;
+    }
+
+    private synchronized void start() {
+        if (drainTask != null) {
+            return;
+        }
+
+        try {
+            drainTask = Bukkit.getScheduler().runTaskTimer(plugin, this::drain, 0L, 1L);
+        } catch (IllegalPluginAccessException e) {
+            queue.clear();
+            throw e;
+        }
+    }
+
+    private void drain() {
+        long deadline = System.nanoTime() + budgetNanos;
+        Runnable task;
+        while ((task = queue.poll()) != null) {
+            try {
+                task.run();
+            } catch (Throwable e) {
+                plugin.getLogger().log(Level.SEVERE, "Main thread task failed", e);
+            }
+
+            if (System.nanoTime() - deadline >= 0) {
+                break;
+            }
+        }
+    }
+}
@@ -1,34 +1,87 @@
 package dev.crafty.core.task.providers;
 
-import com.google.common.util.concurrent.*;
+import dev.crafty.core.CraftyCore;
 import dev.crafty.core.number.UnitNumber;
 import dev.crafty.core.number.units.TimeUnit;
 import dev.crafty.core.task.api.TargetThread;
 import dev.crafty.core.task.api.Task;
-import org.jetbrains.annotations.Contract;
+import dev.crafty.core.task.api.TaskFuture;
+import lombok.Getter;
+import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.Callable;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.logging.Level;
 
 /**
+ * A plugin's view of the {@link TaskRuntime} that CraftyCore shares between all plugins.
+ * <p>
+ * Tasks run on the shared threads: a core-sized work-stealing pool for platform tasks, virtual
+ * threads, and the server thread through a {@link MainThreadExecutor}. Tasks without a delay are
+ * handed to their executor straight away, delayed tasks wait on the runtime's timer thread. Every
+ * task completes a {@link TaskFuture}; the callback methods are built on top of it, and failures
+ * are logged to the plugin's logger and reported to the task's {@code onFailure} action.
+ * </p>
+ * <p>
+ * Each provider counts its plugin's tasks and tracks the ones that have not finished, along with
+ * the stages chained from them, so {@link #shutdown()} cancels only that plugin's work and leaves
+ * the shared threads running.
+ * </p>
+ *
  * @since 1.0.0
  */
 public class TaskProvider implements Task {
-    private final ListeningExecutorService mainThreadService;
-    private final ListeningExecutorService physicalThreadService;
-    private final ListeningExecutorService virtualThreadService;
+    @Getter
+    private final Plugin plugin;
+    private final TaskRuntime runtime;
 
-    private final Timer timer;
+    private final Set<TaskFuture<?>> pending = ConcurrentHashMap.newKeySet();
+    // Held weakly: a stage that is no longer reachable can never run
+    private final Set<TaskFuture<?>> stages = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
 
+    private volatile boolean closed;
+
+    /**
+     * Create a task provider for CraftyCore itself.
+     */
     public TaskProvider() {
-        this.mainThreadService = MoreExecutors.listeningDecorator(MoreExecutors.newDirectExecutorService());
-        this.physicalThreadService = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(10));
-        this.virtualThreadService = MoreExecutors.listeningDecorator(Executors.newVirtualThreadPerTaskExecutor());
-        this.timer = new Timer();
+        this(CraftyCore.INSTANCE);
+    }
+
+    /**
+     * Create a task provider on the runtime shared through CraftyCore.
+     *
+     * @param plugin The plugin the tasks belong to
+     */
+    public TaskProvider(Plugin plugin) {
+        this(plugin, CraftyCore.INSTANCE.getTaskRuntime());
+    }
+
+    /**
+     * Create a task provider.
+     *
+     * @param plugin The plugin the tasks belong to
+     * @param runtime The runtime that runs the tasks
+     */
+    public TaskProvider(Plugin plugin, TaskRuntime runtime) {
+        this.plugin = plugin;
+        this.runtime = runtime;
     }
 
     @Override
@@ -53,52 +106,172 @@ public class TaskProvider implements Task {
 
     @Override
     public <T> void schedule(Callable<T> action, Consumer<T> onSuccess, Runnable onFailure, UnitNumber<TimeUnit> delay, TargetThread targetThread) {
-        int msDelay = delay.convertTo(TimeUnit.MILLISECOND).value().intValue();
-        var executor = getThreadService(targetThread);
-
-        timer.schedule(newTimerTask(() -> {
-            ListenableFuture<T> future = executor.submit(action);
-
-            FutureCallback<T> callback = new FutureCallback<>() {
-                @Override
-                public void onSuccess(T result) {
+        // Attached before the task is dispatched, so callbacks run on the thread that completes it, which is the target thread
+        supply(action, delay, targetThread, (result, failure) -> {
+            try {
+                if (failure == null) {
                     onSuccess.accept(result);
+                } else if (!(failure instanceof CancellationException)) {
+                    report("Task failed", failure);
+                    onFailure.run();
                 }
-
-                @Override
-                public void onFailure(@NotNull Throwable t) {
-
-                }
-            };
-
-            Futures.addCallback(future, callback, executor);
-        }), msDelay);
+            } catch (Throwable e) {
+                report("Task callback failed", e);
+            }
+        });
     }
 
     @Override
     public void schedule(Runnable action, @NotNull UnitNumber<TimeUnit> delay, TargetThread targetThread) {
-        int msDelay = delay.convertTo(TimeUnit.MILLISECOND).value().intValue();
-        var executor = getThreadService(targetThread);
+        submit(action, delay, targetThread).whenComplete((result, failure) -> {
+            if (failure != null && !(failure instanceof CancellationException)) {
+                report("Task failed", failure);
+            }
+        });
+    }
 
-        timer.schedule(newTimerTask(() -> executor.submit(action)), msDelay);
+    @Override
+    public <T> TaskFuture<T> supply(Callable<T> action, UnitNumber<TimeUnit> delay, TargetThread targetThread) {
+        return supply(action, delay, targetThread, null);
     }
 
-    @Contract(pure = true)
-    private ListeningExecutorService getThreadService(TargetThread targetThread) {
-        return switch (targetThread) {
-            case VIRTUAL -> virtualThreadService;
-            case PLATFORM -> physicalThreadService;
-            case MAIN -> mainThreadService;
+    private <T> TaskFuture<T> supply(Callable<T> action, UnitNumber<TimeUnit> delay, TargetThread targetThread,
+                                     BiConsumer<? super T, ? super Throwable> callback) {
+        TaskFuture<T> future = new TaskFuture<>(this);
+        if (callback != null) {
+            future.whenComplete(callback);
+        }
+        if (closed) {
+            future.completeExceptionally(rejected());
+            return future;
+        }
+
+        submitted.increment();
+        pending.add(future);
+        // Bookkeeping rather than a stage of the plugin, so it is not cancelled by shutdown()
+        stages.remove(future.whenComplete((result, failure) -> {
+            pending.remove(future);
+            if (failure == null) {
+                completed.increment();
+            } else if (!future.isCancelled()) {
+                failed.increment();
+            }
+        }));
+
+        Runnable task = () -> {
+            // Cancelled before it started
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(action.call());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
         };
+
+        Executor executor = runtime.executor(targetThread);
+        long delayNanos = toNanos(delay);
+        try {
+            if (delayNanos <= 0) {
+                executor.execute(task);
+            } else {
+                ScheduledFuture<?> timeout = runtime.schedule(task, executor, delayNanos, future::completeExceptionally);
+                stages.remove(future.whenComplete((result, failure) -> {
+                    if (future.isCancelled()) {
+                        timeout.cancel(false);
+                    }
+                }));
+            }
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
     }
 
-    @Contract(value = "_ -> new", pure = true)
-    private @NotNull TimerTask newTimerTask(Runnable action) {
-        return new TimerTask() {
-            @Override
-            public void run() {
-                action.run();
+    @Override
+    public Executor executor(TargetThread targetThread) {
+        Executor executor = runtime.executor(targetThread);
+        return command -> {
+            if (closed) {
+                throw rejected();
             }
+            // Commands still queued when the provider shuts down are dropped
+            executor.execute(() -> {
+                if (!closed) {
+                    command.run();
+                }
+            });
         };
     }
+
+    @Override
+    public void track(TaskFuture<?> stage) {
+        if (closed) {
+            stage.cancel(false);
+            return;
+        }
+        stages.add(stage);
+    }
+
+    /**
+     * Get the task counts of this plugin.
+     *
+     * @return The counts, taken now
+     */
+    public TaskStats getStats() {
+        return new TaskStats(submitted.sum(), completed.sum(), failed.sum(), pending.size());
+    }
+
+    /**
+     * Reject new tasks and cancel the tasks of this plugin that have not started yet, along with
+     * the stages chained from its tasks that have not run. Tasks that are already running are not
+     * interrupted, and the shared threads keep running.
+     *
+     * @return The number of tasks cancelled, not counting stages
+     */
+    public int shutdown() {
+        closed = true;
+
+        int cancelled = 0;
+        for (TaskFuture<?> future : pending) {
+            if (future.cancel(false)) {
+                cancelled++;
+            }
+        }
+
+        // Copied first, since cancelling runs handlers that may chain new stages
+        List<TaskFuture<?>> chained;
+        synchronized (stages) {
+            chained = new ArrayList<>(stages);
+            stages.clear();
+        }
+        for (TaskFuture<?> stage : chained) {
+            stage.cancel(false);
+        }
+        return cancelled;
+    }
+
+    /**
+     * The task counts of a plugin.
+     *
+     * @param submitted The number of tasks submitted
+     * @param completed The number of tasks that completed normally
+     * @param failed The number of tasks that threw
+     * @param pending The number of tasks that have not finished yet
+     */
+    public record TaskStats(long submitted, long completed, long failed, int pending) {
+    }
+
+    private RejectedExecutionException rejected() {
+        return new RejectedExecutionException("The tasks of " + plugin.getName() + " have been shut down");
+    }
+
+    private static long toNanos(UnitNumber<TimeUnit> delay) {
+        return Math.round(delay.convertTo(TimeUnit.MILLISECOND).value().doubleValue() * 1_000_000);
+    }
+
+    private void report(String message, Throwable e) {
+        plugin.getLogger().log(Level.SEVERE, message, e);
+    }
 }
@@ -0,0 +1,127 @@
+package dev.crafty.core.task.providers;
+
+import dev.crafty.core.task.api.TargetThread;
+import lombok.Getter;
+import org.bukkit.plugin.Plugin;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * The threads shared by the {@link TaskProvider}s of all plugins.
+ * <p>
+ * CraftyCore creates a single runtime when it is enabled, so the number of threads does not grow
+ * with the number of plugins:
+ * </p>
+ * <ul>
+ *     <li>{@link TargetThread#PLATFORM} tasks run in a work-stealing {@link ForkJoinPool} with one
+ *     thread per available core, meant for CPU-bound work.</li>
+ *     <li>{@link TargetThread#VIRTUAL} tasks each get a virtual thread.</li>
+ *     <li>{@link TargetThread#MAIN} tasks run on the server thread through a {@link MainThreadExecutor}.</li>
+ *     <li>Delayed tasks wait on a single timer thread, which hands them to their executor when due.</li>
+ * </ul>
+ *
+ * @since 1.0.0
+ */
+public final class TaskRuntime {
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final Plugin owner;
+    private final ForkJoinPool platform;
+    private final ExecutorService virtual;
+    private final ScheduledThreadPoolExecutor timer;
+    @Getter
+    private final MainThreadExecutor mainThread;
+
+    /**
+     * Create the runtime.
+     *
+     * @param owner The plugin that owns the main thread task and logs shutdown problems
+     * @param mainThreadBudgetMillis The time spent running main thread tasks per tick, in milliseconds
+     */
+    public TaskRuntime(Plugin owner, double mainThreadBudgetMillis) {
+        this.owner = owner;
+
+        this.platform = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("CraftyCore-Platform-" + thread.getPoolIndex());
+            return thread;
+        }, null, true);
+        this.virtual = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("CraftyCore-Virtual-", 0).factory());
+
+        AtomicInteger timerThreads = new AtomicInteger();
+        this.timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "CraftyCore-TaskTimer-" + timerThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer.setRemoveOnCancelPolicy(true);
+
+        this.mainThread = new MainThreadExecutor(owner, mainThreadBudgetMillis);
+    }
+
+    /**
+     * Get the executor that runs tasks on a target thread.
+     *
+     * @param targetThread The target thread
+     * @return The shared executor
+     */
+    public Executor executor(TargetThread targetThread) {
+        return switch (targetThread) {
+            case VIRTUAL -> virtual;
+            case PLATFORM -> platform;
+            case MAIN -> mainThread;
+        };
+    }
+
+    /**
+     * Hand a task to an executor after a delay.
+     *
+     * @param task The task
+     * @param executor The executor to run it on
+     * @param delayNanos The delay in nanoseconds
+     * @param onRejected Called on the timer thread if the executor refuses the task when it is due,
+     *                   for example because the server or the plugin is shutting down
+     * @return The pending timer, which can be cancelled
+     */
+    public ScheduledFuture<?> schedule(Runnable task, Executor executor, long delayNanos, Consumer<Throwable> onRejected) {
+        // The timer thread only hands the task over, so it is never blocked by the task itself
+        return timer.schedule(() -> {
+            try {
+                executor.execute(task);
+            } catch (Throwable e) {
+                // Thrown on the timer thread, where it would only be kept in the timer's own future
+                onRejected.accept(e);
+            }
+        }, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stop the timer, drop queued main thread tasks and wait a few seconds for running tasks to finish.
+     */
+    public void shutdown() {
+        timer.shutdownNow();
+        mainThread.shutdown();
+        platform.shutdown();
+        virtual.shutdown();
+
+        try {
+            if (!platform.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                    || !virtual.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                owner.getLogger().warning("Some tasks were still running after " + SHUTDOWN_TIMEOUT_SECONDS + " seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            owner.getLogger().log(Level.WARNING, "Interrupted while waiting for tasks to finish", e);
+        }
+    }
+}
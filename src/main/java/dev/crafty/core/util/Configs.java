@@ -1,9 +1,9 @@
 package dev.crafty.core.util;
 
+import dev.crafty.core.config.FastYamlLoader;
 import dev.crafty.core.config.SectionWrapper;
 import dev.crafty.core.plugin.CraftyPlugin;
 import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
 
@@ -15,7 +15,7 @@ public class Configs {
             plugin.saveResource(filePath, false);
         }
 
-        FileConfiguration config = YamlConfiguration.loadConfiguration(configFile);
+        FileConfiguration config = FastYamlLoader.load(configFile);
 
         return new SectionWrapper(config);
     }